@@ -12,16 +12,17 @@
  */
 package ai.djl.spring.examples.console;
 
-import ai.djl.inference.Predictor;
 import ai.djl.modality.Classifications;
 import ai.djl.modality.cv.Image;
 import ai.djl.modality.cv.ImageFactory;
 import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.spring.inference.BulkInferenceRunner;
+import ai.djl.spring.inference.PredictorPool;
 import jakarta.annotation.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.core.io.ClassPathResource;
@@ -31,10 +32,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Comparator;
-import java.util.function.Supplier;
 
 @SpringBootApplication
-public class ConsoleApplication implements CommandLineRunner {
+public class ConsoleApplication implements ApplicationRunner {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConsoleApplication.class);
 
@@ -43,24 +43,27 @@ public class ConsoleApplication implements CommandLineRunner {
                     Double.compare(o2.getProbability(), o1.getProbability());
 
     /**
-     * Note: @{@link Autowired} will fail on matching the generic type here.
-     * To wire with Autowired and generic types consider the following:
-     * <code>
-     *     @Autowired
-     *     Supplier<Predictor <?, ?>> autowiredProvider;
-     * </code>
-     *
-     * Then casting to the right type.
+     * Closing a predictor borrowed from the pool returns it for reuse instead of releasing its native resources.
      */
     @Resource
-    private Supplier<Predictor<Image, DetectedObjects>> predictorProvider;
+    private PredictorPool<Image, DetectedObjects> predictorPool;
 
     public static void main(String[] args) {
         SpringApplication.run(ConsoleApplication.class, args);
     }
 
+    /**
+     * With a directory or manifest file argument, runs a bulk job over its images and writes the detections to
+     * {@code target/output}; otherwise runs the bundled sample images one by one. Option arguments such as
+     * {@code --djl.model-cache.directory=...} configure the application and are not taken for the source.
+     */
     @Override
-    public void run(String... args) throws Exception {
+    public void run(ApplicationArguments args) throws Exception {
+        var sources = args.getNonOptionArgs();
+        if (!sources.isEmpty()) {
+            runBulkInference(Paths.get(sources.get(0)));
+            return;
+        }
 
         var resources = new org.springframework.core.io.Resource[] {
                 new ClassPathResource("/puppy-in-white-and-red-polka.jpg"),
@@ -73,10 +76,35 @@ public class ConsoleApplication implements CommandLineRunner {
         }
     }
 
+    private void runBulkInference(Path source) throws IOException, InterruptedException {
+        Path outputDir = Files.createDirectories(Paths.get("target/output"));
+        int cores = Runtime.getRuntime().availableProcessors();
+        var runner = new BulkInferenceRunner<Image, DetectedObjects>(predictorPool,
+                file -> ImageFactory.getInstance().fromFile(file),
+                (file, image, detection) -> saveBoundingBoxImage(image, detection, outputName(source, file)),
+                cores, cores, 8, 64);
+        // a restarted job skips the images listed in the checkpoint
+        var summary = runner.run(source, outputDir.resolve("checkpoint.txt"));
+        LOG.info("Bulk inference over {}: {}", source, summary);
+    }
+
+    /**
+     * Names the output of a file by its path relative to the source directory, or to the directory of the manifest
+     * file, so that files with the same name in different directories do not overwrite each other's output.
+     */
+    private static String outputName(Path source, Path file) {
+        Path base = Files.isDirectory(source) ? source : source.toAbsolutePath().getParent();
+        base = base.toAbsolutePath().normalize();
+        Path absolute = file.toAbsolutePath().normalize();
+        // files listed outside of the manifest directory keep their whole path
+        Path relative = absolute.startsWith(base) ? base.relativize(absolute) : absolute.getRoot().relativize(absolute);
+        return relative.toString();
+    }
+
     private void runInference(org.springframework.core.io.Resource resource) throws IOException, ai.djl.translate.TranslateException {
         Image image = ImageFactory.getInstance().fromInputStream(resource.getInputStream());
 
-        try (var predictor = predictorProvider.get()) {
+        try (var predictor = predictorPool.borrow()) {
             var results = predictor.predict(image);
 
             var items = results.items();
@@ -102,9 +130,12 @@ public class ConsoleApplication implements CommandLineRunner {
         newImage.drawBoundingBoxes(detection);
 
         Path imagePath = outputDir.resolve(fileName);
+        Files.createDirectories(imagePath.getParent());
 
         // OpenJDK can't save jpg with alpha channel
-        newImage.save(Files.newOutputStream(imagePath), "png");
+        try (var os = Files.newOutputStream(imagePath)) {
+            newImage.save(os, "png");
+        }
         LOG.info("Detected objects image has been saved in: {}", imagePath);
     }
 }
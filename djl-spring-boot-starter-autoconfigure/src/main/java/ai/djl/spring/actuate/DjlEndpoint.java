@@ -0,0 +1,303 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.actuate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * {@link Endpoint @Endpoint} exposing the models served by the application, their load state and inference
+ * statistics.
+ */
+@Endpoint(id = "djl")
+public class DjlEndpoint {
+
+    private final ModelRegistry modelRegistry;
+
+    /**
+     * Creates a new endpoint.
+     *
+     * @param modelRegistry the registry of served models
+     */
+    public DjlEndpoint(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
+
+    /**
+     * @return the descriptors of all served models
+     */
+    @ReadOperation
+    public ModelsDescriptor models() {
+        var models = new LinkedHashMap<String, ModelDescriptor>();
+        for (ServedModel model : modelRegistry.getModels()) {
+            models.put(model.getName(), new ModelDescriptor(model));
+        }
+        return new ModelsDescriptor(models);
+    }
+
+    /**
+     * @param name the name of the model
+     * @return the descriptor of the model, or {@code null} if no model has that name, which responds with 404
+     */
+    @ReadOperation
+    public ModelDescriptor model(@Selector String name) {
+        for (ServedModel model : modelRegistry.getModels()) {
+            if (model.getName().equals(name)) {
+                return new ModelDescriptor(model);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Description of all served models.
+     */
+    public static final class ModelsDescriptor {
+
+        private final Map<String, ModelDescriptor> models;
+
+        private ModelsDescriptor(Map<String, ModelDescriptor> models) {
+            this.models = models;
+        }
+
+        public Map<String, ModelDescriptor> getModels() {
+            return models;
+        }
+    }
+
+    /**
+     * Description of a served model.
+     */
+    public static final class ModelDescriptor {
+
+        private final String state;
+        private final String engine;
+        private final String artifactId;
+        private final String[] urls;
+        private final String inputClass;
+        private final String outputClass;
+        private final Instant loadedAt;
+        private final Duration loadDuration;
+        private final String loadError;
+        private final long parameterBytes;
+        private final MemoryDescriptor memory;
+        private final InferenceDescriptor inference;
+        private final PoolDescriptor pool;
+
+        private ModelDescriptor(ServedModel model) {
+            var properties = model.getProperties();
+            state = model.getState().name();
+            engine = model.getEngine();
+            artifactId = properties.getModelArtifactId();
+            urls = properties.getUrls();
+            inputClass = properties.getInputClass() != null ? properties.getInputClass().getName() : null;
+            outputClass = properties.getOutputClass() != null ? properties.getOutputClass().getName() : null;
+            loadedAt = model.getLoadedAt();
+            loadDuration = model.getLoadDuration();
+            loadError = model.getLoadError() != null ? model.getLoadError().toString() : null;
+            parameterBytes = model.getParameterBytes();
+            memory = new MemoryDescriptor(model);
+            inference = new InferenceDescriptor(model);
+            pool = model.getPredictorPool() != null ? new PoolDescriptor(model) : null;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public String getEngine() {
+            return engine;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String[] getUrls() {
+            return urls;
+        }
+
+        public String getInputClass() {
+            return inputClass;
+        }
+
+        public String getOutputClass() {
+            return outputClass;
+        }
+
+        public Instant getLoadedAt() {
+            return loadedAt;
+        }
+
+        public Duration getLoadDuration() {
+            return loadDuration;
+        }
+
+        public String getLoadError() {
+            return loadError;
+        }
+
+        public long getParameterBytes() {
+            return parameterBytes;
+        }
+
+        public MemoryDescriptor getMemory() {
+            return memory;
+        }
+
+        public InferenceDescriptor getInference() {
+            return inference;
+        }
+
+        public PoolDescriptor getPool() {
+            return pool;
+        }
+    }
+
+    /**
+     * Native memory of a served model. Sizes are {@code -1} when unknown.
+     */
+    public static final class MemoryDescriptor {
+
+        private final int liveArrays;
+        private final long liveArrayBytes;
+        private final long deviceUsedBytes;
+        private final long deviceTotalBytes;
+
+        private MemoryDescriptor(ServedModel model) {
+            liveArrays = model.getLiveArrayCount();
+            liveArrayBytes = model.getLiveArrayBytes();
+            var device = model.getDeviceMemory();
+            deviceUsedBytes = device != null ? device.getUsed() : -1;
+            deviceTotalBytes = device != null ? device.getMax() : -1;
+        }
+
+        /**
+         * @return the number of open arrays of the model, parameters and predictors included
+         */
+        public int getLiveArrays() {
+            return liveArrays;
+        }
+
+        /**
+         * @return the native memory held by the open arrays of the model
+         */
+        public long getLiveArrayBytes() {
+            return liveArrayBytes;
+        }
+
+        /**
+         * @return the memory used on the GPU of the model as reported by CUDA, by every model and process
+         */
+        public long getDeviceUsedBytes() {
+            return deviceUsedBytes;
+        }
+
+        /**
+         * @return the memory of the GPU of the model as reported by CUDA
+         */
+        public long getDeviceTotalBytes() {
+            return deviceTotalBytes;
+        }
+    }
+
+    /**
+     * Inference counters of a served model.
+     */
+    public static final class InferenceDescriptor {
+
+        private final long predictions;
+        private final long items;
+        private final long errors;
+        private final Duration totalTime;
+        private final Duration averageTime;
+
+        private InferenceDescriptor(ServedModel model) {
+            predictions = model.getPredictionCount();
+            items = model.getItemCount();
+            errors = model.getErrorCount();
+            totalTime = model.getPredictionTime();
+            averageTime = predictions > 0 ? totalTime.dividedBy(predictions) : null;
+        }
+
+        public long getPredictions() {
+            return predictions;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Duration getTotalTime() {
+            return totalTime;
+        }
+
+        public Duration getAverageTime() {
+            return averageTime;
+        }
+    }
+
+    /**
+     * Occupancy of the predictor pool and batching queue of a served model.
+     */
+    public static final class PoolDescriptor {
+
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final int maxSize;
+        private final Integer queued;
+
+        private PoolDescriptor(ServedModel model) {
+            var predictorPool = model.getPredictorPool();
+            active = predictorPool.getActiveCount();
+            idle = predictorPool.getIdleCount();
+            waiting = predictorPool.getWaitingCount();
+            maxSize = predictorPool.getMaxSize();
+            queued = model.getBatchingPredictor() != null ? model.getBatchingPredictor().getQueueSize() : null;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public Integer getQueued() {
+            return queued;
+        }
+    }
+}
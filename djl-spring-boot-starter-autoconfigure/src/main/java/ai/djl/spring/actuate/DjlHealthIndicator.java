@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.actuate;
+
+import ai.djl.spring.model.LazyZooModel;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Health indicator reporting {@code DOWN} while a model is loading, before it has been loaded, or after it failed
+ * to load. Lazy models that have not been loaded yet are healthy, they are loaded on first use.
+ */
+public class DjlHealthIndicator extends AbstractHealthIndicator {
+
+    private final ModelRegistry modelRegistry;
+
+    /**
+     * Creates a new health indicator.
+     *
+     * @param modelRegistry the registry of served models
+     */
+    public DjlHealthIndicator(ModelRegistry modelRegistry) {
+        super("DJL health check failed");
+        this.modelRegistry = modelRegistry;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.up();
+        for (ServedModel model : modelRegistry.getModels()) {
+            var state = model.getState();
+            builder.withDetail(model.getName(), state.name());
+            if (state == ServedModel.State.LOADING || state == ServedModel.State.FAILED
+                    || (state == ServedModel.State.NOT_LOADED && !(model.getModel() instanceof LazyZooModel))) {
+                builder.down();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.io.IOException;
+import java.util.List;
+
+import ai.djl.inference.Predictor;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Loads all models, runs one prediction on each and exits.
+ *
+ * <p>
+ * Meant to be run with {@code -XX:ArchiveClassesAtExit}, so that the class data sharing archive covers the classes
+ * loaded by the engines, the model zoos and the translators, including those of asynchronously and lazily loaded
+ * models that a {@code spring.context.exit=onRefresh} run would miss. The prediction runs on the first warm-up input
+ * of the model, a configured sample or a synthetic input of its input class, so that the archive also holds the
+ * classes of the translator's processing. Like the {@link ModelPrefetchRunner}, the run happens before any
+ * {@code ApplicationRunner} of the application, which never run in this mode, and the JVM exits with the exit code
+ * of the application. The archive is written as the JVM exits.
+ */
+public class CdsTrainingRunner implements ApplicationListener<ApplicationStartedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CdsTrainingRunner.class);
+
+    private final ModelRegistry modelRegistry;
+
+    public CdsTrainingRunner(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        for (ServedModel servedModel : modelRegistry.getModels()) {
+            if (servedModel.getModel() == null) {
+                continue;
+            }
+            // creating a predictor waits for asynchronously loaded models and loads lazy ones
+            try (Predictor<?, ?> predictor = servedModel.getModel().newPredictor()) {
+                predict(servedModel, predictor);
+            }
+        }
+        LOG.info("Training run complete, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I> void predict(ServedModel servedModel, Predictor<I, ?> predictor) {
+        Class<?> inputClass = servedModel.getProperties().getInputClass();
+        if (inputClass == null) {
+            LOG.info("Loaded model {}, no input class to run its translator with", servedModel.getName());
+            return;
+        }
+        try {
+            List<I> inputs = ModelWarmupRunner.warmupInputs(servedModel, (Class<I>) inputClass);
+            predictor.predict(inputs.get(0));
+            LOG.info("Loaded model {} and ran its translator", servedModel.getName());
+        } catch (IOException | TranslateException | RuntimeException e) {
+            // the archive still holds the classes loaded so far
+            LOG.warn("Failed to run a prediction on model {}, the archive may miss translator classes",
+                    servedModel.getName(), e);
+        }
+    }
+}
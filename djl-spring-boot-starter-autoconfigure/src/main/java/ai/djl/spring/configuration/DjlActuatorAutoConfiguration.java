@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.actuate.DjlEndpoint;
+import ai.djl.spring.actuate.DjlHealthIndicator;
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Exposes the served models through the {@code djl} actuator endpoint and a health indicator when Spring Boot
+ * Actuator is on the classpath.
+ */
+@AutoConfiguration(after = { DjlAutoConfiguration.class, DjlModelsAutoConfiguration.class })
+@ConditionalOnClass(Endpoint.class)
+@ConditionalOnBean(ModelRegistry.class)
+public class DjlActuatorAutoConfiguration {
+
+    /**
+     * Lists the served models with their engine, artifact, types, load time, parameter memory and inference
+     * counters.
+     *
+     * @param modelRegistry the registry of served models
+     * @return the endpoint
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnAvailableEndpoint
+    public DjlEndpoint djlEndpoint(ModelRegistry modelRegistry) {
+        return new DjlEndpoint(modelRegistry);
+    }
+
+    /**
+     * Reports {@code DOWN} while a model is loading or after it failed to load.
+     *
+     * @param modelRegistry the registry of served models
+     * @return the health indicator
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "djlHealthIndicator")
+    @ConditionalOnEnabledHealthIndicator("djl")
+    public DjlHealthIndicator djlHealthIndicator(ModelRegistry modelRegistry) {
+        return new DjlHealthIndicator(modelRegistry);
+    }
+}
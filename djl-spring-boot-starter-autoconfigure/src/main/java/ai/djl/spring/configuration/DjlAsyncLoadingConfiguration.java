@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Readiness handling shared by the single and named model configurations when {@code djl.async-loading} is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "djl", name = "async-loading", havingValue = "true")
+class DjlAsyncLoadingConfiguration {
+
+    @Bean
+    public ModelReadinessListener modelReadinessListener(ApplicationContext context,
+            ObjectProvider<ApplicationAvailability> availability) {
+        return new ModelReadinessListener(context, availability);
+    }
+}
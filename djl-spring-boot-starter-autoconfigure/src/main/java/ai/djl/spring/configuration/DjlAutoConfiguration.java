@@ -13,34 +13,64 @@
 package ai.djl.spring.configuration;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Supplier;
 
 import ai.djl.MalformedModelException;
 import ai.djl.inference.Predictor;
-import ai.djl.modality.cv.Image;
-import ai.djl.modality.cv.output.DetectedObjects;
-import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ModelNotFoundException;
-import ai.djl.repository.zoo.ModelZoo;
 import ai.djl.repository.zoo.ZooModel;
-import ai.djl.training.util.ProgressBar;
-import ai.djl.translate.TranslatorFactory;
-import ai.djl.util.ClassLoaderUtils;
+import ai.djl.spring.inference.AdaptiveConcurrencyLimiter;
+import ai.djl.spring.inference.BatchingPredictor;
+import ai.djl.spring.inference.CachingPredictor;
+import ai.djl.spring.inference.InferenceExecutor;
+import ai.djl.spring.inference.InferenceScheduler;
+import ai.djl.spring.inference.NativeMemoryBudget;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.inference.ReactivePredictor;
+import ai.djl.spring.inference.ScopedPredictor;
+import ai.djl.spring.model.AsyncZooModel;
+import ai.djl.spring.model.LazyZooModel;
+import ai.djl.spring.model.ModelCache;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+import ai.djl.spring.worker.WorkerMain;
+import ai.djl.spring.worker.WorkerPool;
+import ai.djl.spring.worker.WorkerPredictor;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
+import reactor.core.publisher.Flux;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.util.StringUtils;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
 
-@Configuration
+@AutoConfiguration
 @ConditionalOnMissingBean(ZooModel.class)
+@Conditional(OnNamedModelsCondition.None.class)
 @EnableConfigurationProperties(DjlConfigurationProperties.class)
+@ImportRuntimeHints(DjlRuntimeHints.class)
+@Import({ DjlModelRegistryConfiguration.class, DjlEngineOptionsConfiguration.class, DjlModelCacheConfiguration.class,
+        DjlCdsConfiguration.class, DjlAsyncLoadingConfiguration.class, DjlNativeMemoryConfiguration.class,
+        DjlWarmupConfiguration.class })
 public class DjlAutoConfiguration {
 
     private static final Logger LOG = LoggerFactory.getLogger(DjlAutoConfiguration.class);
@@ -48,88 +78,290 @@ public class DjlAutoConfiguration {
     @Autowired
     private DjlConfigurationProperties properties;
 
+    /**
+     * Loads the configured model.
+     *
+     * @param modelCache the cache the model is loaded from, set up before loading
+     * @param modelRegistry the registry the model is registered in
+     * @return the model, or a proxy to it when it is loaded lazily, asynchronously or by worker processes
+     * @throws MalformedModelException if the model artifacts are invalid
+     * @throws ModelNotFoundException if no model matches the properties
+     * @throws IOException if the model could not be downloaded or read
+     */
     @Bean
-    public ZooModel<?, ?> model() throws MalformedModelException, ModelNotFoundException, IOException {
-        var applicationType = properties.getApplicationType();
-        var filter = properties.getModelFilter();
-        var arguments = properties.getArguments();
-        var artifactId = properties.getModelArtifactId();
-        var inputClass = properties.getInputClass();
-        var urls = properties.getUrls();
-        var translatorFactory = properties.getTranslatorFactory();
-
-        if (inputClass == null) {
-            LOG.warn("Input class is not defined. Using default: BufferedImage");
-            inputClass = Image.class;
-        }
-        Class<?> outputClass = properties.getOutputClass();
-        if (outputClass == null) {
-            LOG.warn("Input class is not defined. Using default: DetectedObjects");
-            outputClass = DetectedObjects.class;
+    public ZooModel<?, ?> model(ModelCache modelCache, ModelRegistry modelRegistry)
+            throws MalformedModelException, ModelNotFoundException, IOException {
+        var servedModel = modelRegistry.register(ModelRegistry.DEFAULT_MODEL_NAME, properties);
+        ZooModel<?, ?> model;
+        if (properties.getWorkers().isEnabled()) {
+            // the workers load the model, the application only does if a bean uses it directly
+            model = new LazyZooModel<>(servedModel.getName(), () -> ModelLoader.loadModel(properties, servedModel),
+                    properties.getLazyIdleTimeout());
+        } else if (properties.isLazy()) {
+            if (properties.isAsyncLoading()) {
+                LOG.warn("Both lazy and async-loading are set, the model will be loaded lazily");
+            }
+            model = new LazyZooModel<>(servedModel.getName(), () -> ModelLoader.loadModel(properties, servedModel),
+                    properties.getLazyIdleTimeout());
+        } else if (properties.isAsyncLoading()) {
+            model = AsyncZooModel.load(servedModel.getName(), () -> ModelLoader.loadModel(properties, servedModel));
+        } else {
+            model = ModelLoader.loadModel(properties, servedModel);
         }
+        servedModel.setModel(model);
+        return model;
+    }
 
-        Criteria.Builder<?, ?> builder = Criteria.builder().setTypes(inputClass, outputClass);
-        if (applicationType != null) {
-            builder.optApplication(applicationType.application());
-        }
-        if (filter != null) {
-            builder.optFilters(filter);
-        }
-        if (artifactId != null) {
-            builder.optArtifactId(artifactId);
-        }
-        if (arguments != null) {
-            builder.optArguments(arguments);
-        }
-        if (translatorFactory != null) {
-            ClassLoader cl = ClassLoaderUtils.getContextClassLoader();
-            TranslatorFactory factory = ClassLoaderUtils.initClass(cl, TranslatorFactory.class, translatorFactory);
-            builder.optTranslatorFactory(factory);
-        }
-        if(urls != null && urls.length > 0) {
-            builder.optModelUrls(StringUtils.arrayToCommaDelimitedString(urls));
-        }
-        if (properties.isProgress()) {
-            builder.optProgress(new ProgressBar());
-        }
-        if (StringUtils.hasText(properties.getModelName())) {
-            builder.optModelName(properties.getModelName());
-        }
-        if (StringUtils.hasText(properties.getGroupId())) {
-            builder.optGroupId(properties.getGroupId());
-        }
-        if (StringUtils.hasText(properties.getEngine())) {
-            builder.optEngine(properties.getEngine());
+    /**
+     * Expected to be used with try-with-resources. The provided predictor is {@link AutoCloseable}. Each call frees
+     * its temporary arrays when it returns, and predictors that are not closed are reported when they are garbage
+     * collected.
+     *
+     * @param model injected configured model
+     * @param modelRegistry the registry the model is registered in
+     * @param budget the native memory budget admitting each call
+     * @param workerPool the worker processes the predictions are dispatched to, when enabled
+     * @return provider of the predictor object
+     */
+    @Bean
+    public Supplier<Predictor<?, ?>> predictorProvider(ZooModel<?, ?> model, ModelRegistry modelRegistry,
+            NativeMemoryBudget budget, ObjectProvider<WorkerPool> workerPool) {
+        var servedModel = modelRegistry.get(ModelRegistry.DEFAULT_MODEL_NAME);
+        WorkerPool workers = workerPool.getIfAvailable();
+        if (workers != null) {
+            Supplier<Predictor<Object, Object>> factory = createWorkerPredictorFactory(workers, servedModel, budget,
+                    servedModel.getConcurrencyLimiter(), properties.getMemory());
+            return () -> {
+                Predictor<?, ?> predictor = factory.get();
+                servedModel.onPredictorCreated(predictor);
+                return predictor;
+            };
         }
+        return createPredictorProvider(model, servedModel, budget, properties.getMemory());
+    }
 
-        try {
-            var zooModel = builder.build().loadModel();
-            LOG.info("Successfully loaded model {}", zooModel.getName());
-            return zooModel;
+    /**
+     * Pool of reusable predictors. Closing a borrowed predictor returns it to the pool instead of destroying it, so
+     * it is expected to be used with try-with-resources as well.
+     *
+     * @param model injected configured model
+     * @param modelRegistry the registry the model is registered in
+     * @param budget the native memory budget admitting each call
+     * @param workerPool the worker processes the predictions are dispatched to, when enabled
+     * @return pool of predictors created from the model
+     */
+    @Bean
+    public PredictorPool<?, ?> predictorPool(ZooModel<?, ?> model, ModelRegistry modelRegistry,
+            NativeMemoryBudget budget, ObjectProvider<WorkerPool> workerPool) {
+        var servedModel = modelRegistry.get(ModelRegistry.DEFAULT_MODEL_NAME);
+        WorkerPool workers = workerPool.getIfAvailable();
+        PredictorPool<?, ?> predictorPool;
+        if (workers != null) {
+            var pool = properties.getPool();
+            predictorPool = new PredictorPool<>(
+                    createWorkerPredictorFactory(workers, servedModel, budget, null, properties.getMemory()),
+                    pool.getMinIdle(), pool.getMaxSize(), pool.getBorrowTimeout(), pool.getIdleTimeout());
+            servedModel.setPredictorPool(predictorPool);
+            predictorPool.prefill();
+            return predictorPool;
         }
-        catch(ModelNotFoundException ex) {
-            Yaml yaml = createYamlDumper();
-            LOG.error("Requested model was not found");
-            LOG.error("List of available models {}", yaml.dump(ModelZoo.listModels()));
-            throw ex;
+        predictorPool = createPool(model, servedModel, budget, properties.getPool(), properties.getMemory());
+        servedModel.setPredictorPool(predictorPool);
+        return predictorPool;
+    }
+
+    /**
+     * Starts local worker processes loading the model, to which the predictor provider and the predictor pool
+     * dispatch predictions. A worker that exits is restarted.
+     *
+     * @param environment the environment whose {@code djl.*} properties are passed to the workers
+     * @return the started workers
+     * @throws IOException if a worker could not be started
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "djl.workers", name = "enabled", havingValue = "true")
+    public WorkerPool workerPool(ConfigurableEnvironment environment) throws IOException {
+        var workers = properties.getWorkers();
+        Path directory = workers.getBufferDirectory();
+        if (directory == null) {
+            Path shm = Path.of("/dev/shm");
+            directory = Files.isDirectory(shm) && Files.isWritable(shm) ? shm
+                    : Path.of(System.getProperty("java.io.tmpdir"));
         }
+        var workerPool = new WorkerPool(WorkerMain.launcher(workers.getJvmArgs()), workerArguments(environment),
+                properties.getEngine(), workers.getCount(), workers.getStartTimeout(), directory,
+                (int) workers.getBufferSize().toBytes(), workers.getRestartDelay(), workers.getCallTimeout());
+        workerPool.start();
+        return workerPool;
     }
 
-    private Yaml createYamlDumper() {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        options.setPrettyFlow(true);
-        return new Yaml(options);
+    /**
+     * Gathers concurrent single-item predictions into batch predictions run on the predictor pool.
+     *
+     * @param predictorPool injected predictor pool
+     * @param modelRegistry the registry the model is registered in
+     * @return batching predictor returning a future for each input
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "djl.batching", name = "enabled", havingValue = "true")
+    public BatchingPredictor<?, ?> batchingPredictor(PredictorPool<?, ?> predictorPool,
+            ModelRegistry modelRegistry) {
+        var batchingPredictor = createBatchingPredictor(predictorPool, properties.getBatching());
+        modelRegistry.get(ModelRegistry.DEFAULT_MODEL_NAME).setBatchingPredictor(batchingPredictor);
+        return batchingPredictor;
     }
 
     /**
-     * Expected to be used with try-with-resources. The provided predictor is {@link AutoCloseable}.
+     * Runs predictions on a bounded pool of platform threads and everything around them, including the stages
+     * attached to the returned futures, on virtual threads when available.
      *
-     * @param model injected configured model
-     * @return provider of the predictor object
+     * @param predictorPool injected predictor pool
+     * @return inference executor with an asynchronous {@code predictAsync} facade
      */
     @Bean
-    public Supplier<Predictor<?, ?>> predictorProvider(ZooModel<?, ?> model) {
-        return model::newPredictor;
+    @ConditionalOnProperty(prefix = "djl.executor", name = "enabled", havingValue = "true")
+    public InferenceExecutor<?, ?> inferenceExecutor(PredictorPool<?, ?> predictorPool) {
+        var executor = properties.getExecutor();
+        return new InferenceExecutor<>(predictorPool, executor.getThreads(), executor.getQueueCapacity(),
+                executor.isVirtualThreads());
+    }
+
+    /**
+     * Runs predictions in order of priority class and drops the ones whose deadline passed before they could run.
+     *
+     * @param predictorPool injected predictor pool
+     * @param modelRegistry the registry the model is registered in
+     * @return inference scheduler returning a future for each input
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "djl.scheduler", name = "enabled", havingValue = "true")
+    public InferenceScheduler<?, ?> inferenceScheduler(PredictorPool<?, ?> predictorPool,
+            ModelRegistry modelRegistry) {
+        var scheduler = properties.getScheduler();
+        var inferenceScheduler = new InferenceScheduler<>(predictorPool, scheduler.getThreads(),
+                scheduler.getQueueCapacity(), scheduler.getTimeouts());
+        modelRegistry.get(ModelRegistry.DEFAULT_MODEL_NAME).setInferenceScheduler(inferenceScheduler);
+        return inferenceScheduler;
+    }
+
+    static List<String> workerArguments(ConfigurableEnvironment environment) {
+        // environment variables and configuration files are read by the workers themselves, this covers the rest
+        Set<String> names = new TreeSet<>();
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (source instanceof EnumerablePropertySource) {
+                for (String name : ((EnumerablePropertySource<?>) source).getPropertyNames()) {
+                    if (name.startsWith("djl.") && !name.startsWith("djl.workers.")) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        List<String> arguments = new ArrayList<>();
+        for (String name : names) {
+            String value = environment.getProperty(name);
+            if (value != null) {
+                arguments.add("--" + name + '=' + value);
+            }
+        }
+        return arguments;
+    }
+
+    private static <I, O> BatchingPredictor<I, O> createBatchingPredictor(PredictorPool<I, O> pool,
+            DjlConfigurationProperties.Batching batching) {
+        return new BatchingPredictor<>(pool, batching.getMaxBatchSize(), batching.getMaxDelay(),
+                batching.getQueueCapacity(), batching.getWorkers());
+    }
+
+    static <I, O> Supplier<Predictor<I, O>> createPredictorFactory(ZooModel<I, O> model, ServedModel servedModel,
+            NativeMemoryBudget budget, AdaptiveConcurrencyLimiter limiter, DjlConfigurationProperties.Memory memory) {
+        return () -> new ScopedPredictor<>(model, servedModel, budget, limiter, memory.isScopedInference(),
+                memory.getLeakStackSampling());
+    }
+
+    static <I, O> Supplier<Predictor<I, O>> createWorkerPredictorFactory(WorkerPool workers, ServedModel servedModel,
+            NativeMemoryBudget budget, AdaptiveConcurrencyLimiter limiter, DjlConfigurationProperties.Memory memory) {
+        // the workers bound their own native memory, this admits the calls and accounts for the decoded outputs
+        return () -> {
+            WorkerPredictor<I, O> predictor = workers.newPredictor();
+            return new ScopedPredictor<>(servedModel.getName(), predictor.getModel(), predictor, servedModel, budget,
+                    limiter, memory.isScopedInference(), memory.getLeakStackSampling());
+        };
+    }
+
+    static Supplier<Predictor<?, ?>> createPredictorProvider(ZooModel<?, ?> model, ServedModel servedModel,
+            NativeMemoryBudget budget, DjlConfigurationProperties.Memory memory) {
+        Supplier<? extends Predictor<?, ?>> factory = createPredictorFactory(model, servedModel, budget,
+                servedModel.getConcurrencyLimiter(), memory);
+        return () -> {
+            Predictor<?, ?> predictor = factory.get();
+            servedModel.onPredictorCreated(predictor);
+            return predictor;
+        };
+    }
+
+    static <I, O> PredictorPool<I, O> createPool(ZooModel<I, O> model, ServedModel servedModel,
+            NativeMemoryBudget budget, ModelProperties.Pool pool, DjlConfigurationProperties.Memory memory) {
+        // the pool admits its borrowers through the limiter of the served model itself, before they wait
+        var predictorPool = new PredictorPool<>(createPredictorFactory(model, servedModel, budget, null, memory),
+                pool.getMinIdle(), pool.getMaxSize(), pool.getBorrowTimeout(), pool.getIdleTimeout());
+        if (model instanceof AsyncZooModel) {
+            ((AsyncZooModel<I, O>) model).getFuture().thenRun(() -> {
+                try {
+                    predictorPool.prefill();
+                } catch (RuntimeException e) {
+                    LOG.warn("Failed to prefill predictor pool", e);
+                }
+            });
+        } else if (!(model instanceof LazyZooModel)) {
+            // prefilling a lazy model would load it, and its open idle predictors would keep it from being unloaded
+            predictorPool.prefill();
+        }
+        return predictorPool;
+    }
+
+    @Configuration
+    @ConditionalOnClass(Flux.class)
+    @ConditionalOnProperty(prefix = "djl.reactive", name = "enabled", havingValue = "true")
+    static class ReactiveConfiguration {
+
+        /**
+         * Reactive predictor running forward passes on a bounded scheduler, for WebFlux applications.
+         *
+         * @param predictorPool injected predictor pool
+         * @param properties the DJL properties
+         * @return predictor returning {@code Mono} and {@code Flux} results
+         */
+        @Bean
+        public ReactivePredictor<?, ?> reactivePredictor(PredictorPool<?, ?> predictorPool,
+                DjlConfigurationProperties properties) {
+            var reactive = properties.getReactive();
+            return new ReactivePredictor<>(predictorPool, reactive.getThreads(), reactive.getQueueCapacity(),
+                    reactive.getMaxBatchSize(), reactive.getMaxDelay());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(Caffeine.class)
+    @ConditionalOnProperty(prefix = "djl.cache", name = "enabled", havingValue = "true")
+    static class CachingConfiguration {
+
+        /**
+         * Serves repeated inputs from a cache keyed by the input content, in front of the predictor pool.
+         *
+         * @param predictorPool injected predictor pool
+         * @param modelRegistry the registry the model is registered in
+         * @param properties the DJL properties
+         * @return caching predictor
+         */
+        @Bean
+        public CachingPredictor<?, ?> cachingPredictor(PredictorPool<?, ?> predictorPool, ModelRegistry modelRegistry,
+                DjlConfigurationProperties properties) {
+            var cache = properties.getCache();
+            var servedModel = modelRegistry.get(ModelRegistry.DEFAULT_MODEL_NAME);
+            var cachingPredictor = new CachingPredictor<>(predictorPool, servedModel.getName(), cache.getMaximumSize(),
+                    cache.getExpireAfterWrite());
+            servedModel.setCachingPredictor(cachingPredictor);
+            return cachingPredictor;
+        }
     }
 }
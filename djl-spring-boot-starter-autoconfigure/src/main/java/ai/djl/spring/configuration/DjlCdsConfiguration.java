@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Class data sharing training run shared by the single and named model configurations. Like the
+ * {@link DjlRuntimeHints}, it only serves a faster start and never changes how models are served.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "djl.cds", name = "training-run", havingValue = "true")
+class DjlCdsConfiguration {
+
+    @Bean
+    public CdsTrainingRunner cdsTrainingRunner(ModelRegistry modelRegistry) {
+        return new CdsTrainingRunner(modelRegistry);
+    }
+}
@@ -12,183 +12,1015 @@
  */
 package ai.djl.spring.configuration;
 
+import ai.djl.spring.inference.InferenceScheduler;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @ConfigurationProperties("djl")
-public class DjlConfigurationProperties {
+public class DjlConfigurationProperties extends ModelProperties {
+
+    /**
+     * Named models, each loaded into its own qualified model, predictor provider and predictor pool beans. When at
+     * least one named model is defined, the top-level model properties are not used.
+     */
+    private Map<String, ModelProperties> models = new LinkedHashMap<>();
+
+    /**
+     * Whether to load models on a background thread instead of during context startup. Model beans are available
+     * immediately and block on first use until loading has finished; readiness is only reported once all models are
+     * loaded.
+     */
+    private boolean asyncLoading = false;
 
     /**
-     * Defines the type of application for the model.
-     *
-     * <p>
-     * For more information on available applications, see
-     * https://github.com/deepjavalibrary/djl/blob/master/api/src/main/java/ai/djl/Application.java
+     * Whether to load models the first time they are used instead of at startup. Takes precedence over
+     * async-loading.
      */
-    private ApplicationType applicationType;
+    private boolean lazy = false;
 
     /**
-     * Defines the java data type used as input for inference. For example, {@link java.awt.image.BufferedImage} can be used for cases when input is image.
+     * Time after which a lazily loaded model that has not been used is closed, to be loaded again on next use. Only
+     * applies when lazy is set; by default models stay loaded. Predictor pools must use a min-idle of 0 for their model
+     * to be unloaded.
      */
-    private Class<?> inputClass;
+    private Duration lazyIdleTimeout;
 
     /**
-     * Defines the java data type expected for inference output. {@link ai.djl.modality.cv.output.DetectedObjects} is a common output for classifications, object detection.
+     * Settings of the local cache models and engines are downloaded to.
      */
-    private Class<?> outputClass;
+    private final ModelCache modelCache = new ModelCache();
 
     /**
-     * Defines the artifactId of the model to be loaded.
+     * Settings of the class data sharing training run.
      */
-    private String modelArtifactId;
+    private final Cds cds = new Cds();
 
     /**
-     * Model repository URLs. Multiple may be supplied to search for models. Specifying a single URL can be used
-     * to load a specific model. Can be specified as comma delimited field or as an array in the configuration file.
+     * Threading and runtime options of the engines, applied before any engine is loaded.
      */
-    private String[] urls;
+    private final EngineOptions engineOptions = new EngineOptions();
 
     /**
-     * Defines the translatorFactory for the model.
+     * Settings of the batching predictor.
      */
-    private String translatorFactory;
+    private final Batching batching = new Batching();
 
     /**
-     * Arguments that allow the user to override pre-process/post-process behavior.
-     *
-     * <p>
-     * The key/value pairs are model specific, check specific (@code ModelLoader} class for detail.
-     *
+     * Settings of the asynchronous inference executor.
      */
-    private Map<String, Object> arguments;
+    private final Executor executor = new Executor();
 
     /**
-     * Filters used to lookup a model from model zoo.
-     *
-     * <p>
-     * For more information on available filters that are currently part of the repository, see
-     * https://github.com/deepjavalibrary/djl/tree/master/model-zoo#how-to-find-a-pre-trained-model-in-the-model-zoo
+     * Settings of the priority and deadline aware inference scheduler.
      */
-    private Map<String, String> modelFilter;
+    private final Scheduler scheduler = new Scheduler();
 
+    /**
+     * Settings of the reactive predictor.
+     */
+    private final Reactive reactive = new Reactive();
+
+    /**
+     * Settings of the inference result cache.
+     */
+    private final Cache cache = new Cache();
+
+    /**
+     * Settings of the Micrometer metrics.
+     */
+    private final Metrics metrics = new Metrics();
 
     /**
-     * Supported engine names: * https://docs.djl.ai/docs/engine.html#supported-engines
-     * Possible values are: MXNet, PyTorch, TensorFlow, TFLite, OnnxRuntime, PaddlePaddle, TensorRT
+     * Settings of the native memory used by predictions.
      */
-    private String engine;
+    private final Memory memory = new Memory();
 
     /**
-     * Defines the groupId of the model to be loaded.
+     * Settings of the HTTP inference endpoint.
      */
-    private String groupId;
+    private final Web web = new Web();
 
     /**
-     * Defines the modelName of the model to be loaded.
-     * Leave it empty if you want to load the latest version of the model.
-     * Use "saved_model" for TensorFlow saved models.
+     * Settings of the worker processes running the model.
      */
-    private String modelName;
+    private final Workers workers = new Workers();
 
     /**
-     * Defines whether to show progress bar when loading the model.
+     * Settings of the Spring Cloud Function prediction functions.
      */
-    private boolean progress = true;
+    private final CloudFunction function = new CloudFunction();
+
+    public Map<String, ModelProperties> getModels() {
+        return models;
+    }
+
+    public void setModels(Map<String, ModelProperties> models) {
+        this.models = models;
+    }
+
+    public boolean isAsyncLoading() {
+        return asyncLoading;
+    }
 
-    public Map<String, String> getModelFilter() {
-        return modelFilter;
+    public void setAsyncLoading(boolean asyncLoading) {
+        this.asyncLoading = asyncLoading;
     }
 
-    public void setModelFilter(Map<String, String> modelFilter) {
-        this.modelFilter = modelFilter;
+    public boolean isLazy() {
+        return lazy;
     }
 
-    public ApplicationType getApplicationType() {
-        return applicationType;
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
     }
 
-    public void setApplicationType(ApplicationType applicationType) {
-        this.applicationType = applicationType;
+    public Duration getLazyIdleTimeout() {
+        return lazyIdleTimeout;
     }
 
-    public Class<?> getInputClass() {
-        return inputClass;
+    public void setLazyIdleTimeout(Duration lazyIdleTimeout) {
+        this.lazyIdleTimeout = lazyIdleTimeout;
+    }
+
+    public ModelCache getModelCache() {
+        return modelCache;
+    }
+
+    public Cds getCds() {
+        return cds;
+    }
+
+    public EngineOptions getEngineOptions() {
+        return engineOptions;
+    }
+
+    public Batching getBatching() {
+        return batching;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public Reactive getReactive() {
+        return reactive;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Memory getMemory() {
+        return memory;
+    }
+
+    public Web getWeb() {
+        return web;
+    }
+
+    public Workers getWorkers() {
+        return workers;
+    }
+
+    public CloudFunction getFunction() {
+        return function;
+    }
+
+    public static class Batching {
+
+        /**
+         * Whether to create the batching predictor bean.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of inputs gathered into one batch prediction.
+         */
+        private int maxBatchSize = 32;
+
+        /**
+         * Maximum time the first input of a batch waits for more inputs before the batch is run.
+         */
+        private Duration maxDelay = Duration.ofMillis(10);
+
+        /**
+         * Maximum number of inputs waiting to be batched. Further inputs are rejected.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Number of batches that can run concurrently, each on its own predictor from the pool.
+         */
+        private int workers = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
     }
 
-    public void setInputClass(Class<?> inputClass) {
-        this.inputClass = inputClass;
+    public static class Scheduler {
+
+        /**
+         * Whether to create the inference scheduler bean.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of threads running scheduled predictions. Capped at the predictor pool max size.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Maximum number of requests waiting, over all priority classes. Further requests are rejected.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Default timeout of the requests of each priority class. Requests of classes without a timeout wait
+         * indefinitely.
+         */
+        private Map<InferenceScheduler.Priority, Duration> timeouts = new EnumMap<>(InferenceScheduler.Priority.class);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Map<InferenceScheduler.Priority, Duration> getTimeouts() {
+            return timeouts;
+        }
+
+        public void setTimeouts(Map<InferenceScheduler.Priority, Duration> timeouts) {
+            this.timeouts = timeouts;
+        }
     }
 
-    public Class<?> getOutputClass() {
-        return outputClass;
+    public static class Executor {
+
+        /**
+         * Whether to create the inference executor bean.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of platform threads running forward passes. Capped at the predictor pool max size.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Maximum number of predictions waiting for an inference thread. Further predictions are rejected.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Whether to load inputs and complete futures on virtual threads when running on Java 21 or later.
+         */
+        private boolean virtualThreads = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
     }
 
-    public void setOutputClass(Class<?> outputClass) {
-        this.outputClass = outputClass;
+    public static class Reactive {
+
+        /**
+         * Whether to create the reactive predictor bean when Reactor is on the classpath.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of concurrent forward passes. Capped at the predictor pool max size.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Maximum number of predictions waiting for a thread. Further single predictions fail.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Maximum number of stream inputs gathered into one batch prediction.
+         */
+        private int maxBatchSize = 32;
+
+        /**
+         * Maximum time a stream input waits for more inputs before its batch is run.
+         */
+        private Duration maxDelay = Duration.ofMillis(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
     }
 
-    public String getModelArtifactId() {
-        return modelArtifactId;
+    public static class Cache {
+
+        /**
+         * Whether to create the caching predictor bean.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of cached outputs. The least valuable ones are evicted first.
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * How long an output stays cached after it was computed. Kept until evicted if not set.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
     }
 
-    public void setModelArtifactId(String modelArtifactId) {
-        this.modelArtifactId = modelArtifactId;
+    public static class ModelCache {
+
+        /**
+         * Directory models and engine native libraries are downloaded to. Defaults to the DJL cache directory.
+         */
+        private Path directory;
+
+        /**
+         * Whether to download all models into the cache directory, record its manifest and exit. Meant to be run at
+         * image build time.
+         */
+        private boolean prefetch = false;
+
+        /**
+         * Whether to verify at startup that the cache matches the manifest recorded by the pre-fetch run.
+         */
+        private boolean verify = false;
+
+        /**
+         * Whether DJL must only use cached files and never access the network.
+         */
+        private boolean offline = false;
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public boolean isPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(boolean prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        public boolean isVerify() {
+            return verify;
+        }
+
+        public void setVerify(boolean verify) {
+            this.verify = verify;
+        }
+
+        public boolean isOffline() {
+            return offline;
+        }
+
+        public void setOffline(boolean offline) {
+            this.offline = offline;
+        }
     }
 
-    public Map<String, Object> getArguments() {
-        return arguments;
+    public static class Cds {
+
+        /**
+         * Whether to load every model, create a predictor for each and exit, so that a JVM started with
+         * -XX:ArchiveClassesAtExit archives the engine, model zoo and translator classes.
+         */
+        private boolean trainingRun = false;
+
+        public boolean isTrainingRun() {
+            return trainingRun;
+        }
+
+        public void setTrainingRun(boolean trainingRun) {
+            this.trainingRun = trainingRun;
+        }
     }
 
-    public void setArguments(Map<String, Object> arguments) {
-        this.arguments = arguments;
+    public static class Metrics {
+
+        /**
+         * Whether to publish model and inference metrics when a Micrometer registry is available.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
     }
 
-    public String[] getUrls() {
-        return urls;
+    public static class Web {
+
+        /**
+         * Whether to serve the models at {@code POST <path>/{model}} in a servlet web application.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Path prefix of the inference endpoint.
+         */
+        private String path = "/djl/predict";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
     }
 
-    public void setUrls(String[] urls) {
-        this.urls = urls;
+    public static class CloudFunction {
+
+        /**
+         * Whether to register the djlPredict and djlBatchPredict functions when Spring Cloud Function is present.
+         * djlPredict also requires djl.reactive.enabled.
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
     }
 
-    public String getTranslatorFactory() {
-        return translatorFactory;
+    public static class Workers {
+
+        /**
+         * Whether to run the default model in local worker processes rather than in the application, which then only
+         * loads the model when a bean uses it directly.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of worker processes.
+         */
+        private int count = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+        /**
+         * How long a worker may take to start and load the model.
+         */
+        private Duration startTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Options of the worker JVMs, for example a maximum heap size.
+         */
+        private List<String> jvmArgs = new ArrayList<>();
+
+        /**
+         * Size of the request and of the response payloads shared with a worker through memory. Larger payloads are
+         * sent through the socket, 0 sends every payload through the socket.
+         */
+        private DataSize bufferSize = DataSize.ofMegabytes(8);
+
+        /**
+         * Directory of the files shared with the workers. Defaults to /dev/shm when writable, the temporary directory
+         * otherwise.
+         */
+        private Path bufferDirectory;
+
+        /**
+         * How long to wait before restarting a worker that exited.
+         */
+        private Duration restartDelay = Duration.ofSeconds(1);
+
+        /**
+         * How long a worker may take to answer a call before it is killed and restarted, failing the call. 0 for no
+         * limit.
+         */
+        private Duration callTimeout = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Duration getStartTimeout() {
+            return startTimeout;
+        }
+
+        public void setStartTimeout(Duration startTimeout) {
+            this.startTimeout = startTimeout;
+        }
+
+        public List<String> getJvmArgs() {
+            return jvmArgs;
+        }
+
+        public void setJvmArgs(List<String> jvmArgs) {
+            this.jvmArgs = jvmArgs;
+        }
+
+        public DataSize getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(DataSize bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Path getBufferDirectory() {
+            return bufferDirectory;
+        }
+
+        public void setBufferDirectory(Path bufferDirectory) {
+            this.bufferDirectory = bufferDirectory;
+        }
+
+        public Duration getRestartDelay() {
+            return restartDelay;
+        }
+
+        public void setRestartDelay(Duration restartDelay) {
+            this.restartDelay = restartDelay;
+        }
+
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
     }
 
-    public void setTranslatorFactory(String translatorFactory) {
-        this.translatorFactory = translatorFactory;
+    public static class Memory {
+
+        /**
+         * Whether to close the arrays created during each prediction when it returns, except the arrays of NDList and
+         * NDArray outputs. Disable for translators whose outputs hold arrays in any other way.
+         */
+        private boolean scopedInference = true;
+
+        /**
+         * Fraction of predictors recording where the arrays they return are allocated. When such a predictor is
+         * garbage collected without being closed, the allocations of the arrays still unreleased are logged. Between 0
+         * and 1.
+         */
+        private double leakStackSampling = 0.01;
+
+        /**
+         * Native memory the NDArrays of all models may hold before predictions wait for memory to be released. No
+         * limit when unset.
+         */
+        private DataSize maxNativeBytes;
+
+        /**
+         * Native memory kept free below max-native-bytes, for the memory the engine allocates outside of NDArrays.
+         */
+        private DataSize headroom = DataSize.ofBytes(0);
+
+        /**
+         * Estimated native memory of a prediction of one item, reserved from max-native-bytes while it runs, since
+         * the sampled usage does not see the predictions in flight yet. Batches reserve it once per item.
+         */
+        private DataSize requestEstimate = DataSize.ofMegabytes(16);
+
+        /**
+         * How long a prediction waits for native memory to drop below the limit before it is rejected.
+         */
+        private Duration admissionTimeout = Duration.ofMillis(100);
+
+        /**
+         * How often the native memory held by NDArrays is measured when there is a limit.
+         */
+        private Duration sampleInterval = Duration.ofMillis(100);
+
+        public boolean isScopedInference() {
+            return scopedInference;
+        }
+
+        public void setScopedInference(boolean scopedInference) {
+            this.scopedInference = scopedInference;
+        }
+
+        public double getLeakStackSampling() {
+            return leakStackSampling;
+        }
+
+        public void setLeakStackSampling(double leakStackSampling) {
+            this.leakStackSampling = leakStackSampling;
+        }
+
+        public DataSize getMaxNativeBytes() {
+            return maxNativeBytes;
+        }
+
+        public void setMaxNativeBytes(DataSize maxNativeBytes) {
+            this.maxNativeBytes = maxNativeBytes;
+        }
+
+        public DataSize getHeadroom() {
+            return headroom;
+        }
+
+        public void setHeadroom(DataSize headroom) {
+            this.headroom = headroom;
+        }
+
+        public DataSize getRequestEstimate() {
+            return requestEstimate;
+        }
+
+        public void setRequestEstimate(DataSize requestEstimate) {
+            this.requestEstimate = requestEstimate;
+        }
+
+        public Duration getAdmissionTimeout() {
+            return admissionTimeout;
+        }
+
+        public void setAdmissionTimeout(Duration admissionTimeout) {
+            this.admissionTimeout = admissionTimeout;
+        }
+
+        public Duration getSampleInterval() {
+            return sampleInterval;
+        }
+
+        public void setSampleInterval(Duration sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
     }
 
-	public String getEngine() {
-		return engine;
-	}
+    public static class EngineOptions {
+
+        /**
+         * Whether to log the thread layout of the engines and predictor pools once the application is ready.
+         */
+        private boolean report = true;
+
+        /**
+         * Number of OpenMP threads. Read by the native libraries when they are loaded, so it can only be checked
+         * against the OMP_NUM_THREADS environment variable of the process, not applied.
+         */
+        private Integer ompNumThreads;
+
+        /**
+         * Number of MKL threads. Read by the native libraries when they are loaded, so it can only be checked
+         * against the MKL_NUM_THREADS environment variable of the process, not applied.
+         */
+        private Integer mklNumThreads;
+
+        /**
+         * PyTorch options.
+         */
+        private final PyTorch pytorch = new PyTorch();
+
+        /**
+         * TensorFlow options.
+         */
+        private final TensorFlow tensorflow = new TensorFlow();
+
+        /**
+         * MXNet options.
+         */
+        private final MxNet mxnet = new MxNet();
+
+        public boolean isReport() {
+            return report;
+        }
+
+        public void setReport(boolean report) {
+            this.report = report;
+        }
+
+        public Integer getOmpNumThreads() {
+            return ompNumThreads;
+        }
 
-	public void setEngine(String engine) {
-		this.engine = engine;
-	}
+        public void setOmpNumThreads(Integer ompNumThreads) {
+            this.ompNumThreads = ompNumThreads;
+        }
 
-	public String getGroupId() {
-		return groupId;
-	}
+        public Integer getMklNumThreads() {
+            return mklNumThreads;
+        }
 
-	public void setGroupId(String groupId) {
-		this.groupId = groupId;
-	}
+        public void setMklNumThreads(Integer mklNumThreads) {
+            this.mklNumThreads = mklNumThreads;
+        }
 
-	public String getModelName() {
-		return modelName;
-	}
+        public PyTorch getPytorch() {
+            return pytorch;
+        }
 
-	public void setModelName(String modelName) {
-		this.modelName = modelName;
-	}
+        public TensorFlow getTensorflow() {
+            return tensorflow;
+        }
 
-	public boolean isProgress() {
-		return progress;
-	}
+        public MxNet getMxnet() {
+            return mxnet;
+        }
 
-	public void setProgress(boolean progress) {
-		this.progress = progress;
-	}
+        public static class PyTorch {
+
+            /**
+             * Number of intra-op threads each forward pass may use. Defaults to the number of cores.
+             */
+            private Integer numThreads;
+
+            /**
+             * Number of inter-op threads shared by all forward passes. Defaults to the number of cores.
+             */
+            private Integer numInteropThreads;
+
+            /**
+             * Whether to run the TorchScript graph executor optimizer, which re-profiles and recompiles the graph
+             * for new input shapes.
+             */
+            private Boolean graphOptimizer;
+
+            /**
+             * Whether to let cuDNN benchmark convolution algorithms for each input shape.
+             */
+            private Boolean cudnnBenchmark;
+
+            public Integer getNumThreads() {
+                return numThreads;
+            }
+
+            public void setNumThreads(Integer numThreads) {
+                this.numThreads = numThreads;
+            }
+
+            public Integer getNumInteropThreads() {
+                return numInteropThreads;
+            }
+
+            public void setNumInteropThreads(Integer numInteropThreads) {
+                this.numInteropThreads = numInteropThreads;
+            }
+
+            public Boolean getGraphOptimizer() {
+                return graphOptimizer;
+            }
+
+            public void setGraphOptimizer(Boolean graphOptimizer) {
+                this.graphOptimizer = graphOptimizer;
+            }
+
+            public Boolean getCudnnBenchmark() {
+                return cudnnBenchmark;
+            }
+
+            public void setCudnnBenchmark(Boolean cudnnBenchmark) {
+                this.cudnnBenchmark = cudnnBenchmark;
+            }
+        }
+
+        public static class TensorFlow {
+
+            /**
+             * Number of threads each operation may use. Defaults to the number of cores.
+             */
+            private Integer numIntraopThreads;
+
+            /**
+             * Number of operations run in parallel. Defaults to the number of cores.
+             */
+            private Integer numInteropThreads;
+
+            public Integer getNumIntraopThreads() {
+                return numIntraopThreads;
+            }
+
+            public void setNumIntraopThreads(Integer numIntraopThreads) {
+                this.numIntraopThreads = numIntraopThreads;
+            }
+
+            public Integer getNumInteropThreads() {
+                return numInteropThreads;
+            }
+
+            public void setNumInteropThreads(Integer numInteropThreads) {
+                this.numInteropThreads = numInteropThreads;
+            }
+        }
+
+        public static class MxNet {
+
+            /**
+             * Execution engine, such as NaiveEngine or ThreadedEnginePerDevice. Checked against the MXNET_ENGINE_TYPE
+             * environment variable, MXNet reads it when it is loaded.
+             */
+            private String engineType;
+
+            /**
+             * Number of CPU worker threads. Checked against the MXNET_CPU_WORKER_NTHREADS environment variable, MXNet
+             * reads it when it is loaded.
+             */
+            private Integer cpuWorkerThreads;
+
+            public String getEngineType() {
+                return engineType;
+            }
+
+            public void setEngineType(String engineType) {
+                this.engineType = engineType;
+            }
+
+            public Integer getCpuWorkerThreads() {
+                return cpuWorkerThreads;
+            }
+
+            public void setCpuWorkerThreads(Integer cpuWorkerThreads) {
+                this.cpuWorkerThreads = cpuWorkerThreads;
+            }
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.model.EngineOptions;
+import ai.djl.spring.model.ModelRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Engine options shared by the single and named model configurations. The model cache bean depends on the
+ * {@link EngineOptions} bean, so that the options are applied before any engine is loaded.
+ */
+@Configuration
+class DjlEngineOptionsConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DjlEngineOptionsConfiguration.class);
+
+    @Bean
+    public EngineOptions engineOptions(DjlConfigurationProperties properties) {
+        var settings = properties.getEngineOptions();
+        var pytorch = settings.getPytorch();
+        var tensorflow = settings.getTensorflow();
+        var mxnet = settings.getMxnet();
+        var engineOptions = new EngineOptions()
+                .systemProperty(EngineOptions.PYTORCH_NUM_THREADS, pytorch.getNumThreads())
+                .systemProperty(EngineOptions.PYTORCH_NUM_INTEROP_THREADS, pytorch.getNumInteropThreads())
+                .systemProperty(EngineOptions.PYTORCH_GRAPH_OPTIMIZER, pytorch.getGraphOptimizer())
+                .systemProperty(EngineOptions.PYTORCH_CUDNN_BENCHMARK, pytorch.getCudnnBenchmark())
+                .systemProperty(EngineOptions.TENSORFLOW_NUM_INTRAOP_THREADS, tensorflow.getNumIntraopThreads())
+                .systemProperty(EngineOptions.TENSORFLOW_NUM_INTEROP_THREADS, tensorflow.getNumInteropThreads())
+                .environment(EngineOptions.OMP_NUM_THREADS, settings.getOmpNumThreads())
+                .environment(EngineOptions.MKL_NUM_THREADS, settings.getMklNumThreads())
+                .environment(EngineOptions.MXNET_ENGINE_TYPE, mxnet.getEngineType())
+                .environment(EngineOptions.MXNET_CPU_WORKER_NTHREADS, mxnet.getCpuWorkerThreads());
+        engineOptions.apply();
+        return engineOptions;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "djl.engine-options", name = "report", havingValue = "true",
+            matchIfMissing = true)
+    public ApplicationListener<ApplicationReadyEvent> threadLayoutReport(ModelRegistry modelRegistry) {
+        return event -> LOG.info(EngineOptions.describeThreadLayout(modelRegistry.getModels()));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.function.Function;
+
+import ai.djl.spring.function.BatchPredictionFunction;
+import ai.djl.spring.function.DjlMessageConverter;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.inference.ReactivePredictor;
+import reactor.core.publisher.Flux;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.function.context.FunctionRegistration;
+import org.springframework.cloud.function.context.catalog.FunctionTypeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Exposes the model to Spring Cloud Function, and through it to Spring Cloud Stream binders, as two functions typed
+ * with {@code djl.input-class} and {@code djl.output-class}, when {@code djl.function.enabled} is set:
+ * <ul>
+ * <li>{@value #PREDICT}, a {@code Function<Flux<I>, Flux<O>>} gathering the stream into batch predictions as the
+ * {@link ReactivePredictor} it runs on, registered when {@code djl.reactive.enabled} is set as well,</li>
+ * <li>{@value #BATCH_PREDICT}, a {@code Function<List<I>, List<O>>} running each list, such as a batch of messages
+ * of a binder in batch mode, as batch predictions.</li>
+ * </ul>
+ */
+@AutoConfiguration(after = { DjlAutoConfiguration.class, DjlModelsAutoConfiguration.class })
+@ConditionalOnClass({ FunctionRegistration.class, Flux.class })
+@ConditionalOnSingleCandidate(PredictorPool.class)
+@ConditionalOnProperty(prefix = "djl.function", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DjlConfigurationProperties.class)
+public class DjlFunctionAutoConfiguration {
+
+    /** Name of the streaming prediction function. */
+    public static final String PREDICT = "djlPredict";
+    /** Name of the batch prediction function. */
+    public static final String BATCH_PREDICT = "djlBatchPredict";
+
+    /**
+     * Streaming prediction function, gathering up to {@code djl.reactive.max-batch-size} inputs or whatever arrived
+     * within {@code djl.reactive.max-delay} into each batch prediction.
+     *
+     * @param reactivePredictor the reactive predictor of the model
+     * @param properties the DJL properties
+     * @return the registration of the function
+     */
+    @Bean
+    @ConditionalOnBean(ReactivePredictor.class)
+    @SuppressWarnings("unchecked")
+    public FunctionRegistration<Function<Flux<Object>, Flux<Object>>> djlPredict(
+            ReactivePredictor<?, ?> reactivePredictor, DjlConfigurationProperties properties) {
+        var predictor = (ReactivePredictor<Object, Object>) reactivePredictor;
+        Function<Flux<Object>, Flux<Object>> function = inputs -> predictor.predict(inputs);
+        Type type = FunctionTypeUtils.functionType(generic(Flux.class, properties.getInputClass()),
+                generic(Flux.class, properties.getOutputClass()));
+        return new FunctionRegistration<>(function, PREDICT).type(type);
+    }
+
+    /**
+     * Batch prediction function, splitting lists larger than {@code djl.reactive.max-batch-size}.
+     *
+     * @param predictorPool the predictor pool of the model
+     * @param properties the DJL properties
+     * @return the registration of the function
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public FunctionRegistration<Function<List<Object>, List<Object>>> djlBatchPredict(
+            PredictorPool<?, ?> predictorPool, DjlConfigurationProperties properties) {
+        Function<List<Object>, List<Object>> function = new BatchPredictionFunction<>(
+                (PredictorPool<Object, Object>) predictorPool, properties.getReactive().getMaxBatchSize());
+        Type type = FunctionTypeUtils.functionType(generic(List.class, properties.getInputClass()),
+                generic(List.class, properties.getOutputClass()));
+        return new FunctionRegistration<>(function, BATCH_PREDICT).type(type);
+    }
+
+    /**
+     * Converts encoded images to {@code Image} inputs and JSON serializable outputs to JSON.
+     *
+     * @return the message converter, picked up by Spring Cloud Function
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DjlMessageConverter djlMessageConverter() {
+        return new DjlMessageConverter();
+    }
+
+    private static Type generic(Class<?> container, Class<?> element) {
+        return ResolvableType.forClassWithGenerics(container, element != null ? element : Object.class).getType();
+    }
+}
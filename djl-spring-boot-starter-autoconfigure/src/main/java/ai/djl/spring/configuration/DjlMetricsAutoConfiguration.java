@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.inference.NativeMemoryBudget;
+import ai.djl.spring.metrics.MicrometerModelListener;
+import ai.djl.spring.metrics.NativeMemoryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Publishes model load times, per-stage inference latencies, predictor pool and batching queue occupancy, batch
+ * sizes, error counts and native memory usage to Micrometer when a {@link MeterRegistry} is available.
+ */
+@AutoConfiguration(
+        afterName =
+                "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "djl.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DjlMetricsAutoConfiguration {
+
+    /**
+     * Records the events of every served model. Meters are tagged with {@code model} and {@code engine}.
+     *
+     * @param meterRegistry the meter registry
+     * @return listener publishing model events as meters
+     */
+    @Bean
+    public MicrometerModelListener micrometerModelListener(MeterRegistry meterRegistry) {
+        return new MicrometerModelListener(meterRegistry);
+    }
+
+    /**
+     * Publishes the native memory held by NDArrays and the predictions waiting for it or rejected.
+     *
+     * @param budget the native memory budget, when a model is configured
+     * @return binder of the native memory meters
+     */
+    @Bean
+    public MeterBinder nativeMemoryMetrics(ObjectProvider<NativeMemoryBudget> budget) {
+        return registry -> budget.ifAvailable(b -> new NativeMemoryMetrics(b).bindTo(registry));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.io.IOException;
+
+import ai.djl.spring.model.ModelCache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Model cache handling and the pre-fetch run shared by the single and named model configurations. Model beans depend on
+ * the {@link ModelCache} bean, so that the cache is set up and verified before any model is loaded. The cache itself
+ * depends on the engine options, applied before it.
+ */
+@Configuration
+class DjlModelCacheConfiguration {
+
+    @Bean
+    @DependsOn("engineOptions")
+    public ModelCache modelCache(DjlConfigurationProperties properties) throws IOException {
+        var settings = properties.getModelCache();
+        var modelCache = new ModelCache(settings.getDirectory());
+        if (settings.isPrefetch()) {
+            modelCache.apply(false);
+            return modelCache;
+        }
+        if (settings.getDirectory() != null || settings.isOffline()) {
+            modelCache.apply(settings.isOffline());
+        }
+        if (settings.isVerify()) {
+            var problems = modelCache.verify();
+            if (!problems.isEmpty()) {
+                throw new IllegalStateException(
+                        "DJL model cache " + modelCache.getDirectory() + " is incomplete: " + problems);
+            }
+        }
+        return modelCache;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "djl.model-cache", name = "prefetch", havingValue = "true")
+    public ModelPrefetchRunner modelPrefetchRunner(ModelCache modelCache) {
+        return new ModelPrefetchRunner(modelCache);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Registers the input, output and translator factory classes configured for the top-level and named models for
+ * reflection, as they are only known from the properties the application is processed with.
+ */
+class DjlModelClassesAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        if (!beanFactory.containsBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME)) {
+            return null;
+        }
+        Environment environment = beanFactory.getBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME,
+                Environment.class);
+        List<ModelProperties> models = new ArrayList<>(OnNamedModelsCondition.bindModels(environment).values());
+        Binder.get(environment).bind("djl", ModelProperties.class).ifBound(models::add);
+        if (models.isEmpty()) {
+            return null;
+        }
+        return (generationContext, code) -> {
+            ReflectionHints reflection = generationContext.getRuntimeHints().reflection();
+            for (ModelProperties model : models) {
+                if (model.getInputClass() != null) {
+                    reflection.registerType(model.getInputClass());
+                }
+                if (model.getOutputClass() != null) {
+                    reflection.registerType(model.getOutputClass());
+                }
+                if (model.getTranslatorFactory() != null) {
+                    // instantiated with ClassLoaderUtils.initClass
+                    reflection.registerType(TypeReference.of(model.getTranslatorFactory()),
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.util.stream.Collectors;
+
+import ai.djl.spring.model.ModelListener;
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Model registry shared by the single and named model configurations. Model beans register themselves in the
+ * {@link ModelRegistry} when they are created, so the {@link ModelListener} beans see every model.
+ */
+@Configuration
+class DjlModelRegistryConfiguration {
+
+    @Bean
+    public ModelRegistry modelRegistry(ObjectProvider<ModelListener> listeners) {
+        return new ModelRegistry(listeners.orderedStream().collect(Collectors.toList()));
+    }
+}
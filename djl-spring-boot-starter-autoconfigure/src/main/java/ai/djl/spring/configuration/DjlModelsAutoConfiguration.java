@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Configures the named models defined under {@code djl.models}, see {@link NamedModelsRegistrar}.
+ */
+@AutoConfiguration
+@Conditional(OnNamedModelsCondition.class)
+@EnableConfigurationProperties(DjlConfigurationProperties.class)
+@ImportRuntimeHints(DjlRuntimeHints.class)
+@Import({ NamedModelsRegistrar.class, DjlModelRegistryConfiguration.class, DjlEngineOptionsConfiguration.class,
+        DjlModelCacheConfiguration.class, DjlCdsConfiguration.class, DjlAsyncLoadingConfiguration.class,
+        DjlNativeMemoryConfiguration.class, DjlWarmupConfiguration.class })
+public class DjlModelsAutoConfiguration {
+}
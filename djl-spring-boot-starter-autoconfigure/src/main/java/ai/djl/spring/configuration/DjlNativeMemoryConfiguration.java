@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.inference.NativeMemoryBudget;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Native memory budget shared by the single and named model configurations. Every predictor created by the starter
+ * is admitted by the {@link NativeMemoryBudget}, which measures the arrays of all registered models. The parameters
+ * of a model are measured once, when it is loaded, and each sample only measures the other arrays.
+ */
+@Configuration
+class DjlNativeMemoryConfiguration {
+
+    @Bean
+    public NativeMemoryBudget nativeMemoryBudget(DjlConfigurationProperties properties, ModelRegistry modelRegistry) {
+        var memory = properties.getMemory();
+        long maxBytes = memory.getMaxNativeBytes() != null ? memory.getMaxNativeBytes().toBytes() : 0;
+        return new NativeMemoryBudget(maxBytes, memory.getHeadroom().toBytes(), memory.getRequestEstimate().toBytes(),
+                memory.getAdmissionTimeout(), memory.getSampleInterval(),
+                () -> modelRegistry.getModels().stream()
+                        .mapToLong(ServedModel::getNativeArrayBytes)
+                        .filter(bytes -> bytes > 0)
+                        .sum());
+    }
+}
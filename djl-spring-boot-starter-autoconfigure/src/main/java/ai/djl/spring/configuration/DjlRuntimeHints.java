@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Runtime hints for the DJL classes and resources the starter looks up by name. The classes configured for each
+ * model are registered by {@link DjlModelClassesAotProcessor}.
+ */
+class DjlRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // engine and model zoo discovery, and the versions the engines check at startup
+        hints.resources()
+                .registerPattern("META-INF/services/ai.djl.*")
+                .registerPattern("ai/djl/engine/api.properties")
+                .registerPattern("*-engine.properties");
+        // bound from the input-class and output-class properties, which default to these
+        hints.reflection()
+                .registerType(Image.class)
+                .registerType(DetectedObjects.class);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Warm-up shared by the single and named model configurations. Whether a model is warmed up is set per model, with
+ * {@code djl.warmup.enabled} or {@code djl.models.<name>.warmup.enabled}.
+ */
+@Configuration
+class DjlWarmupConfiguration {
+
+    @Bean
+    public ModelWarmupRunner modelWarmupRunner(ModelRegistry modelRegistry) {
+        return new ModelWarmupRunner(modelRegistry);
+    }
+}
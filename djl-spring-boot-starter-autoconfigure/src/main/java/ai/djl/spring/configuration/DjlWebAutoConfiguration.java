@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.web.InferenceController;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Serves the models over HTTP at {@code POST /djl/predict/{model}} in a servlet web application, when
+ * {@code djl.web.enabled} is set.
+ */
+@AutoConfiguration(after = { DjlAutoConfiguration.class, DjlModelsAutoConfiguration.class })
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(DispatcherServlet.class)
+@ConditionalOnBean(ModelRegistry.class)
+@ConditionalOnProperty(prefix = "djl.web", name = "enabled", havingValue = "true")
+public class DjlWebAutoConfiguration {
+
+    /**
+     * Reads inputs from request bodies, runs them through the batching predictor or the predictor pool of the model
+     * and writes the outputs to the response.
+     *
+     * @param modelRegistry the registry of served models
+     * @return the controller of the inference endpoint
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public InferenceController djlInferenceController(ModelRegistry modelRegistry) {
+        return new InferenceController(modelRegistry);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ai.djl.MalformedModelException;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.repository.zoo.Criteria;
+import ai.djl.repository.zoo.ModelNotFoundException;
+import ai.djl.repository.zoo.ModelZoo;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.model.ServedModel;
+import ai.djl.training.util.ProgressBar;
+import ai.djl.translate.TranslatorFactory;
+import ai.djl.util.ClassLoaderUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Builds the {@link Criteria} described by {@link ModelProperties} and loads the model it matches.
+ */
+public final class ModelLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelLoader.class);
+
+    private ModelLoader() {
+    }
+
+    /**
+     * Builds the criteria used to look up a model.
+     *
+     * @param properties the model properties
+     * @return the criteria matching the properties
+     */
+    public static Criteria<?, ?> buildCriteria(ModelProperties properties) {
+        var applicationType = properties.getApplicationType();
+        var filter = properties.getModelFilter();
+        var arguments = properties.getArguments();
+        var artifactId = properties.getModelArtifactId();
+        var inputClass = properties.getInputClass();
+        var urls = properties.getUrls();
+        var translatorFactory = properties.getTranslatorFactory();
+
+        if (inputClass == null) {
+            LOG.warn("Input class is not defined. Using default: BufferedImage");
+            inputClass = Image.class;
+        }
+        Class<?> outputClass = properties.getOutputClass();
+        if (outputClass == null) {
+            LOG.warn("Input class is not defined. Using default: DetectedObjects");
+            outputClass = DetectedObjects.class;
+        }
+
+        Criteria.Builder<?, ?> builder = Criteria.builder().setTypes(inputClass, outputClass);
+        if (applicationType != null) {
+            builder.optApplication(applicationType.application());
+        }
+        if (filter != null) {
+            builder.optFilters(filter);
+        }
+        if (artifactId != null) {
+            builder.optArtifactId(artifactId);
+        }
+        if (arguments != null) {
+            builder.optArguments(arguments);
+        }
+        Map<String, String> options = buildOptions(properties);
+        if (!options.isEmpty()) {
+            builder.optOptions(options);
+        }
+        if (translatorFactory != null) {
+            ClassLoader cl = ClassLoaderUtils.getContextClassLoader();
+            TranslatorFactory factory = ClassLoaderUtils.initClass(cl, TranslatorFactory.class, translatorFactory);
+            builder.optTranslatorFactory(factory);
+        }
+        if(urls != null && urls.length > 0) {
+            builder.optModelUrls(StringUtils.arrayToCommaDelimitedString(urls));
+        }
+        if (properties.isProgress()) {
+            builder.optProgress(new ProgressBar());
+        }
+        if (StringUtils.hasText(properties.getModelName())) {
+            builder.optModelName(properties.getModelName());
+        }
+        if (StringUtils.hasText(properties.getGroupId())) {
+            builder.optGroupId(properties.getGroupId());
+        }
+        if (StringUtils.hasText(properties.getEngine())) {
+            builder.optEngine(properties.getEngine());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Collects the options passed to the engine when the model is loaded: the ONNX Runtime session options that are
+     * set, overridden by the generic options.
+     *
+     * @param properties the model properties
+     * @return the engine options
+     */
+    static Map<String, String> buildOptions(ModelProperties properties) {
+        Map<String, String> options = new LinkedHashMap<>();
+        var ort = properties.getOnnxruntime();
+        putIfSet(options, "optLevel", ort.getOptimizationLevel());
+        putIfSet(options, "executionMode", ort.getExecutionMode());
+        putIfSet(options, "intraOpNumThreads", ort.getIntraOpNumThreads());
+        putIfSet(options, "interOpNumThreads", ort.getInterOpNumThreads());
+        putIfSet(options, "memoryPatternOptimization", ort.getMemoryPatternOptimization());
+        putIfSet(options, "cpuArenaAllocator", ort.getCpuArenaAllocator());
+        if (properties.getOptions() != null) {
+            options.putAll(properties.getOptions());
+        }
+        return options;
+    }
+
+    private static void putIfSet(Map<String, String> options, String name, Object value) {
+        if (value != null) {
+            options.put(name, value.toString());
+        }
+    }
+
+    /**
+     * Loads the model described by the properties. When no model matches, the models available in the model zoo are
+     * logged.
+     *
+     * @param properties the model properties
+     * @return the loaded model
+     * @throws ModelNotFoundException if no model matches the properties
+     * @throws MalformedModelException if the model artifacts are invalid
+     * @throws IOException if the model could not be downloaded or read
+     */
+    public static ZooModel<?, ?> loadModel(ModelProperties properties)
+            throws MalformedModelException, ModelNotFoundException, IOException {
+        try {
+            var zooModel = buildCriteria(properties).loadModel();
+            LOG.info("Successfully loaded model {}", zooModel.getName());
+            return zooModel;
+        }
+        catch(ModelNotFoundException ex) {
+            Yaml yaml = createYamlDumper();
+            LOG.error("Requested model was not found");
+            LOG.error("List of available models {}", yaml.dump(ModelZoo.listModels()));
+            throw ex;
+        }
+    }
+
+    /**
+     * Loads the model described by the properties, recording the load time and outcome on the served model.
+     *
+     * @param properties the model properties
+     * @param servedModel the served model the load is recorded on
+     * @return the loaded model
+     * @throws ModelNotFoundException if no model matches the properties
+     * @throws MalformedModelException if the model artifacts are invalid
+     * @throws IOException if the model could not be downloaded or read
+     */
+    public static ZooModel<?, ?> loadModel(ModelProperties properties, ServedModel servedModel)
+            throws MalformedModelException, ModelNotFoundException, IOException {
+        servedModel.loadStarted();
+        try {
+            var zooModel = loadModel(properties);
+            servedModel.loadSucceeded();
+            return zooModel;
+        } catch (MalformedModelException | ModelNotFoundException | IOException | RuntimeException e) {
+            servedModel.loadFailed(e);
+            throw e;
+        }
+    }
+
+    private static Yaml createYamlDumper() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setPrettyFlow(true);
+        return new Yaml(options);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.model.ModelCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Pre-fetches all models into the {@link ModelCache}, records the cache manifest and exits.
+ *
+ * <p>
+ * Meant to be run at image build time, so that the runtime can start from a verified, offline cache. The pre-fetch
+ * runs once the context is refreshed, before any {@code ApplicationRunner} or {@code CommandLineRunner} of the
+ * application, which never run in this mode: the context is closed and the JVM exits with the exit code of the
+ * application, 0 unless an {@code ExitCodeGenerator} says otherwise. A failed pre-fetch fails the start of the
+ * application, which closes the context and propagates the exception out of
+ * {@link SpringApplication#run(Class, String...)}.
+ */
+public class ModelPrefetchRunner implements ApplicationListener<ApplicationStartedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelPrefetchRunner.class);
+
+    private final ModelCache modelCache;
+
+    public ModelPrefetchRunner(ModelCache modelCache) {
+        this.modelCache = modelCache;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationStartedEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        for (String name : context.getBeanNamesForType(ZooModel.class)) {
+            ZooModel<?, ?> model = context.getBean(name, ZooModel.class);
+            // resolving the model path waits for asynchronously loaded models and loads lazy ones
+            LOG.info("Pre-fetched model {} into {}", name, model.getModelPath());
+        }
+        try {
+            modelCache.writeManifest();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the manifest of " + modelCache.getDirectory(), e);
+        }
+        LOG.info("Pre-fetch complete, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+}
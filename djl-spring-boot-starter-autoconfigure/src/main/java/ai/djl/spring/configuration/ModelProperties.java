@@ -0,0 +1,599 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Properties describing how a single model is looked up, loaded and served.
+ *
+ * <p>
+ * Used for the top-level {@code djl.*} model as well as for every entry of {@code djl.models.<name>.*}.
+ */
+public class ModelProperties {
+
+    /**
+     * Defines the type of application for the model.
+     *
+     * <p>
+     * For more information on available applications, see
+     * https://github.com/deepjavalibrary/djl/blob/master/api/src/main/java/ai/djl/Application.java
+     */
+    private ApplicationType applicationType;
+
+    /**
+     * Defines the java data type used as input for inference. For example, {@link java.awt.image.BufferedImage} can be used for cases when input is image.
+     */
+    private Class<?> inputClass;
+
+    /**
+     * Defines the java data type expected for inference output. {@link ai.djl.modality.cv.output.DetectedObjects} is a common output for classifications, object detection.
+     */
+    private Class<?> outputClass;
+
+    /**
+     * Defines the artifactId of the model to be loaded.
+     */
+    private String modelArtifactId;
+
+    /**
+     * Model repository URLs. Multiple may be supplied to search for models. Specifying a single URL can be used
+     * to load a specific model. Can be specified as comma delimited field or as an array in the configuration file.
+     */
+    private String[] urls;
+
+    /**
+     * Defines the translatorFactory for the model.
+     */
+    private String translatorFactory;
+
+    /**
+     * Arguments that allow the user to override pre-process/post-process behavior.
+     *
+     * <p>
+     * The key/value pairs are model specific, check specific (@code ModelLoader} class for detail.
+     *
+     */
+    private Map<String, Object> arguments;
+
+    /**
+     * Engine specific options passed to the engine when the model is loaded.
+     */
+    private Map<String, String> options;
+
+    /**
+     * ONNX Runtime session options, applied when the model runs on ONNX Runtime.
+     */
+    private final OnnxRuntime onnxruntime = new OnnxRuntime();
+
+    /**
+     * Filters used to lookup a model from model zoo.
+     *
+     * <p>
+     * For more information on available filters that are currently part of the repository, see
+     * https://github.com/deepjavalibrary/djl/tree/master/model-zoo#how-to-find-a-pre-trained-model-in-the-model-zoo
+     */
+    private Map<String, String> modelFilter;
+
+
+    /**
+     * Supported engine names: * https://docs.djl.ai/docs/engine.html#supported-engines
+     * Possible values are: MXNet, PyTorch, TensorFlow, TFLite, OnnxRuntime, PaddlePaddle, TensorRT
+     */
+    private String engine;
+
+    /**
+     * Defines the groupId of the model to be loaded.
+     */
+    private String groupId;
+
+    /**
+     * Defines the modelName of the model to be loaded.
+     * Leave it empty if you want to load the latest version of the model.
+     * Use "saved_model" for TensorFlow saved models.
+     */
+    private String modelName;
+
+    /**
+     * Defines whether to show progress bar when loading the model.
+     */
+    private boolean progress = true;
+
+    /**
+     * Settings of the predictor pool.
+     */
+    private final Pool pool = new Pool();
+
+    /**
+     * Settings of the adaptive concurrency limiter.
+     */
+    private final Limiter limiter = new Limiter();
+
+    /**
+     * Settings of the warm-up run before the application accepts traffic.
+     */
+    private final Warmup warmup = new Warmup();
+
+    public Map<String, String> getModelFilter() {
+        return modelFilter;
+    }
+
+    public void setModelFilter(Map<String, String> modelFilter) {
+        this.modelFilter = modelFilter;
+    }
+
+    public ApplicationType getApplicationType() {
+        return applicationType;
+    }
+
+    public void setApplicationType(ApplicationType applicationType) {
+        this.applicationType = applicationType;
+    }
+
+    public Class<?> getInputClass() {
+        return inputClass;
+    }
+
+    public void setInputClass(Class<?> inputClass) {
+        this.inputClass = inputClass;
+    }
+
+    public Class<?> getOutputClass() {
+        return outputClass;
+    }
+
+    public void setOutputClass(Class<?> outputClass) {
+        this.outputClass = outputClass;
+    }
+
+    public String getModelArtifactId() {
+        return modelArtifactId;
+    }
+
+    public void setModelArtifactId(String modelArtifactId) {
+        this.modelArtifactId = modelArtifactId;
+    }
+
+    public Map<String, Object> getArguments() {
+        return arguments;
+    }
+
+    public void setArguments(Map<String, Object> arguments) {
+        this.arguments = arguments;
+    }
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public OnnxRuntime getOnnxruntime() {
+        return onnxruntime;
+    }
+
+    public String[] getUrls() {
+        return urls;
+    }
+
+    public void setUrls(String[] urls) {
+        this.urls = urls;
+    }
+
+    public String getTranslatorFactory() {
+        return translatorFactory;
+    }
+
+    public void setTranslatorFactory(String translatorFactory) {
+        this.translatorFactory = translatorFactory;
+    }
+
+	public String getEngine() {
+		return engine;
+	}
+
+	public void setEngine(String engine) {
+		this.engine = engine;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public void setGroupId(String groupId) {
+		this.groupId = groupId;
+	}
+
+	public String getModelName() {
+		return modelName;
+	}
+
+	public void setModelName(String modelName) {
+		this.modelName = modelName;
+	}
+
+	public boolean isProgress() {
+		return progress;
+	}
+
+	public void setProgress(boolean progress) {
+		this.progress = progress;
+	}
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Limiter getLimiter() {
+        return limiter;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public static class Pool {
+
+        /**
+         * Number of idle predictors that are created at startup and never evicted.
+         */
+        private int minIdle = 0;
+
+        /**
+         * Maximum number of predictors, borrowed or idle. Defaults to the number of available processors.
+         */
+        private int maxSize = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Maximum time to wait for a predictor when all of them are borrowed.
+         */
+        private Duration borrowTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Time after which an idle predictor above min-idle is closed. Use 0 to never evict idle predictors.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(5);
+
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        public void setMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getBorrowTimeout() {
+            return borrowTimeout;
+        }
+
+        public void setBorrowTimeout(Duration borrowTimeout) {
+            this.borrowTimeout = borrowTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+
+    public static class Limiter {
+
+        /**
+         * Whether to bound the predictions running at once with a limit adapted to their latency. Predictions beyond
+         * the limit are rejected.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Limit before any latency is observed. Defaults to the number of available processors.
+         */
+        private int initialLimit = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Lowest limit.
+         */
+        private int minLimit = 1;
+
+        /**
+         * Highest limit.
+         */
+        private int maxLimit = 1000;
+
+        /**
+         * How much slower than the long-term latency the recent latency may be before the limit shrinks.
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * How fast the limit moves to the value computed on each prediction, from 0 to 1.
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Number of predictions the long-term latency is averaged over.
+         */
+        private int longWindow = 600;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getTolerance() {
+            return tolerance;
+        }
+
+        public void setTolerance(double tolerance) {
+            this.tolerance = tolerance;
+        }
+
+        public double getSmoothing() {
+            return smoothing;
+        }
+
+        public void setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        public int getLongWindow() {
+            return longWindow;
+        }
+
+        public void setLongWindow(int longWindow) {
+            this.longWindow = longWindow;
+        }
+    }
+
+    public static class OnnxRuntime {
+
+        /**
+         * Graph optimizations applied when the session is created.
+         */
+        private OptimizationLevel optimizationLevel;
+
+        /**
+         * Whether the operators of the graph run one after the other or, when independent, in parallel.
+         */
+        private ExecutionMode executionMode;
+
+        /**
+         * Threads running a single operator. ONNX Runtime defaults to the number of physical cores.
+         */
+        private Integer intraOpNumThreads;
+
+        /**
+         * Threads running independent operators in parallel, only used by the parallel execution mode.
+         */
+        private Integer interOpNumThreads;
+
+        /**
+         * Whether to pre-allocate memory based on the allocations of previous runs with the same input shapes.
+         */
+        private Boolean memoryPatternOptimization;
+
+        /**
+         * Whether to serve CPU allocations from an arena that keeps freed memory for reuse.
+         */
+        private Boolean cpuArenaAllocator;
+
+        public OptimizationLevel getOptimizationLevel() {
+            return optimizationLevel;
+        }
+
+        public void setOptimizationLevel(OptimizationLevel optimizationLevel) {
+            this.optimizationLevel = optimizationLevel;
+        }
+
+        public ExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+
+        public void setExecutionMode(ExecutionMode executionMode) {
+            this.executionMode = executionMode;
+        }
+
+        public Integer getIntraOpNumThreads() {
+            return intraOpNumThreads;
+        }
+
+        public void setIntraOpNumThreads(Integer intraOpNumThreads) {
+            this.intraOpNumThreads = intraOpNumThreads;
+        }
+
+        public Integer getInterOpNumThreads() {
+            return interOpNumThreads;
+        }
+
+        public void setInterOpNumThreads(Integer interOpNumThreads) {
+            this.interOpNumThreads = interOpNumThreads;
+        }
+
+        public Boolean getMemoryPatternOptimization() {
+            return memoryPatternOptimization;
+        }
+
+        public void setMemoryPatternOptimization(Boolean memoryPatternOptimization) {
+            this.memoryPatternOptimization = memoryPatternOptimization;
+        }
+
+        public Boolean getCpuArenaAllocator() {
+            return cpuArenaAllocator;
+        }
+
+        public void setCpuArenaAllocator(Boolean cpuArenaAllocator) {
+            this.cpuArenaAllocator = cpuArenaAllocator;
+        }
+
+        /**
+         * Graph optimization levels of ONNX Runtime.
+         */
+        public enum OptimizationLevel {
+            /** No optimization. */
+            NO_OPT,
+            /** Redundant node eliminations and constant folding. */
+            BASIC_OPT,
+            /** Basic optimizations and node fusions. */
+            EXTENDED_OPT,
+            /** Extended optimizations and layout optimizations. */
+            ALL_OPT
+        }
+
+        /**
+         * Execution modes of ONNX Runtime.
+         */
+        public enum ExecutionMode {
+            /** Operators run one after the other. */
+            SEQUENTIAL,
+            /** Independent operators run in parallel on the inter-op threads. */
+            PARALLEL
+        }
+    }
+
+    public static class Warmup {
+
+        /**
+         * Whether to run predictions on the predictor pool before the application accepts traffic.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of predictions per thread for each batch size and thread count.
+         */
+        private int iterations = 5;
+
+        /**
+         * Batch sizes to warm up, 1 runs single-item predictions.
+         */
+        private List<Integer> batchSizes = List.of(1);
+
+        /**
+         * Numbers of threads predicting at once, capped at the max size of the predictor pool.
+         */
+        private List<Integer> threads = List.of(1);
+
+        /**
+         * Files read as inputs, instead of synthetic inputs generated from the input class.
+         */
+        private List<Path> samples = new ArrayList<>();
+
+        /**
+         * Width of synthetic image inputs.
+         */
+        private int imageWidth = 224;
+
+        /**
+         * Height of synthetic image inputs.
+         */
+        private int imageHeight = 224;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public List<Integer> getBatchSizes() {
+            return batchSizes;
+        }
+
+        public void setBatchSizes(List<Integer> batchSizes) {
+            this.batchSizes = batchSizes;
+        }
+
+        public List<Integer> getThreads() {
+            return threads;
+        }
+
+        public void setThreads(List<Integer> threads) {
+            this.threads = threads;
+        }
+
+        public List<Path> getSamples() {
+            return samples;
+        }
+
+        public void setSamples(List<Path> samples) {
+            this.samples = samples;
+        }
+
+        public int getImageWidth() {
+            return imageWidth;
+        }
+
+        public void setImageWidth(int imageWidth) {
+            this.imageWidth = imageWidth;
+        }
+
+        public int getImageHeight() {
+            return imageHeight;
+        }
+
+        public void setImageHeight(int imageHeight) {
+            this.imageHeight = imageHeight;
+        }
+    }
+}
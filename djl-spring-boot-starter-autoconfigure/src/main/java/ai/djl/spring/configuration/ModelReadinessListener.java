@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import ai.djl.spring.model.AsyncZooModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Keeps the application from accepting traffic until every {@link AsyncZooModel} has finished loading and, when
+ * warm-up is enabled, warming up.
+ *
+ * <p>
+ * When Spring Boot marks the application as ready while models are still loading, readiness is switched back to
+ * {@link ReadinessState#REFUSING_TRAFFIC} and flipped to {@link ReadinessState#ACCEPTING_TRAFFIC} once loading is done.
+ * If a model fails to load, liveness is set to {@link LivenessState#BROKEN}.
+ */
+public class ModelReadinessListener implements ApplicationListener<AvailabilityChangeEvent<?>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelReadinessListener.class);
+
+    private final ApplicationContext context;
+    private final Object lock = new Object();
+    private CompletableFuture<Void> loading;
+    private volatile boolean loaded;
+
+    /**
+     * Creates a new listener.
+     *
+     * <p>
+     * Resolving the {@link ApplicationAvailability} makes sure it is created, and therefore registered as a listener,
+     * before this one, so that it records the corrected readiness state after Spring Boot's.
+     *
+     * @param context the application context the models and events belong to
+     * @param availability the application availability, if any
+     */
+    public ModelReadinessListener(ApplicationContext context, ObjectProvider<ApplicationAvailability> availability) {
+        this.context = context;
+        availability.getIfAvailable();
+    }
+
+    @Override
+    public void onApplicationEvent(AvailabilityChangeEvent<?> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || loaded) {
+            return;
+        }
+        CompletableFuture<Void> future;
+        synchronized (lock) {
+            if (loading != null) {
+                if (!loading.isDone()) {
+                    AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+                }
+                return;
+            }
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (AsyncZooModel<?, ?> model : context.getBeansOfType(AsyncZooModel.class).values()) {
+                futures.add(model.getFuture());
+            }
+            // models are warmed up once loaded, warm-up failures do not fail the future
+            context.getBeanProvider(ModelWarmupRunner.class).ifAvailable(runner -> futures.add(runner.getFuture()));
+            loading = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+            future = loading;
+        }
+
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            loaded = true;
+            return;
+        }
+        LOG.info("Refusing traffic until models are loaded");
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                LOG.error("Model failed to load, marking application as broken", error);
+                AvailabilityChangeEvent.publish(context, LivenessState.BROKEN);
+            } else {
+                LOG.info("Models loaded, accepting traffic");
+                loaded = true;
+                AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import ai.djl.spring.inference.ModelWarmup;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.AsyncZooModel;
+import ai.djl.spring.model.LazyZooModel;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+/**
+ * Warms up the predictor pool of every model with {@code warmup.enabled} set.
+ *
+ * <p>
+ * Spring Boot only marks the application as ready once the application runners have returned, so models that are
+ * already loaded are warmed up before the application accepts traffic. Asynchronously loaded models are warmed up
+ * once loaded, and the {@link ModelReadinessListener} waits for {@link #getFuture()}. Lazy models are not warmed up,
+ * since that would load them.
+ */
+public class ModelWarmupRunner implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelWarmupRunner.class);
+
+    private final ModelRegistry modelRegistry;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    public ModelWarmupRunner(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (ServedModel servedModel : modelRegistry.getModels()) {
+            if (!servedModel.getProperties().getWarmup().isEnabled()) {
+                continue;
+            }
+            var model = servedModel.getModel();
+            if (model instanceof LazyZooModel) {
+                LOG.info("Not warming up lazily loaded model {}", servedModel.getName());
+            } else if (model instanceof AsyncZooModel) {
+                pending.add(((AsyncZooModel<?, ?>) model).getFuture().thenRunAsync(() -> warmup(servedModel),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "djl-warmup-" + servedModel.getName());
+                            thread.setDaemon(true);
+                            thread.start();
+                        }));
+            } else {
+                warmup(servedModel);
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((result, error) -> future.complete(null));
+    }
+
+    /**
+     * @return a future completed once every asynchronously loaded model has been warmed up, or failed to
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    private static void warmup(ServedModel servedModel) {
+        var pool = servedModel.getPredictorPool();
+        Class<?> inputClass = servedModel.getProperties().getInputClass();
+        if (pool == null || inputClass == null) {
+            LOG.warn("Cannot warm up model {} without a predictor pool and an input class", servedModel.getName());
+            return;
+        }
+        try {
+            warmup(servedModel, pool, inputClass);
+        } catch (IOException | TranslateException | RuntimeException e) {
+            // a cold model is slower, not broken
+            LOG.warn("Failed to warm up model {}", servedModel.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, O> void warmup(ServedModel servedModel, PredictorPool<I, O> pool, Class<?> inputClass)
+            throws IOException, TranslateException {
+        var settings = servedModel.getProperties().getWarmup();
+        List<I> inputs = warmupInputs(servedModel, (Class<I>) inputClass);
+        long begin = System.nanoTime();
+        new ModelWarmup<>(pool, inputs, settings.getIterations(), settings.getBatchSizes(), settings.getThreads())
+                .run(servedModel.getName());
+        LOG.info("Warmed up model {} in {} ms", servedModel.getName(), (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /**
+     * Returns the configured warm-up samples of a model, or synthetic inputs if it has none.
+     */
+    static <I> List<I> warmupInputs(ServedModel servedModel, Class<I> inputClass) throws IOException {
+        var settings = servedModel.getProperties().getWarmup();
+        return settings.getSamples().isEmpty()
+                ? ModelWarmup.syntheticInputs(inputClass, settings.getImageWidth(), settings.getImageHeight())
+                : ModelWarmup.readSamples(inputClass, settings.getSamples());
+    }
+}
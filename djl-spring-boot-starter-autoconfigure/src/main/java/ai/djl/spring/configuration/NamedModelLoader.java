@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ai.djl.engine.Engine;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.model.ModelRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Loads all named models in parallel, so that startup takes about as long as loading the largest model.
+ *
+ * <p>
+ * Engines are initialized one after another before any model is loaded: every model of an engine then shares the
+ * same native library and engine instance, and native initialization never races.
+ */
+public class NamedModelLoader implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NamedModelLoader.class);
+
+    private final Map<String, CompletableFuture<ZooModel<?, ?>>> models = new LinkedHashMap<>();
+    private final Map<String, ZooModel<?, ?>> retrieved = new LinkedHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * Starts loading all models.
+     *
+     * @param properties the named model properties
+     * @param modelRegistry the registry the models are registered in
+     */
+    public NamedModelLoader(Map<String, ModelProperties> properties, ModelRegistry modelRegistry) {
+        initializeEngines(properties);
+
+        var threadCount = new AtomicInteger();
+        int threads = Math.max(1, Math.min(properties.size(), Runtime.getRuntime().availableProcessors()));
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "djl-model-loader-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        properties.forEach((name, model) -> {
+            var servedModel = modelRegistry.register(name, model);
+            models.put(name, CompletableFuture.supplyAsync(() -> {
+                LOG.info("Loading model {}", name);
+                try {
+                    return ModelLoader.loadModel(model, servedModel);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        });
+        CompletableFuture.allOf(models.values().toArray(new CompletableFuture<?>[0]))
+                .whenComplete((result, error) -> executor.shutdown());
+    }
+
+    private static void initializeEngines(Map<String, ModelProperties> properties) {
+        var engines = new LinkedHashSet<String>();
+        for (ModelProperties model : properties.values()) {
+            engines.add(StringUtils.hasText(model.getEngine()) ? model.getEngine() : Engine.getDefaultEngineName());
+        }
+        for (String engine : engines) {
+            if (engine != null && Engine.hasEngine(engine)) {
+                LOG.info("Initialized engine {}", Engine.getEngine(engine).getEngineName());
+            }
+        }
+    }
+
+    /**
+     * @param name the name of the model
+     * @return the future completed once the model is loaded
+     */
+    public CompletableFuture<ZooModel<?, ?>> getFuture(String name) {
+        var future = models.get(name);
+        if (future == null) {
+            throw new IllegalArgumentException("No model named " + name);
+        }
+        return future.thenApply(model -> {
+            synchronized (retrieved) {
+                retrieved.put(name, model);
+            }
+            return model;
+        });
+    }
+
+    /**
+     * Waits for a model to be loaded.
+     *
+     * @param name the name of the model
+     * @return the loaded model
+     * @throws IllegalStateException if the model failed to load
+     */
+    public ZooModel<?, ?> getModel(String name) {
+        try {
+            return getFuture(name).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to load model " + name, e.getCause());
+        }
+    }
+
+    /**
+     * Closes the models that were loaded but never retrieved, for example because the application context failed to
+     * start. Retrieved models are owned by their beans.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        models.forEach((name, future) -> {
+            synchronized (retrieved) {
+                if (retrieved.containsKey(name)) {
+                    return;
+                }
+            }
+            future.thenAccept(ZooModel::close);
+        });
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.inference.NativeMemoryBudget;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.AsyncZooModel;
+import ai.djl.spring.model.LazyZooModel;
+import ai.djl.spring.model.ModelCache;
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+
+/**
+ * Registers a model, a predictor provider and a predictor pool for every entry of {@code djl.models}.
+ *
+ * <p>
+ * For a model named {@code detector} the beans {@code detectorModel}, {@code detectorPredictorProvider} and
+ * {@code detectorPredictorPool} are registered. All of them carry the {@code detector} qualifier, so they can be
+ * injected with {@code @Qualifier("detector")}.
+ */
+class NamedModelsRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware, BeanFactoryAware {
+
+    static final String LOADER_BEAN_NAME = "djlNamedModelLoader";
+
+    private Environment environment;
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+        Map<String, ModelProperties> models = OnNamedModelsCondition.bindModels(environment);
+        boolean asyncLoading = environment.getProperty("djl.async-loading", Boolean.class, false);
+        boolean lazy = environment.getProperty("djl.lazy", Boolean.class, false);
+        Duration lazyIdleTimeout = Binder.get(environment).bind("djl.lazy-idle-timeout", Duration.class).orElse(null);
+        var memory = Binder.get(environment).bind("djl.memory", DjlConfigurationProperties.Memory.class)
+                .orElseGet(DjlConfigurationProperties.Memory::new);
+
+        if (!lazy) {
+            var loaderDefinition = new RootBeanDefinition(NamedModelLoader.class, () -> {
+                beanFactory.getBean(ModelCache.class);
+                return new NamedModelLoader(models, beanFactory.getBean(ModelRegistry.class));
+            });
+            registry.registerBeanDefinition(LOADER_BEAN_NAME, loaderDefinition);
+        }
+
+        models.forEach((name, properties) -> {
+            String modelBeanName = name + "Model";
+            register(registry, name, modelBeanName, ResolvableType.forClass(ZooModel.class),
+                    () -> {
+                        ZooModel<?, ?> model;
+                        if (lazy) {
+                            beanFactory.getBean(ModelCache.class);
+                            var servedModel = beanFactory.getBean(ModelRegistry.class).register(name, properties);
+                            model = new LazyZooModel<>(name, () -> ModelLoader.loadModel(properties, servedModel),
+                                    lazyIdleTimeout);
+                        } else {
+                            var loader = beanFactory.getBean(LOADER_BEAN_NAME, NamedModelLoader.class);
+                            model = asyncLoading ? new AsyncZooModel<>(loader.getFuture(name)) : loader.getModel(name);
+                        }
+                        beanFactory.getBean(ModelRegistry.class).get(name).setModel(model);
+                        return model;
+                    });
+
+            register(registry, name, name + "PredictorProvider",
+                    ResolvableType.forClassWithGenerics(Supplier.class, Predictor.class),
+                    () -> DjlAutoConfiguration.createPredictorProvider(
+                            beanFactory.getBean(modelBeanName, ZooModel.class),
+                            beanFactory.getBean(ModelRegistry.class).get(name),
+                            beanFactory.getBean(NativeMemoryBudget.class), memory));
+
+            register(registry, name, name + "PredictorPool", ResolvableType.forClass(PredictorPool.class),
+                    () -> {
+                        ZooModel<?, ?> model = beanFactory.getBean(modelBeanName, ZooModel.class);
+                        var servedModel = beanFactory.getBean(ModelRegistry.class).get(name);
+                        var predictorPool = DjlAutoConfiguration.createPool(model, servedModel,
+                                beanFactory.getBean(NativeMemoryBudget.class), properties.getPool(), memory);
+                        servedModel.setPredictorPool(predictorPool);
+                        return predictorPool;
+                    });
+        });
+    }
+
+    private static <T> void register(BeanDefinitionRegistry registry, String qualifier, String beanName,
+            ResolvableType type, Supplier<T> supplier) {
+        var definition = new RootBeanDefinition();
+        definition.setTargetType(type);
+        definition.setInstanceSupplier(supplier);
+        definition.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD);
+        definition.addQualifier(new AutowireCandidateQualifier(Qualifier.class, qualifier));
+        registry.registerBeanDefinition(beanName, definition);
+    }
+}
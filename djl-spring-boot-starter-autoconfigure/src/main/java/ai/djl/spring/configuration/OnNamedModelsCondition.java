@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when at least one named model is defined under {@code djl.models}.
+ */
+class OnNamedModelsCondition extends SpringBootCondition {
+
+    static final String PREFIX = "djl.models";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        var models = bindModels(context.getEnvironment());
+        if (models.isEmpty()) {
+            return ConditionOutcome.noMatch("no named model is defined under " + PREFIX);
+        }
+        return ConditionOutcome.match("named models " + models.keySet() + " are defined under " + PREFIX);
+    }
+
+    static Map<String, ModelProperties> bindModels(Environment environment) {
+        return Binder.get(environment)
+                .bind(PREFIX, Bindable.mapOf(String.class, ModelProperties.class))
+                .orElse(Map.of());
+    }
+
+    /**
+     * Matches when no named model is defined under {@code djl.models}.
+     */
+    static class None extends NoneNestedConditions {
+
+        None() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @Conditional(OnNamedModelsCondition.class)
+        static class NamedModels {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.translate.TranslateException;
+
+/**
+ * A function running a list of inputs, such as a batch of messages delivered by a Spring Cloud Stream binder in batch
+ * mode, as batch predictions on a {@link PredictorPool}. Lists larger than {@code maxBatchSize} are split into several
+ * batch predictions. Outputs are returned in the order of the inputs.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchPredictionFunction<I, O> implements Function<List<I>, List<O>> {
+
+    private final PredictorPool<I, O> pool;
+    private final int maxBatchSize;
+
+    /**
+     * Creates a new batch prediction function.
+     *
+     * @param pool the pool the predictions are run on
+     * @param maxBatchSize maximum number of inputs of one batch prediction
+     */
+    public BatchPredictionFunction(PredictorPool<I, O> pool, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive, got " + maxBatchSize);
+        }
+        this.pool = pool;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Runs batch predictions over the inputs.
+     *
+     * @param inputs the inputs
+     * @return one output per input
+     * @throws IllegalStateException if a batch prediction failed, so that the binder can retry or reject the batch
+     */
+    @Override
+    public List<O> apply(List<I> inputs) {
+        try {
+            if (inputs.size() <= maxBatchSize) {
+                return pool.batchPredict(inputs);
+            }
+            List<O> outputs = new ArrayList<>(inputs.size());
+            for (int i = 0; i < inputs.size(); i += maxBatchSize) {
+                outputs.addAll(pool.batchPredict(inputs.subList(i, Math.min(i + maxBatchSize, inputs.size()))));
+            }
+            return outputs;
+        } catch (TranslateException e) {
+            throw new IllegalStateException("Batch prediction failed", e);
+        }
+    }
+}
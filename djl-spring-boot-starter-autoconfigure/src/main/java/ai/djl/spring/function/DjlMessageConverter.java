@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.function;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.util.JsonSerializable;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Converts message payloads to and from DJL types: encoded images to {@link Image} inputs, whatever their content
+ * type, and {@link JsonSerializable} outputs such as {@code Classifications} or {@code DetectedObjects} to their JSON
+ * form.
+ */
+public class DjlMessageConverter extends AbstractMessageConverter {
+
+    /**
+     * Creates a new converter.
+     */
+    public DjlMessageConverter() {
+        super(List.of(MimeTypeUtils.APPLICATION_JSON, MimeTypeUtils.APPLICATION_OCTET_STREAM,
+                new MimeType("image", "*")));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Image.class.isAssignableFrom(clazz) || JsonSerializable.class.isAssignableFrom(clazz);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+        // images arrive as octet-stream, as image/* or without any content type
+        return Image.class.isAssignableFrom(targetClass) && message.getPayload() instanceof byte[];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        try {
+            return ImageFactory.getInstance().fromInputStream(new ByteArrayInputStream((byte[]) message.getPayload()));
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "Cannot decode image", e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        return payload instanceof JsonSerializable;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return ((JsonSerializable) payload).toJson().getBytes(StandardCharsets.UTF_8);
+    }
+}
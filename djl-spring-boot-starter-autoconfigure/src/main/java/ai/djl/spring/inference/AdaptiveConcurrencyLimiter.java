@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of predictions of a model running at once, adapting the bound to the observed latency.
+ *
+ * <p>
+ * The limit follows the gradient between the long-term and the recent latency of predictions, as in the gradient
+ * algorithm of Netflix concurrency-limits: while the recent latency stays within {@code tolerance} times the long-term
+ * one, the limit grows by its square root on each sample, and once it exceeds it, which happens when more predictions
+ * run at once than the hardware can serve without queueing, the limit shrinks in proportion, by at most half. The
+ * limit thus settles around the concurrency that maximizes throughput. The limit only grows while at least half of it
+ * is in use, and the long-term latency decays when the recent one drops well below it, so the limit recovers after a
+ * burst of slow predictions.
+ *
+ * <p>
+ * Predictions beyond the limit are rejected immediately with a {@link ConcurrencyLimitExceededException} rather than
+ * queued, so overload sheds excess requests instead of slowing every request down.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Creates a new limiter.
+     *
+     * @param initialLimit the limit before any latency is observed
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param tolerance how much slower than the long-term latency the recent latency may be before the limit shrinks
+     * @param smoothing how fast the limit moves to the value computed on each sample, from 0 to 1
+     * @param longWindow the number of samples the long-term latency is averaged over
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double smoothing, int longWindow) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= max, got " + minLimit + " and "
+                    + maxLimit);
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Latency tolerance must be at least 1, got " + tolerance);
+        }
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Smoothing must be in (0, 1], got " + smoothing);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = Math.max(longWindow, 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot for a prediction, which must be handed back with {@link #release(long, boolean)}.
+     *
+     * @throws ConcurrencyLimitExceededException if the limit is reached
+     */
+    public void acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException("Model runs " + current + " predictions, the limit is "
+                        + (int) limit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands back a slot and adapts the limit to the latency of the prediction.
+     *
+     * @param startNanos the {@link System#nanoTime()} when the slot was acquired
+     * @param success whether the prediction succeeded; the latency of failed predictions is not sampled
+     */
+    public void release(long startNanos, boolean success) {
+        int running = inFlight.getAndDecrement();
+        if (success) {
+            sample(System.nanoTime() - startNanos, running);
+        }
+    }
+
+    synchronized void sample(long rttNanos, int running) {
+        double rtt = Math.max(rttNanos, 1);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (rtt - longRtt) / longWindow;
+        }
+        if (longRtt > 2 * shortRtt) {
+            // latency dropped, for example after a burst of slow requests: forget the old baseline faster
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        if (gradient >= 1 && running < limit / 2) {
+            // the limit is not what holds the model back, do not grow it further, but still shrink it on queueing
+            return;
+        }
+        double target = gradient < 1 ? limit * gradient : limit + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+
+    /**
+     * @return the number of predictions currently allowed to run at once
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the number of predictions running
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of predictions rejected
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Gathers concurrent single-item requests into {@code batchPredict} calls on predictors borrowed from a
+ * {@link PredictorPool}.
+ *
+ * <p>
+ * A batch is dispatched as soon as it holds {@code maxBatchSize} items, or when the oldest item in it has waited for
+ * {@code maxDelay}, whichever comes first. This bounds the latency added by batching while letting throughput grow
+ * with the number of concurrent callers. Requests beyond the queue capacity are rejected immediately with a
+ * {@link RejectedExecutionException}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BatchingPredictor<I, O> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingPredictor.class);
+
+    private final PredictorPool<I, O> pool;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Request<I, O>> queue;
+    private final List<Thread> workers;
+
+    private volatile InferenceObserver observer = InferenceObserver.NONE;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new batching predictor and starts its worker threads.
+     *
+     * @param pool the pool the batches are run on
+     * @param maxBatchSize maximum number of items in one batch
+     * @param maxDelay maximum time the first item of a batch waits for more items
+     * @param queueCapacity maximum number of requests waiting to be batched
+     * @param workers number of batches that can run concurrently
+     */
+    public BatchingPredictor(PredictorPool<I, O> pool, int maxBatchSize, Duration maxDelay, int queueCapacity,
+            int workers) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive, got " + maxBatchSize);
+        }
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Number of batching workers must be positive, got " + workers);
+        }
+        this.pool = pool;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::run, "djl-batching-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            this.workers.add(thread);
+        }
+    }
+
+    /**
+     * Sets the observer notified of dispatched batches.
+     *
+     * @param observer the observer
+     */
+    public void setObserver(InferenceObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Queues an input for batched prediction.
+     *
+     * @param input the input
+     * @return a future completed with the output once the batch holding the input has run
+     */
+    public CompletableFuture<O> predict(I input) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Batching predictor is closed"));
+        }
+        var request = new Request<I, O>(input);
+        if (!queue.offer(request)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Inference queue is full, capacity is " + (queue.size() + queue.remainingCapacity())));
+        }
+        return request.future;
+    }
+
+    /**
+     * @return the number of requests waiting to be batched
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the maximum number of items in one batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    private void run() {
+        List<Request<I, O>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                Request<I, O> first = queue.take();
+                batch.add(first);
+                long deadline = first.enqueuedAt + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    Request<I, O> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            execute(batch);
+            batch.clear();
+        }
+        failAll(batch);
+    }
+
+    private void execute(List<Request<I, O>> batch) {
+        // callers may have cancelled their future while waiting in the queue
+        batch.removeIf(request -> request.future.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        observer.onBatch(batch.size());
+        List<I> inputs = new ArrayList<>(batch.size());
+        for (Request<I, O> request : batch) {
+            inputs.add(request.input);
+        }
+        try {
+            List<O> outputs = pool.batchPredict(inputs);
+            if (outputs.size() != inputs.size()) {
+                throw new TranslateException(
+                        "Expected " + inputs.size() + " outputs from batch prediction, got " + outputs.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(outputs.get(i));
+            }
+        } catch (Exception e) {
+            LOG.debug("Batch prediction of {} items failed", batch.size(), e);
+            for (Request<I, O> request : batch) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failAll(List<Request<I, O>> batch) {
+        queue.drainTo(batch);
+        for (Request<I, O> request : batch) {
+            request.future.completeExceptionally(new CancellationException("Batching predictor is closed"));
+        }
+        batch.clear();
+    }
+
+    /**
+     * Stops the worker threads. Requests still waiting in the queue are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        failAll(new ArrayList<>());
+    }
+
+    private static final class Request<I, O> {
+
+        private final I input;
+        private final CompletableFuture<O> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Request(I input) {
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a {@link PredictorPool} over a large set of files, such as a directory of images for a nightly job.
+ *
+ * <p>
+ * Files flow through three stages connected by bounded queues: reading, batched prediction and writing. Each stage
+ * runs on its own threads, so decoding and encoding overlap with forward passes and all cores are kept busy, while
+ * the queues cap the number of inputs and outputs held in memory. The prediction stage runs one thread per predictor
+ * of the pool and gathers whatever inputs are ready into batches of up to {@code batchSize}.
+ *
+ * <p>
+ * Progress can be recorded in a checkpoint file listing the files written so far. When a job is run again with the
+ * same checkpoint, those files are skipped, so a crashed job resumes where it stopped. A file that fails to be read,
+ * predicted or written is logged and left out of the checkpoint, and is retried on the next run.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class BulkInferenceRunner<I, O> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkInferenceRunner.class);
+
+    private final PredictorPool<I, O> pool;
+    private final InputReader<I> reader;
+    private final OutputWriter<I, O> writer;
+    private final int readThreads;
+    private final int writeThreads;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    /**
+     * Creates a new runner.
+     *
+     * @param pool the pool the predictions are run on, with one prediction thread per predictor
+     * @param reader reads the input of a file
+     * @param writer writes the output of a file
+     * @param readThreads number of threads reading inputs
+     * @param writeThreads number of threads writing outputs
+     * @param batchSize maximum number of inputs in one batch prediction
+     * @param queueCapacity capacity of each queue between two stages
+     */
+    public BulkInferenceRunner(PredictorPool<I, O> pool, InputReader<I> reader, OutputWriter<I, O> writer,
+            int readThreads, int writeThreads, int batchSize, int queueCapacity) {
+        if (readThreads <= 0 || writeThreads <= 0) {
+            throw new IllegalArgumentException("Number of read and write threads must be positive, got "
+                    + readThreads + " and " + writeThreads);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got " + batchSize);
+        }
+        this.pool = pool;
+        this.reader = reader;
+        this.writer = writer;
+        this.readThreads = readThreads;
+        this.writeThreads = writeThreads;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Runs the job over the regular files of a directory and its subdirectories, or over the files listed in a
+     * manifest, one path per line. Relative paths in a manifest are resolved against its directory.
+     *
+     * @param source a directory or a manifest file
+     * @param checkpoint the checkpoint file, {@code null} to process every file
+     * @return the job summary
+     * @throws IOException if the source or checkpoint cannot be read
+     * @throws InterruptedException if the calling thread is interrupted, which stops the job
+     */
+    public Summary run(Path source, Path checkpoint) throws IOException, InterruptedException {
+        try (Stream<Path> files = listFiles(source)) {
+            return run(files, checkpoint);
+        }
+    }
+
+    /**
+     * Runs the job over a stream of files. The stream is consumed as the job progresses, so it may be larger than
+     * memory.
+     *
+     * @param files the files
+     * @param checkpoint the checkpoint file, {@code null} to process every file
+     * @return the job summary
+     * @throws IOException if the checkpoint cannot be read
+     * @throws InterruptedException if the calling thread is interrupted, which stops the job
+     */
+    public Summary run(Stream<Path> files, Path checkpoint) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try (Checkpoint progress = new Checkpoint(checkpoint)) {
+            Job job = new Job(progress);
+            job.start();
+            long skipped = 0;
+            try {
+                Iterator<Path> it = files.iterator();
+                while (it.hasNext()) {
+                    Path file = it.next();
+                    if (progress.isDone(file)) {
+                        skipped++;
+                    } else {
+                        job.files.put(new Item<>(file));
+                    }
+                }
+                job.files.put(job.end);
+                job.join();
+            } catch (InterruptedException | RuntimeException e) {
+                job.interrupt();
+                throw e;
+            }
+            Summary summary = new Summary(job.processed.get(), skipped, job.failed.get(),
+                    Duration.ofNanos(System.nanoTime() - start));
+            LOG.info("Bulk inference finished: {}", summary);
+            return summary;
+        }
+    }
+
+    /**
+     * Lists the files of a directory, or of a manifest file.
+     *
+     * @param source a directory or a manifest file
+     * @return the files, to be closed after use
+     * @throws IOException if the source cannot be read
+     */
+    public static Stream<Path> listFiles(Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            return Files.walk(source).filter(Files::isRegularFile);
+        }
+        Path base = source.toAbsolutePath().getParent();
+        return Files.lines(source, StandardCharsets.UTF_8)
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(base::resolve);
+    }
+
+    /**
+     * Reads the input of a file.
+     *
+     * @param <I> the input type
+     */
+    @FunctionalInterface
+    public interface InputReader<I> {
+
+        /**
+         * Reads the input of a file.
+         *
+         * @param file the file
+         * @return the input
+         * @throws IOException if the file cannot be read
+         */
+        I read(Path file) throws IOException;
+    }
+
+    /**
+     * Writes the output of a file.
+     *
+     * @param <I> the input type
+     * @param <O> the output type
+     */
+    @FunctionalInterface
+    public interface OutputWriter<I, O> {
+
+        /**
+         * Writes the output of a file.
+         *
+         * @param file the input file
+         * @param input the input read from the file
+         * @param output the output predicted for the input
+         * @throws IOException if the output cannot be written
+         */
+        void write(Path file, I input, O output) throws IOException;
+    }
+
+    /**
+     * Outcome of a bulk inference job.
+     */
+    public static final class Summary {
+
+        private final long processed;
+        private final long skipped;
+        private final long failed;
+        private final Duration duration;
+
+        Summary(long processed, long skipped, long failed, Duration duration) {
+            this.processed = processed;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.duration = duration;
+        }
+
+        /**
+         * @return the number of files predicted and written
+         */
+        public long getProcessed() {
+            return processed;
+        }
+
+        /**
+         * @return the number of files skipped because the checkpoint lists them
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return the number of files that failed to be read, predicted or written
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return the duration of the job
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return processed + " processed, " + skipped + " skipped, " + failed + " failed in " + duration;
+        }
+    }
+
+    private static final class Item<I, O> {
+
+        private final Path file;
+        private I input;
+        private O output;
+
+        private Item(Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Queues and threads of one run. Every stage forwards the end marker to the next stage once all its threads
+     * have seen it.
+     */
+    private final class Job {
+
+        private final Item<I, O> end = new Item<>(null);
+        private final BlockingQueue<Item<I, O>> files = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Item<I, O>> inputs = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Item<I, O>> outputs = new ArrayBlockingQueue<>(queueCapacity);
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Checkpoint checkpoint;
+
+        private Job(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        private void start() {
+            stage("djl-bulk-read-", readThreads, files, inputs, this::read);
+            stage("djl-bulk-inference-", pool.getMaxSize(), inputs, outputs, this::predict);
+            stage("djl-bulk-write-", writeThreads, outputs, null, this::write);
+            threads.forEach(Thread::start);
+        }
+
+        private void stage(String name, int count, BlockingQueue<Item<I, O>> queue, BlockingQueue<Item<I, O>> next,
+                Worker<I, O> worker) {
+            var remaining = new AtomicInteger(count);
+            for (int i = 0; i < count; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        worker.run(queue);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // also when the worker died of an error, so that the job still ends
+                        end(queue, next, remaining);
+                    }
+                }, name + i);
+                thread.setDaemon(true);
+                threads.add(thread);
+            }
+        }
+
+        private void end(BlockingQueue<Item<I, O>> queue, BlockingQueue<Item<I, O>> next, AtomicInteger remaining) {
+            boolean last = remaining.decrementAndGet() == 0;
+            try {
+                // let the other threads of the stage see the end marker
+                queue.put(end);
+                if (last && next != null) {
+                    next.put(end);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void read(BlockingQueue<Item<I, O>> queue) throws InterruptedException {
+            for (Item<I, O> item = queue.take(); item != end; item = queue.take()) {
+                try {
+                    item.input = reader.read(item.file);
+                    inputs.put(item);
+                } catch (IOException | RuntimeException e) {
+                    fail(item, "read", e);
+                }
+            }
+        }
+
+        private void predict(BlockingQueue<Item<I, O>> queue) throws InterruptedException {
+            List<Item<I, O>> batch = new ArrayList<>(batchSize);
+            for (Item<I, O> item = queue.take(); item != end; item = queue.take()) {
+                batch.add(item);
+                while (batch.size() < batchSize) {
+                    Item<I, O> next = queue.poll();
+                    if (next == null) {
+                        break;
+                    } else if (next == end) {
+                        queue.put(end);
+                        break;
+                    }
+                    batch.add(next);
+                }
+                predict(batch);
+                batch.clear();
+            }
+        }
+
+        private void predict(List<Item<I, O>> batch) throws InterruptedException {
+            List<O> results = null;
+            try {
+                results = pool.batchPredict(batch.stream().map(i -> i.input).collect(Collectors.toList()));
+                if (results.size() != batch.size()) {
+                    throw new TranslateException(
+                            "Batch prediction returned " + results.size() + " outputs for " + batch.size() + " inputs");
+                }
+            } catch (TranslateException | RuntimeException e) {
+                if (batch.size() == 1) {
+                    fail(batch.get(0), "predict", e);
+                    return;
+                }
+                LOG.debug("Batch prediction failed, predicting {} files one by one", batch.size(), e);
+                results = null;
+            }
+            if (results != null) {
+                // only enqueued once the whole batch succeeded, so that no item is written twice
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).output = results.get(i);
+                    outputs.put(batch.get(i));
+                }
+                return;
+            }
+            // isolate the inputs failing the batch
+            for (Item<I, O> item : batch) {
+                try {
+                    item.output = pool.predict(item.input);
+                    outputs.put(item);
+                } catch (TranslateException | RuntimeException e) {
+                    fail(item, "predict", e);
+                }
+            }
+        }
+
+        private void write(BlockingQueue<Item<I, O>> queue) throws InterruptedException {
+            for (Item<I, O> item = queue.take(); item != end; item = queue.take()) {
+                try {
+                    writer.write(item.file, item.input, item.output);
+                    checkpoint.record(item.file);
+                    processed.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    fail(item, "write", e);
+                }
+            }
+        }
+
+        private void fail(Item<I, O> item, String stage, Exception e) {
+            failed.incrementAndGet();
+            LOG.warn("Failed to {} {}", stage, item.file, e);
+        }
+
+        private void join() throws InterruptedException {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        private void interrupt() {
+            threads.forEach(Thread::interrupt);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Worker<I, O> {
+
+        void run(BlockingQueue<Item<I, O>> queue) throws InterruptedException;
+    }
+
+    /**
+     * Append-only list of the files written so far, flushed after every file.
+     */
+    private static final class Checkpoint implements Closeable {
+
+        private final Set<String> done;
+        private final BufferedWriter out;
+
+        private Checkpoint(Path file) throws IOException {
+            if (file == null) {
+                done = Collections.emptySet();
+                out = null;
+                return;
+            }
+            boolean exists = Files.exists(file);
+            done = exists ? new HashSet<>(Files.readAllLines(file, StandardCharsets.UTF_8)) : new HashSet<>();
+            boolean partialLine = exists && !endsWithNewLine(file);
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            if (partialLine) {
+                // the previous run crashed while recording a file
+                out.newLine();
+            }
+            if (!done.isEmpty()) {
+                LOG.info("Resuming from checkpoint {} with {} files done", file, done.size());
+            }
+        }
+
+        private static boolean endsWithNewLine(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() == 0) {
+                    return true;
+                }
+                ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, channel.size() - 1);
+                return last.get(0) == '\n';
+            }
+        }
+
+        private static String key(Path file) {
+            return file.toAbsolutePath().normalize().toString();
+        }
+
+        private boolean isDone(Path file) {
+            return done.contains(key(file));
+        }
+
+        private synchronized void record(Path file) throws IOException {
+            if (out != null) {
+                out.write(key(file));
+                out.newLine();
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import ai.djl.modality.Input;
+import ai.djl.modality.cv.Image;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.NDResource;
+import ai.djl.translate.TranslateException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caches the outputs of a {@link PredictorPool} by the content of their inputs.
+ *
+ * <p>
+ * Entries are keyed by the model name and a MurmurHash3 128-bit hash of the input bytes, so equal inputs hit the
+ * cache even when they are different objects. The hash is fast but not cryptographic: do not cache inputs an attacker
+ * could craft to collide with the inputs of other callers. The cache is bounded by size with Caffeine's W-TinyLFU
+ * eviction, and entries expire a fixed time after they were computed. Concurrent requests for the same input are
+ * coalesced: only the first runs a prediction, the others wait for its result. Failed predictions are not cached.
+ *
+ * <p>
+ * The input bytes of {@code byte[]}, {@link ByteBuffer}, {@link String}, {@link Input}, {@link NDList} and
+ * {@link Image} inputs are extracted out of the box; images not backed by a {@link BufferedImage} are keyed by their
+ * {@link Image#toNDArray(NDManager) NDArray} bytes. Other input types need a key function.
+ *
+ * <p>
+ * Outputs that are an {@link NDResource}, such as an {@link NDList}, are never cached: every caller owns and closes
+ * its output, so each of them runs its own prediction.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class CachingPredictor<I, O> {
+
+    private static final Object UNCACHEABLE = new Object();
+
+    private final PredictorPool<I, O> pool;
+    private final String modelName;
+    private final Function<? super I, byte[]> keyFunction;
+    // holds UNCACHEABLE instead of an output the coalesced callers must not share
+    private final AsyncCache<CacheKey, Object> cache;
+
+    /**
+     * Creates a caching predictor extracting the input bytes of the supported input types.
+     *
+     * @param pool the pool cache misses are predicted on
+     * @param modelName the name of the model, part of every cache key
+     * @param maximumSize maximum number of cached outputs
+     * @param expireAfterWrite how long an output stays cached, {@code null} to keep it until it is evicted
+     */
+    public CachingPredictor(PredictorPool<I, O> pool, String modelName, long maximumSize, Duration expireAfterWrite) {
+        this(pool, modelName, maximumSize, expireAfterWrite, CachingPredictor::toBytes);
+    }
+
+    /**
+     * Creates a caching predictor.
+     *
+     * @param pool the pool cache misses are predicted on
+     * @param modelName the name of the model, part of every cache key
+     * @param maximumSize maximum number of cached outputs
+     * @param expireAfterWrite how long an output stays cached, {@code null} to keep it until it is evicted
+     * @param keyFunction returns the bytes identifying an input
+     */
+    public CachingPredictor(PredictorPool<I, O> pool, String modelName, long maximumSize, Duration expireAfterWrite,
+            Function<? super I, byte[]> keyFunction) {
+        this.pool = pool;
+        this.modelName = modelName;
+        this.keyFunction = keyFunction;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize).recordStats();
+        if (expireAfterWrite != null && !expireAfterWrite.isZero() && !expireAfterWrite.isNegative()) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * Returns the cached output for the input, or predicts it on the calling thread.
+     *
+     * @param input the input
+     * @return the output
+     * @throws TranslateException if the prediction fails
+     */
+    @SuppressWarnings("unchecked")
+    public O predict(I input) throws TranslateException {
+        var key = new CacheKey(modelName, digest(keyFunction.apply(input)));
+        var pending = new CompletableFuture<Object>();
+        var future = cache.get(key, (k, executor) -> pending);
+        if (future == pending) {
+            try {
+                O output = pool.predict(input);
+                if (output instanceof NDResource) {
+                    cache.asMap().remove(key, pending);
+                    pending.complete(UNCACHEABLE);
+                } else {
+                    pending.complete(output);
+                }
+                return output;
+            } catch (TranslateException | RuntimeException e) {
+                // completing exceptionally also removes the entry
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        Object output;
+        try {
+            output = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TranslateException) {
+                throw (TranslateException) e.getCause();
+            }
+            throw e;
+        }
+        return output == UNCACHEABLE ? pool.predict(input) : (O) output;
+    }
+
+    /**
+     * Removes all cached outputs.
+     */
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * @return the number of requests served from the cache, including those that waited for an identical request
+     */
+    public long getHitCount() {
+        return cache.synchronous().stats().hitCount();
+    }
+
+    /**
+     * @return the number of requests that ran a prediction
+     */
+    public long getMissCount() {
+        return cache.synchronous().stats().missCount();
+    }
+
+    /**
+     * @return the number of requests evicted from the cache because of its size bound
+     */
+    public long getEvictionCount() {
+        return cache.synchronous().stats().evictionCount();
+    }
+
+    /**
+     * @return an estimate of the number of cached outputs
+     */
+    public long getSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        return new Murmur3Hasher().put(bytes).hash();
+    }
+
+    /**
+     * Returns the bytes identifying an input of one of the supported types.
+     *
+     * @param input the input
+     * @return the input bytes
+     * @throws IllegalArgumentException if the input type is not supported
+     */
+    public static byte[] toBytes(Object input) {
+        if (input instanceof byte[]) {
+            return (byte[]) input;
+        } else if (input instanceof ByteBuffer) {
+            var buffer = ((ByteBuffer) input).duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } else if (input instanceof String) {
+            return ((String) input).getBytes(StandardCharsets.UTF_8);
+        } else if (input instanceof NDList) {
+            return ((NDList) input).encode();
+        } else if (input instanceof Input) {
+            return toBytes((Input) input);
+        } else if (input instanceof Image) {
+            Image image = (Image) input;
+            if (image.getWrappedImage() instanceof BufferedImage) {
+                return toBytes((BufferedImage) image.getWrappedImage());
+            }
+            return toBytes(image);
+        }
+        throw new IllegalArgumentException("Cannot compute a cache key for " + input.getClass().getName()
+                + ", provide a key function to the caching predictor");
+    }
+
+    private static byte[] toBytes(Input input) {
+        var hasher = new Murmur3Hasher();
+        // every field is length prefixed, so that moving bytes from one field to the next changes the hash
+        var properties = new TreeMap<>(input.getProperties());
+        hasher.putInt(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            update(hasher, property.getKey());
+            update(hasher, property.getValue());
+        }
+        hasher.putInt(input.getContent().size());
+        for (var content : input.getContent()) {
+            update(hasher, content.getKey());
+            update(hasher, content.getValue() == null ? null : content.getValue().getAsBytes());
+        }
+        return hasher.hash();
+    }
+
+    private static void update(Murmur3Hasher hasher, String value) {
+        update(hasher, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(Murmur3Hasher hasher, byte[] value) {
+        // -1 tells a missing value apart from an empty one
+        hasher.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            hasher.put(value);
+        }
+    }
+
+    private static byte[] toBytes(Image image) {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray array = image.toNDArray(manager);
+            var hasher = new Murmur3Hasher();
+            update(hasher, array.getDataType().name());
+            update(hasher, array.getShape().toString());
+            return hasher.put(array.toByteBuffer()).hash();
+        }
+    }
+
+    private static byte[] toBytes(BufferedImage image) {
+        var hasher = new Murmur3Hasher();
+        WritableRaster raster = image.getRaster();
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        hasher.putInt(width).putInt(height).putInt(image.getType()).putInt(raster.getNumDataElements());
+        // reads the pixels of the raster only: a subimage shares the data buffer of its parent, and a raster may
+        // skip bytes at the end of its rows
+        Object row = null;
+        ByteBuffer buffer = null;
+        for (int y = 0; y < height; y++) {
+            row = raster.getDataElements(raster.getMinX(), raster.getMinY() + y, width, 1, row);
+            if (row instanceof byte[]) {
+                hasher.put((byte[]) row);
+                continue;
+            }
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(width * raster.getNumDataElements()
+                        * DataBuffer.getDataTypeSize(raster.getTransferType()) / Byte.SIZE);
+            }
+            buffer.clear();
+            if (row instanceof short[]) {
+                buffer.asShortBuffer().put((short[]) row);
+            } else if (row instanceof int[]) {
+                buffer.asIntBuffer().put((int[]) row);
+            } else if (row instanceof float[]) {
+                buffer.asFloatBuffer().put((float[]) row);
+            } else {
+                buffer.asDoubleBuffer().put((double[]) row);
+            }
+            hasher.put(buffer);
+        }
+        return hasher.hash();
+    }
+
+    private static final class CacheKey {
+
+        private final String model;
+        private final byte[] digest;
+        private final int hash;
+
+        private CacheKey(String model, byte[] digest) {
+            this.model = model;
+            this.digest = digest;
+            this.hash = 31 * model.hashCode() + Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return model.equals(other.model) && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.modality.cv.util.NDImageUtils;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+/**
+ * Creates image {@link NDArray}s straight from byte buffers and files, without going through a heap
+ * {@code BufferedImage} where it can be avoided.
+ *
+ * <p>
+ * Raw pixel buffers are handed to the engine as they are: a direct or memory-mapped buffer is read by the engine
+ * without being copied on the Java heap. Only {@link PixelFormat#RGB RGB} and {@link PixelFormat#GRAY GRAY} pixels
+ * stay zero-copy; the other layouts are reordered into an RGB copy on the engine, see
+ * {@link PixelFormat#isCopied()}. Encoded images are decoded by the {@link ImageFactory} in use; with the DJL
+ * OpenCV extension ({@code ai.djl.opencv:opencv}) on the classpath decoding happens in native memory, otherwise it
+ * falls back to AWT. Resizing runs on the engine. All arrays are {@code HWC} {@code uint8} arrays in RGB order, the
+ * layout image translators expect.
+ */
+public final class ImageBuffers {
+
+    /**
+     * Layout of the pixels in a raw buffer, one byte per channel.
+     */
+    public enum PixelFormat {
+        /** Red, green, blue. */
+        RGB(3),
+        /** Blue, green, red, as produced by OpenCV. */
+        BGR(3),
+        /** Red, green, blue, alpha. */
+        RGBA(4),
+        /** Blue, green, red, alpha. */
+        BGRA(4),
+        /** Single luminance channel. */
+        GRAY(1);
+
+        private final int channels;
+
+        PixelFormat(int channels) {
+            this.channels = channels;
+        }
+
+        /**
+         * @return the number of bytes per pixel
+         */
+        public int getChannels() {
+            return channels;
+        }
+
+        /**
+         * @return whether pixels in this layout are reordered into a copy, rather than read from the buffer in place
+         */
+        public boolean isCopied() {
+            return this != RGB && this != GRAY;
+        }
+    }
+
+    private ImageBuffers() {
+    }
+
+    /**
+     * Creates an image array from raw pixels.
+     *
+     * @param manager the manager owning the array
+     * @param pixels the pixels, row by row, from the buffer position to its limit
+     * @param width the image width
+     * @param height the image height
+     * @param format the pixel layout
+     * @return a {@code (height, width, channels)} array in RGB order, or with one channel for gray images; a copy of
+     *         the pixels if {@link PixelFormat#isCopied() the format is copied}
+     * @throws IllegalArgumentException if the buffer does not hold exactly {@code width * height} pixels
+     */
+    public static NDArray fromPixels(NDManager manager, ByteBuffer pixels, int width, int height,
+            PixelFormat format) {
+        long expected = (long) width * height * format.getChannels();
+        if (pixels.remaining() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " bytes for a " + width + "x" + height + " "
+                    + format + " image, got " + pixels.remaining());
+        }
+        NDArray array = manager.create(pixels, new Shape(height, width, format.getChannels()), DataType.UINT8);
+        switch (format) {
+            case BGR:
+                return replace(array, array.flip(2));
+            case RGBA:
+                return replace(array, array.get(":, :, :3"));
+            case BGRA:
+                return replace(array, array.get(":, :, :3").flip(2));
+            default:
+                return array;
+        }
+    }
+
+    /**
+     * Memory-maps a file of raw pixels and creates an image array from it. The mapping is attached to the manager of
+     * the returned array, so it stays mapped as long as the array may read it.
+     *
+     * @param manager the manager owning the array
+     * @param file the file holding the pixels, row by row
+     * @param width the image width
+     * @param height the image height
+     * @param format the pixel layout
+     * @return a {@code (height, width, channels)} array in RGB order
+     * @throws IOException if the file cannot be mapped
+     */
+    public static NDArray fromPixelFile(NDManager manager, Path file, int width, int height, PixelFormat format)
+            throws IOException {
+        MappedByteBuffer pixels = map(file);
+        NDArray array = fromPixels(manager, pixels, width, height, format);
+        if (!format.isCopied()) {
+            // the engine reads the mapped pages in place, and they are unmapped once the buffer is collected
+            array.getManager().attachInternal(UUID.randomUUID().toString(), () -> Reference.reachabilityFence(pixels));
+        }
+        return array;
+    }
+
+    /**
+     * Decodes an encoded image, such as a JPEG or PNG, into an image array.
+     *
+     * @param manager the manager owning the array
+     * @param encoded the encoded image, from the buffer position to its limit
+     * @return a {@code (height, width, 3)} array in RGB order
+     * @throws IOException if the image cannot be decoded
+     */
+    public static NDArray decode(NDManager manager, ByteBuffer encoded) throws IOException {
+        Image image;
+        try (InputStream is = asInputStream(encoded)) {
+            image = ImageFactory.getInstance().fromInputStream(is);
+        }
+        return image.toNDArray(manager, Image.Flag.COLOR);
+    }
+
+    /**
+     * Memory-maps an encoded image file and decodes it into an image array.
+     *
+     * @param manager the manager owning the array
+     * @param file the image file
+     * @return a {@code (height, width, 3)} array in RGB order
+     * @throws IOException if the file cannot be mapped or decoded
+     */
+    public static NDArray decodeFile(NDManager manager, Path file) throws IOException {
+        return decode(manager, map(file));
+    }
+
+    /**
+     * Resizes an image array on the engine, unless it already has the requested size. The input array is closed
+     * when a resized copy is returned.
+     *
+     * @param image a {@code (height, width, channels)} image array
+     * @param width the target width
+     * @param height the target height
+     * @return the resized array
+     */
+    public static NDArray resize(NDArray image, int width, int height) {
+        Shape shape = image.getShape();
+        if (shape.get(0) == height && shape.get(1) == width) {
+            return image;
+        }
+        return replace(image, NDImageUtils.resize(image, width, height));
+    }
+
+    private static NDArray replace(NDArray original, NDArray result) {
+        original.close();
+        return result;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static InputStream asInputStream(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        }
+        ByteBuffer source = buffer.duplicate();
+        return new InputStream() {
+
+            @Override
+            public int read() {
+                return source.hasRemaining() ? source.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(len, source.remaining());
+                source.get(b, off, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return source.remaining();
+            }
+        };
+    }
+}
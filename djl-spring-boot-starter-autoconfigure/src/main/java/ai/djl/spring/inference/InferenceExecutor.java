@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous facade over a {@link PredictorPool} that keeps request threads off the native forward pass.
+ *
+ * <p>
+ * Predictions run on a bounded pool of platform threads, by default one per core, so the engine is never asked to
+ * run more forward passes than there are cores to run them. Everything else runs on an I/O executor: loading the
+ * input when it is supplied as a {@link Callable}, and the stages callers attach to the returned futures. On Java 21
+ * and later the I/O executor uses virtual threads, so thousands of requests can wait for the native pool without
+ * tying up carrier or servlet threads; on older runtimes it falls back to a cached pool of platform threads.
+ *
+ * <p>
+ * Predictions beyond the queue capacity of the native pool are rejected with a {@link RejectedExecutionException}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class InferenceExecutor<I, O> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceExecutor.class);
+
+    private final PredictorPool<I, O> pool;
+    private final ExecutorService inferenceExecutor;
+    private final ExecutorService ioExecutor;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param pool the pool the predictions are run on
+     * @param threads number of platform threads running predictions, capped at the pool max size
+     * @param queueCapacity maximum number of predictions waiting for a platform thread
+     * @param virtualThreads whether to use virtual threads for the I/O executor when the runtime supports them
+     */
+    public InferenceExecutor(PredictorPool<I, O> pool, int threads, int queueCapacity, boolean virtualThreads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of inference threads must be positive, got " + threads);
+        }
+        this.pool = pool;
+        int size = Math.min(threads, pool.getMaxSize());
+        this.inferenceExecutor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), daemonThreads("djl-inference-"));
+        ExecutorService virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        this.ioExecutor = virtual != null ? virtual : Executors.newCachedThreadPool(daemonThreads("djl-inference-io-"));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            LOG.info("Virtual threads are not available on Java {}, using platform threads for inference I/O",
+                    System.getProperty("java.specification.version"));
+        } catch (ReflectiveOperationException e) {
+            // preview builds may have the method but refuse to create virtual threads
+            LOG.warn("Failed to create a virtual thread executor, using platform threads for inference I/O", e);
+        }
+        return null;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        var count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs a prediction on the inference threads. The returned future completes on the I/O executor, so stages
+     * attached to it do not hold an inference thread.
+     *
+     * @param input the input
+     * @return a future completed with the output, or exceptionally with a {@link TranslateException}
+     * @throws RejectedExecutionException if the queue of the inference threads is full or the executor is closed
+     */
+    public CompletableFuture<O> predictAsync(I input) {
+        return completeOnIoExecutor(CompletableFuture.supplyAsync(() -> predict(input), inferenceExecutor));
+    }
+
+    /**
+     * Loads the input on the I/O executor, then runs the prediction on the inference threads. This keeps blocking
+     * work such as reading or decoding a request body off both the caller and the inference threads.
+     *
+     * @param inputLoader loads the input
+     * @return a future completed with the output, or exceptionally with the failure of the loader or prediction
+     */
+    public CompletableFuture<O> predictAsync(Callable<I> inputLoader) {
+        CompletableFuture<I> input = CompletableFuture.supplyAsync(() -> {
+            try {
+                return inputLoader.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ioExecutor);
+        return completeOnIoExecutor(input.thenApplyAsync(this::predict, inferenceExecutor));
+    }
+
+    private CompletableFuture<O> completeOnIoExecutor(CompletableFuture<O> future) {
+        // unlike thenApplyAsync, whenCompleteAsync also hops executors when the prediction failed
+        return future.whenCompleteAsync((output, error) -> {
+        }, ioExecutor);
+    }
+
+    private O predict(I input) {
+        try {
+            return pool.predict(input);
+        } catch (TranslateException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * @return the executor running input loading and completion stages
+     */
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * @return whether the I/O executor runs on virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * @return the number of predictions waiting for an inference thread
+     */
+    public int getQueueSize() {
+        return ((ThreadPoolExecutor) inferenceExecutor).getQueue().size();
+    }
+
+    /**
+     * Stops accepting predictions and waits up to 30 seconds for the queued ones to complete.
+     */
+    @Override
+    public void close() {
+        inferenceExecutor.shutdown();
+        try {
+            if (!inferenceExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOG.warn("Inference executor did not terminate, {} predictions are still queued", getQueueSize());
+                inferenceExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            inferenceExecutor.shutdownNow();
+        }
+        ioExecutor.shutdown();
+    }
+}
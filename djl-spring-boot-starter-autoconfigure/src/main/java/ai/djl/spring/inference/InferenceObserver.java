@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+
+/**
+ * Receives inference events from a {@link PredictorPool} and the components built on it.
+ *
+ * <p>
+ * Methods are called on the inference path and must return quickly.
+ */
+public interface InferenceObserver {
+
+    /**
+     * Observer ignoring all events.
+     */
+    InferenceObserver NONE = new InferenceObserver() {
+    };
+
+    /**
+     * Called when a new predictor has been created.
+     *
+     * @param predictor the predictor
+     */
+    default void onPredictorCreated(Predictor<?, ?> predictor) {
+    }
+
+    /**
+     * Called when a {@link ScopedPredictor} has been closed.
+     */
+    default void onPredictorClosed() {
+    }
+
+    /**
+     * Called when a {@link ScopedPredictor} was garbage collected without being closed.
+     *
+     * @param allocationSite the stack trace of a call that returned an array still unreleased, or {@code null} if the
+     *        predictor was not sampled or released all the arrays it returned
+     */
+    default void onPredictorLeaked(Throwable allocationSite) {
+    }
+
+    /**
+     * Called after a successful {@code predict} or {@code batchPredict} call.
+     *
+     * @param items the number of inputs predicted
+     * @param nanos the time the call took, in nanoseconds
+     */
+    default void onPrediction(int items, long nanos) {
+    }
+
+    /**
+     * Called when a batch is dispatched by a {@link BatchingPredictor}.
+     *
+     * @param size the number of inputs in the batch
+     */
+    default void onBatch(int size) {
+    }
+
+    /**
+     * Called when an {@link InferenceScheduler} takes a request out of its queue to run it.
+     *
+     * @param priority the priority class of the request
+     * @param nanos the time the request waited in the queue, in nanoseconds
+     */
+    default void onQueueWait(String priority, long nanos) {
+    }
+
+    /**
+     * Called when an {@link InferenceScheduler} drops a request whose deadline passed before it could run.
+     *
+     * @param priority the priority class of the request
+     */
+    default void onExpired(String priority) {
+    }
+
+    /**
+     * Called when a prediction failed.
+     *
+     * @param error the failure
+     */
+    default void onError(Throwable error) {
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs predictions on a {@link PredictorPool} in order of priority class, dropping the ones whose deadline has
+ * passed.
+ *
+ * <p>
+ * Worker threads always take the waiting request of the highest {@link Priority}, first come first served within a
+ * class, so interactive requests only wait for the predictions already running while batch requests use the capacity
+ * left. Each request may carry a deadline, by default the timeout of its class: the future fails with a
+ * {@link TimeoutException} as soon as the deadline passes, and a request still queued by then is dropped before its
+ * input is preprocessed. The time each request waited in the queue is reported per class to the observer. Requests
+ * beyond the queue capacity are rejected immediately with a {@link RejectedExecutionException}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class InferenceScheduler<I, O> implements AutoCloseable {
+
+    /**
+     * Priority classes, from the most to the least urgent.
+     */
+    public enum Priority {
+        /** Requests a user is waiting for. */
+        INTERACTIVE,
+        /** Requests with no particular latency requirement. */
+        DEFAULT,
+        /** Bulk requests run on the spare capacity. */
+        BATCH
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceScheduler.class);
+
+    private final PredictorPool<I, O> pool;
+    private final int queueCapacity;
+    private final Map<Priority, Duration> timeouts;
+    private final PriorityBlockingQueue<Request<I, O>> queue;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Priority, LongAdder> expired = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicInteger> waiting = new EnumMap<>(Priority.class);
+    private final List<Thread> workers;
+
+    private volatile InferenceObserver observer = InferenceObserver.NONE;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new scheduler and starts its worker threads.
+     *
+     * @param pool the pool the predictions are run on
+     * @param threads number of worker threads, capped at the pool max size
+     * @param queueCapacity maximum number of requests waiting, over all classes
+     * @param timeouts the default timeout of the requests of each class, none for classes not in the map
+     */
+    public InferenceScheduler(PredictorPool<I, O> pool, int threads, int queueCapacity,
+            Map<Priority, Duration> timeouts) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of scheduler threads must be positive, got " + threads);
+        }
+        this.pool = pool;
+        this.queueCapacity = queueCapacity;
+        this.timeouts = timeouts.isEmpty() ? new EnumMap<>(Priority.class) : new EnumMap<>(timeouts);
+        this.queue = new PriorityBlockingQueue<>(16, Comparator.<Request<I, O>>comparingInt(r -> r.priority.ordinal())
+                .thenComparingLong(r -> r.sequence));
+        for (Priority priority : Priority.values()) {
+            expired.put(priority, new LongAdder());
+            waiting.put(priority, new AtomicInteger());
+        }
+        int size = Math.min(threads, pool.getMaxSize());
+        this.workers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Thread worker = new Thread(this::run, "djl-scheduler-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Sets the observer notified of queue wait times and expired requests.
+     *
+     * @param observer the observer
+     */
+    public void setObserver(InferenceObserver observer) {
+        this.observer = observer != null ? observer : InferenceObserver.NONE;
+    }
+
+    /**
+     * Queues a prediction with the default timeout of its class.
+     *
+     * @param input the input
+     * @param priority the priority class
+     * @return a future completed with the output, or exceptionally with a {@link TimeoutException} once the deadline
+     *         passed
+     */
+    public CompletableFuture<O> predict(I input, Priority priority) {
+        return predict(input, priority, timeouts.get(priority));
+    }
+
+    /**
+     * Queues a prediction.
+     *
+     * @param input the input
+     * @param priority the priority class
+     * @param timeout the time the caller is willing to wait for the output, {@code null} to wait indefinitely
+     * @return a future completed with the output, or exceptionally with a {@link TimeoutException} once the deadline
+     *         passed
+     */
+    public CompletableFuture<O> predict(I input, Priority priority, Duration timeout) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Inference scheduler is closed"));
+        }
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                    "Inference queue is full, capacity is " + queueCapacity));
+        }
+        long now = System.nanoTime();
+        var request = new Request<I, O>(input, priority, sequence.getAndIncrement(), now,
+                timeout != null ? now + timeout.toNanos() : null);
+        if (timeout != null) {
+            request.future.orTimeout(Math.max(timeout.toNanos(), 0), TimeUnit.NANOSECONDS);
+        }
+        waiting.get(priority).incrementAndGet();
+        queue.add(request);
+        return request.future;
+    }
+
+    /**
+     * @param priority a priority class
+     * @return the number of requests of the class waiting in the queue
+     */
+    public int getQueueSize(Priority priority) {
+        return waiting.get(priority).get();
+    }
+
+    /**
+     * @param priority a priority class
+     * @return the number of requests of the class dropped because their deadline passed
+     */
+    public long getExpiredCount(Priority priority) {
+        return expired.get(priority).sum();
+    }
+
+    /**
+     * @param priority a priority class
+     * @return the default timeout of the requests of the class, {@code null} if they have none
+     */
+    public Duration getTimeout(Priority priority) {
+        return timeouts.get(priority);
+    }
+
+    private void run() {
+        while (!closed) {
+            Request<I, O> request;
+            try {
+                request = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queued.decrementAndGet();
+            waiting.get(request.priority).decrementAndGet();
+            execute(request);
+        }
+    }
+
+    private void execute(Request<I, O> request) {
+        long now = System.nanoTime();
+        if (request.deadline != null && now - request.deadline >= 0) {
+            // the caller has given up: do not spend a forward pass on it
+            expired.get(request.priority).increment();
+            observer.onExpired(request.priority.name());
+            request.future.completeExceptionally(new TimeoutException("Deadline passed after waiting "
+                    + TimeUnit.NANOSECONDS.toMillis(now - request.enqueuedAt) + " ms in the queue"));
+            return;
+        }
+        if (request.future.isDone()) {
+            // cancelled by the caller
+            return;
+        }
+        observer.onQueueWait(request.priority.name(), now - request.enqueuedAt);
+        try {
+            request.future.complete(pool.predict(request.input));
+        } catch (Exception e) {
+            LOG.debug("Prediction of a {} request failed", request.priority, e);
+            request.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stops the worker threads. Requests still waiting in the queue are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<Request<I, O>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (Request<I, O> request : remaining) {
+            request.future.completeExceptionally(new CancellationException("Inference scheduler is closed"));
+        }
+    }
+
+    private static final class Request<I, O> {
+
+        private final I input;
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedAt;
+        private final Long deadline;
+        private final CompletableFuture<O> future = new CompletableFuture<>();
+
+        private Request(I input, Priority priority, long sequence, long enqueuedAt, Long deadline) {
+            this.input = input;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+            this.deadline = deadline;
+        }
+    }
+}
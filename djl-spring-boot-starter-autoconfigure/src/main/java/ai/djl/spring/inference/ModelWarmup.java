@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ai.djl.modality.Input;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs predictions on a {@link PredictorPool} until the engine reaches steady-state latency.
+ *
+ * <p>
+ * The first predictions of a model are several times slower than the following ones: the engine selects kernels and
+ * compiles the graph for each input shape, and the JVM has not compiled the translator yet. The warm-up runs a number
+ * of predictions for every combination of batch size and thread count, so that the predictors of the pool, the
+ * kernels for each batch shape and the JIT-compiled code are all ready before the first request.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class ModelWarmup<I, O> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelWarmup.class);
+
+    private static final String SYNTHETIC_TEXT = "The quick brown fox jumps over the lazy dog.";
+
+    private final PredictorPool<I, O> pool;
+    private final List<I> inputs;
+    private final int iterations;
+    private final List<Integer> batchSizes;
+    private final List<Integer> threads;
+
+    /**
+     * Creates a warm-up.
+     *
+     * @param pool the predictor pool to warm up
+     * @param inputs the inputs predicted, cycled through to fill the batches
+     * @param iterations the number of predictions per thread for each batch size and thread count
+     * @param batchSizes the batch sizes, 1 runs single-item predictions
+     * @param threads the numbers of threads predicting at once, capped at the max size of the pool
+     */
+    public ModelWarmup(PredictorPool<I, O> pool, List<I> inputs, int iterations, List<Integer> batchSizes,
+            List<Integer> threads) {
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("Warm-up needs at least one input");
+        }
+        this.pool = pool;
+        this.inputs = List.copyOf(inputs);
+        this.iterations = iterations;
+        this.batchSizes = batchSizes;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the warm-up.
+     *
+     * @param name the model name, for logging
+     * @throws TranslateException if a prediction fails
+     */
+    public void run(String name) throws TranslateException {
+        for (int threadCount : threads) {
+            int count = Math.max(1, Math.min(threadCount, pool.getMaxSize()));
+            ExecutorService executor = Executors.newFixedThreadPool(count, r -> {
+                Thread thread = new Thread(r, "djl-warmup-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                for (int batchSize : batchSizes) {
+                    List<Future<long[]>> results = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        results.add(executor.submit(() -> predict(batchSize)));
+                    }
+                    long first = 0;
+                    long last = 0;
+                    for (Future<long[]> result : results) {
+                        long[] latencies = result.get();
+                        first = Math.max(first, latencies[0]);
+                        last = Math.max(last, latencies[1]);
+                    }
+                    LOG.info("Warmed up model {} with {} threads at batch size {}: first prediction {} ms, last {} ms",
+                            name, count, batchSize, first / 1_000_000, last / 1_000_000);
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof TranslateException) {
+                    throw (TranslateException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new TranslateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TranslateException("Interrupted while warming up model " + name, e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private long[] predict(int batchSize) throws TranslateException {
+        long first = 0;
+        long last = 0;
+        for (int i = 0; i < iterations; i++) {
+            long begin = System.nanoTime();
+            if (batchSize <= 1) {
+                pool.predict(inputs.get(i % inputs.size()));
+            } else {
+                List<I> batch = new ArrayList<>(batchSize);
+                for (int j = 0; j < batchSize; j++) {
+                    batch.add(inputs.get((i * batchSize + j) % inputs.size()));
+                }
+                pool.batchPredict(batch);
+            }
+            last = System.nanoTime() - begin;
+            if (i == 0) {
+                first = last;
+            }
+        }
+        return new long[] {first, last};
+    }
+
+    /**
+     * Generates an input of the given class. Images are filled with random pixels and text is a fixed sentence.
+     *
+     * @param inputClass the input class of the model
+     * @param imageWidth the width of image inputs
+     * @param imageHeight the height of image inputs
+     * @param <I> the input type
+     * @return a list holding a single synthetic input
+     * @throws IllegalArgumentException if no synthetic input can be generated for the class
+     */
+    public static <I> List<I> syntheticInputs(Class<I> inputClass, int imageWidth, int imageHeight) {
+        if (inputClass == Image.class) {
+            var random = new Random(0);
+            int[] pixels = new int[imageWidth * imageHeight];
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+            }
+            return List.of(inputClass.cast(ImageFactory.getInstance().fromPixels(pixels, imageWidth, imageHeight)));
+        } else if (inputClass == String.class) {
+            return List.of(inputClass.cast(SYNTHETIC_TEXT));
+        }
+        throw new IllegalArgumentException("Cannot generate warm-up inputs of " + inputClass.getName()
+                + ", configure sample files instead");
+    }
+
+    /**
+     * Reads sample files as inputs of the given class.
+     *
+     * @param inputClass the input class of the model, an {@link Image}, {@link String}, {@code byte[]},
+     *        {@link Input} or {@link Path}
+     * @param files the sample files
+     * @param <I> the input type
+     * @return one input per file
+     * @throws IOException if a file cannot be read
+     * @throws IllegalArgumentException if the input class is not supported
+     */
+    public static <I> List<I> readSamples(Class<I> inputClass, List<Path> files) throws IOException {
+        List<I> samples = new ArrayList<>(files.size());
+        for (Path file : files) {
+            Object sample;
+            if (inputClass == Image.class) {
+                sample = ImageFactory.getInstance().fromFile(file);
+            } else if (inputClass == String.class) {
+                sample = Files.readString(file);
+            } else if (inputClass == byte[].class) {
+                sample = Files.readAllBytes(file);
+            } else if (inputClass == Input.class) {
+                var input = new Input();
+                input.add(Files.readAllBytes(file));
+                sample = input;
+            } else if (inputClass == Path.class) {
+                sample = file;
+            } else {
+                throw new IllegalArgumentException("Cannot read warm-up samples as " + inputClass.getName());
+            }
+            samples.add(inputClass.cast(sample));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming MurmurHash3 x64 128-bit hash with a zero seed.
+ *
+ * <p>
+ * A fast non-cryptographic hash for cache keys: its 128 bits make accidental collisions negligible, but it offers no
+ * protection against inputs crafted to collide. The hash is returned as 16 little-endian bytes, the same as Guava's
+ * {@code Hashing.murmur3_128()}.
+ */
+final class Murmur3Hasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final ByteBuffer block = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+    private long h1;
+    private long h2;
+    private long length;
+
+    Murmur3Hasher putInt(int value) {
+        return put(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array());
+    }
+
+    Murmur3Hasher put(byte[] bytes) {
+        return put(bytes, 0, bytes.length);
+    }
+
+    Murmur3Hasher put(byte[] bytes, int offset, int count) {
+        length += count;
+        int i = offset;
+        int end = offset + count;
+        while (block.position() > 0 && i < end) {
+            block.put(bytes[i++]);
+            if (!block.hasRemaining()) {
+                mix(block.getLong(0), block.getLong(8));
+                block.clear();
+            }
+        }
+        var view = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (; end - i >= 16; i += 16) {
+            mix(view.getLong(i), view.getLong(i + 8));
+        }
+        block.put(bytes, i, end - i);
+        return this;
+    }
+
+    Murmur3Hasher put(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            put(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return this;
+        }
+        byte[] chunk = new byte[Math.min(buffer.remaining(), 8192)];
+        while (buffer.hasRemaining()) {
+            int count = Math.min(buffer.remaining(), chunk.length);
+            buffer.get(chunk, 0, count);
+            put(chunk, 0, count);
+        }
+        return this;
+    }
+
+    byte[] hash() {
+        int tail = block.position();
+        if (tail > 0) {
+            while (block.hasRemaining()) {
+                block.put((byte) 0);
+            }
+            if (tail > 8) {
+                h2 ^= Long.rotateLeft(block.getLong(8) * C2, 33) * C1;
+            }
+            h1 ^= Long.rotateLeft(block.getLong(0) * C1, 31) * C2;
+        }
+        long r1 = h1 ^ length;
+        long r2 = h2 ^ length;
+        r1 += r2;
+        r2 += r1;
+        r1 = fmix(r1);
+        r2 = fmix(r2);
+        r1 += r2;
+        r2 += r1;
+        return ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN).putLong(r1).putLong(r2).array();
+    }
+
+    private void mix(long k1, long k2) {
+        h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+        h1 = Long.rotateLeft(h1, 27) + h2;
+        h1 = h1 * 5 + 0x52dce729;
+        h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+        h2 = Long.rotateLeft(h2, 31) + h1;
+        h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admits predictions only while the native memory held by NDArrays leaves room for them below a limit.
+ *
+ * <p>
+ * Native memory is not bounded by the Java heap, so a burst of predictions can exhaust the memory of the container
+ * before the JVM notices. The usage is sampled on a background thread, since measuring it walks the arrays of every
+ * model. A sample lags behind the predictions in flight, so each admitted prediction also reserves an estimate of its
+ * footprint until it completes: a prediction is admitted while the last sample, the reservations and its own estimate
+ * fit in the limit minus the headroom. A prediction always fits when none is in flight and the sample is below that
+ * limit, so an estimate larger than the limit does not block the model. Otherwise {@link #admit(int)} waits for a
+ * sample or a release that makes room, up to the admission timeout, and then fails with
+ * {@link NativeMemoryExhaustedException}. A budget without a limit admits every prediction and measures the usage on
+ * demand.
+ */
+public class NativeMemoryBudget implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NativeMemoryBudget.class);
+
+    private final long maxBytes;
+    private final long headroomBytes;
+    private final long requestBytes;
+    private final Duration admissionTimeout;
+    private final LongSupplier usage;
+    private final ScheduledExecutorService sampler;
+    private final Object lock = new Object();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private volatile long usedBytes;
+
+    /**
+     * Creates a budget without headroom, reserving nothing for the predictions in flight.
+     *
+     * @param maxBytes the native memory limit in bytes, zero or negative for no limit
+     * @param admissionTimeout how long a prediction waits for the usage to drop below the limit
+     * @param sampleInterval how often the usage is measured when there is a limit
+     * @param usage measures the native memory held by NDArrays, in bytes
+     */
+    public NativeMemoryBudget(long maxBytes, Duration admissionTimeout, Duration sampleInterval, LongSupplier usage) {
+        this(maxBytes, 0, 0, admissionTimeout, sampleInterval, usage);
+    }
+
+    /**
+     * Creates a budget.
+     *
+     * @param maxBytes the native memory limit in bytes, zero or negative for no limit
+     * @param headroomBytes the memory kept free below the limit, for the engine's own allocations
+     * @param requestBytes the estimated footprint of a prediction of one item, reserved while it runs
+     * @param admissionTimeout how long a prediction waits for room below the limit
+     * @param sampleInterval how often the usage is measured when there is a limit
+     * @param usage measures the native memory held by NDArrays, in bytes
+     */
+    public NativeMemoryBudget(long maxBytes, long headroomBytes, long requestBytes, Duration admissionTimeout,
+            Duration sampleInterval, LongSupplier usage) {
+        this.maxBytes = maxBytes;
+        this.headroomBytes = Math.max(headroomBytes, 0);
+        this.requestBytes = Math.max(requestBytes, 0);
+        this.admissionTimeout = admissionTimeout;
+        this.usage = usage;
+        if (maxBytes > 0) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "djl-native-memory-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(sampleInterval.toMillis(), 1);
+            sampler.scheduleWithFixedDelay(this::sample, 0, period, TimeUnit.MILLISECONDS);
+        } else {
+            sampler = null;
+        }
+    }
+
+    /**
+     * Admits a prediction of one item.
+     *
+     * @return the reservation of the prediction, to close once it completes
+     * @throws NativeMemoryExhaustedException if no room was made for the prediction within the admission timeout
+     * @see #admit(int)
+     */
+    public Reservation admit() {
+        return admit(1);
+    }
+
+    /**
+     * Returns when a prediction may run, waiting while the native memory leaves no room for it, and reserves its
+     * estimated footprint.
+     *
+     * @param items the number of items predicted, which the reservation is proportional to
+     * @return the reservation of the prediction, to close once it completes
+     * @throws NativeMemoryExhaustedException if no room was made for the prediction within the admission timeout
+     */
+    public Reservation admit(int items) {
+        if (maxBytes <= 0) {
+            return new Reservation(0);
+        }
+        long bytes = requestBytes * Math.max(items, 1);
+        if (tryReserve(bytes)) {
+            return new Reservation(bytes);
+        }
+        long deadline = System.nanoTime() + admissionTimeout.toNanos();
+        waiting.incrementAndGet();
+        try {
+            synchronized (lock) {
+                while (!tryReserve(bytes)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        throw new NativeMemoryExhaustedException("Native memory used by NDArrays is " + usedBytes
+                                + " bytes with " + reservedBytes.get() + " bytes reserved, no room for " + bytes
+                                + " more bytes below the limit of " + maxBytes + " bytes minus " + headroomBytes
+                                + " bytes of headroom");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+                return new Reservation(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new NativeMemoryExhaustedException("Interrupted while waiting for native memory", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private boolean tryReserve(long bytes) {
+        long limit = maxBytes - headroomBytes;
+        while (true) {
+            long used = usedBytes;
+            if (used >= limit) {
+                return false;
+            }
+            long reserved = reservedBytes.get();
+            if (reserved > 0 && used + reserved + bytes > limit) {
+                return false;
+            }
+            if (reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(long bytes) {
+        if (bytes > 0) {
+            reservedBytes.addAndGet(-bytes);
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    void sample() {
+        long bytes;
+        try {
+            bytes = usage.getAsLong();
+        } catch (RuntimeException e) {
+            LOG.debug("Failed to measure native memory", e);
+            return;
+        }
+        usedBytes = bytes;
+        if (bytes < maxBytes - headroomBytes) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the native memory limit in bytes, zero or negative when there is none
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the memory kept free below the limit, in bytes
+     */
+    public long getHeadroomBytes() {
+        return headroomBytes;
+    }
+
+    /**
+     * @return the native memory reserved by the predictions in flight, in bytes
+     */
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * @return the native memory held by NDArrays, as of the last sample when there is a limit
+     */
+    public long getUsedBytes() {
+        return sampler != null ? usedBytes : usage.getAsLong();
+    }
+
+    /**
+     * @return the number of predictions waiting for native memory
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * @return the number of predictions rejected because native memory was exhausted
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stops sampling the usage.
+     */
+    @Override
+    public void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * The memory reserved by an admitted prediction, released when closed.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the reserved memory in bytes
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Releases the reservation, once.
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+
+/**
+ * A {@link Predictor} borrowed from a {@link PredictorPool}. Closing it returns the predictor to the pool instead of
+ * releasing its native resources.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class PooledPredictor<I, O> implements AutoCloseable {
+
+    private final PredictorPool<I, O> pool;
+    private final Predictor<I, O> predictor;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final long admitted;
+    private final AtomicBoolean returned = new AtomicBoolean();
+    private volatile boolean invalid;
+    private volatile boolean failed;
+
+    PooledPredictor(PredictorPool<I, O> pool, Predictor<I, O> predictor, AdaptiveConcurrencyLimiter limiter,
+            long admitted) {
+        this.pool = pool;
+        this.predictor = predictor;
+        this.limiter = limiter;
+        this.admitted = admitted;
+    }
+
+    /**
+     * Predicts an item for inference.
+     *
+     * @param input the input
+     * @return the predicted output
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        var observer = pool.getObserver();
+        long begin = System.nanoTime();
+        try {
+            O output = predictor.predict(input);
+            observer.onPrediction(1, System.nanoTime() - begin);
+            return output;
+        } catch (TranslateException | RuntimeException e) {
+            failed = true;
+            observer.onError(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Predicts a batch for inference.
+     *
+     * @param inputs a list of inputs
+     * @return a list of outputs
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        var observer = pool.getObserver();
+        long begin = System.nanoTime();
+        try {
+            List<O> outputs = predictor.batchPredict(inputs);
+            observer.onPrediction(inputs.size(), System.nanoTime() - begin);
+            return outputs;
+        } catch (TranslateException | RuntimeException e) {
+            failed = true;
+            observer.onError(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives access to the underlying predictor, for example to set {@link ai.djl.metric.Metrics}. The predictor must
+     * not be closed directly.
+     *
+     * @return the pooled predictor
+     */
+    public Predictor<I, O> getPredictor() {
+        return predictor;
+    }
+
+    /**
+     * Marks the predictor as unusable, so that it is closed instead of being returned to the pool.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Returns the predictor to the pool, and its slot to the concurrency limiter of the pool. Calling this method more
+     * than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (returned.compareAndSet(false, true)) {
+            pool.release(predictor, invalid);
+            if (limiter != null) {
+                limiter.release(admitted, !failed && !invalid);
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, thread-safe pool of {@link Predictor} instances created from a single model.
+ *
+ * <p>
+ * Predictors are borrowed with {@link #borrow()} and handed back by closing the returned {@link PooledPredictor},
+ * so the usual try-with-resources idiom keeps working while the native-side state of the predictor is reused
+ * across calls. At most {@code maxSize} predictors exist at any time; callers that cannot get one within the
+ * borrow timeout fail with {@link PredictorPoolExhaustedException}. Idle predictors above {@code minIdle} are
+ * closed once they have not been used for the idle timeout.
+ *
+ * <p>
+ * With a {@link #setConcurrencyLimiter(AdaptiveConcurrencyLimiter) concurrency limiter}, each borrow is admitted by
+ * the limiter before it waits for a predictor, so that overload is rejected at once rather than after the borrow
+ * timeout. The latency sampled by the limiter runs from the borrow until the predictor is handed back.
+ *
+ * @param <I> the input type of the predictors
+ * @param <O> the output type of the predictors
+ */
+public class PredictorPool<I, O> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PredictorPool.class);
+
+    private final Supplier<Predictor<I, O>> factory;
+    private final int minIdle;
+    private final int maxSize;
+    private final Duration borrowTimeout;
+    private final Duration idleTimeout;
+
+    private final Semaphore permits;
+    private final BlockingDeque<IdlePredictor<I, O>> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+
+    private volatile InferenceObserver observer = InferenceObserver.NONE;
+    private volatile AdaptiveConcurrencyLimiter limiter;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool. No predictor is created until {@link #prefill()} or {@link #borrow()} is called.
+     *
+     * @param factory creates a new predictor, usually {@code model::newPredictor}
+     * @param minIdle number of idle predictors kept alive regardless of the idle timeout
+     * @param maxSize maximum number of predictors, borrowed or idle
+     * @param borrowTimeout how long {@link #borrow()} waits for a predictor to become available
+     * @param idleTimeout how long a predictor may stay idle before it is closed, zero or negative disables eviction
+     */
+    public PredictorPool(Supplier<Predictor<I, O>> factory, int minIdle, int maxSize, Duration borrowTimeout,
+            Duration idleTimeout) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool max size must be positive, got " + maxSize);
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Pool min idle must be between 0 and " + maxSize + ", got " + minIdle);
+        }
+        this.factory = factory;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.idleTimeout = idleTimeout;
+        this.permits = new Semaphore(maxSize, true);
+
+        if (idleTimeout != null && !idleTimeout.isZero() && !idleTimeout.isNegative()) {
+            long period = Math.max(idleTimeout.toMillis() / 2, 1);
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "djl-predictor-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Sets the observer notified of predictor creation and of predictions run on borrowed predictors.
+     *
+     * @param observer the observer
+     */
+    public void setObserver(InferenceObserver observer) {
+        this.observer = observer;
+    }
+
+    InferenceObserver getObserver() {
+        return observer;
+    }
+
+    /**
+     * Sets the concurrency limiter admitting each borrow before it waits for a predictor.
+     *
+     * @param limiter the limiter, {@code null} for no limit
+     */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * @return the concurrency limiter admitting each borrow, or {@code null} if there is none
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Creates predictors until {@code minIdle} of them are idle.
+     */
+    public void prefill() {
+        while (!closed && idle.size() < minIdle && size.get() < maxSize) {
+            idle.offerLast(new IdlePredictor<>(create()));
+        }
+    }
+
+    /**
+     * Borrows a predictor from the pool, creating a new one if none is idle and the pool is not full.
+     *
+     * <p>
+     * The returned predictor must be closed, which hands it back to the pool. It is expected to be used with
+     * try-with-resources.
+     *
+     * @return a predictor that is exclusively owned by the caller until closed
+     * @throws PredictorPoolExhaustedException if no predictor became available within the borrow timeout
+     * @throws ConcurrencyLimitExceededException if the concurrency limiter rejected the borrow
+     */
+    public PooledPredictor<I, O> borrow() {
+        if (closed) {
+            throw new IllegalStateException("Predictor pool is closed");
+        }
+        AdaptiveConcurrencyLimiter limiter = this.limiter;
+        long admitted = System.nanoTime();
+        if (limiter != null) {
+            limiter.acquire();
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PredictorPoolExhaustedException(
+                        "No predictor available within " + borrowTimeout + ", pool max size is " + maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(limiter, admitted);
+            throw new PredictorPoolExhaustedException("Interrupted while waiting for a predictor", e);
+        } catch (RuntimeException e) {
+            release(limiter, admitted);
+            throw e;
+        }
+
+        active.incrementAndGet();
+        try {
+            // LIFO keeps the most recently used predictors hot and lets the oldest ones age out
+            IdlePredictor<I, O> entry = idle.pollFirst();
+            Predictor<I, O> predictor = entry != null ? entry.predictor : create();
+            return new PooledPredictor<>(this, predictor, limiter, admitted);
+        } catch (RuntimeException e) {
+            active.decrementAndGet();
+            permits.release();
+            release(limiter, admitted);
+            throw e;
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, long admitted) {
+        if (limiter != null) {
+            limiter.release(admitted, false);
+        }
+    }
+
+    /**
+     * Runs a single prediction on a borrowed predictor.
+     *
+     * @param input the input
+     * @return the predicted output
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public O predict(I input) throws TranslateException {
+        try (var predictor = borrow()) {
+            return predictor.predict(input);
+        }
+    }
+
+    /**
+     * Runs a batch prediction on a borrowed predictor.
+     *
+     * @param inputs the inputs
+     * @return the predicted outputs, in the same order as the inputs
+     * @throws TranslateException if an error occurs during prediction
+     */
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        try (var predictor = borrow()) {
+            return predictor.batchPredict(inputs);
+        }
+    }
+
+    void release(Predictor<I, O> predictor, boolean invalid) {
+        active.decrementAndGet();
+        try {
+            // a borrower may have created a predictor while another one was being returned
+            if (closed || invalid || size.get() > maxSize) {
+                destroy(predictor);
+            } else {
+                idle.offerFirst(new IdlePredictor<>(predictor));
+            }
+        } finally {
+            permits.release();
+        }
+        // the pool may have been closed while the predictor was being returned
+        if (closed) {
+            drainIdle();
+        }
+    }
+
+    void evict() {
+        long now = System.nanoTime();
+        long timeout = idleTimeout.toNanos();
+        var iterator = idle.descendingIterator();
+        while (iterator.hasNext() && idle.size() > minIdle) {
+            IdlePredictor<I, O> entry = iterator.next();
+            if (now - entry.idleSince >= timeout && idle.removeFirstOccurrence(entry)) {
+                LOG.debug("Closing predictor idle for more than {}", idleTimeout);
+                destroy(entry.predictor);
+            }
+        }
+    }
+
+    private Predictor<I, O> create() {
+        Predictor<I, O> predictor = factory.get();
+        size.incrementAndGet();
+        observer.onPredictorCreated(predictor);
+        return predictor;
+    }
+
+    private void destroy(Predictor<I, O> predictor) {
+        size.decrementAndGet();
+        predictor.close();
+    }
+
+    private void drainIdle() {
+        IdlePredictor<I, O> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry.predictor);
+        }
+    }
+
+    /**
+     * @return the maximum number of predictors this pool will create
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of idle predictors always kept alive
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * @return the number of predictors currently borrowed
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of predictors currently waiting in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of live predictors, borrowed or idle
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return an estimate of the number of threads waiting to borrow a predictor
+     */
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Closes all idle predictors. Borrowed predictors are closed when they are handed back.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        drainIdle();
+    }
+
+    private static final class IdlePredictor<I, O> {
+
+        private final Predictor<I, O> predictor;
+        private final long idleSince = System.nanoTime();
+
+        private IdlePredictor(Predictor<I, O> predictor) {
+            this.predictor = predictor;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.time.Duration;
+import java.util.List;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive facade over a {@link PredictorPool}, for WebFlux and other Reactor based applications.
+ *
+ * <p>
+ * Forward passes run on a dedicated bounded scheduler, never on the subscriber's thread, so event loops do not block
+ * on native code. The scheduler has at most {@code threads} threads, capped at the pool max size, and queues at most
+ * {@code queueCapacity} predictions; a {@link Mono} subscribed while the queue is full fails with a
+ * {@link java.util.concurrent.RejectedExecutionException}. {@link Flux} streams are gathered into batches of up to
+ * {@code maxBatchSize} inputs, or whatever arrived within {@code maxDelay}, and only request more inputs upstream
+ * as batches complete, so a fast producer is slowed down rather than rejected.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class ReactivePredictor<I, O> implements AutoCloseable {
+
+    private final PredictorPool<I, O> pool;
+    private final Scheduler scheduler;
+    private final int concurrency;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+
+    /**
+     * Creates a new reactive predictor.
+     *
+     * @param pool the pool the predictions are run on
+     * @param threads maximum number of concurrent forward passes, capped at the pool max size
+     * @param queueCapacity maximum number of predictions waiting for a scheduler thread
+     * @param maxBatchSize maximum number of stream inputs gathered into one batch prediction
+     * @param maxDelay maximum time a stream input waits for more inputs before its batch is run
+     */
+    public ReactivePredictor(PredictorPool<I, O> pool, int threads, int queueCapacity, int maxBatchSize,
+            Duration maxDelay) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of inference threads must be positive, got " + threads);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive, got " + maxBatchSize);
+        }
+        this.pool = pool;
+        this.concurrency = Math.min(threads, pool.getMaxSize());
+        this.scheduler = Schedulers.newBoundedElastic(concurrency, queueCapacity, "djl-reactive", 60, true);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * Runs a prediction on the inference scheduler.
+     *
+     * @param input the input
+     * @return a mono emitting the output
+     */
+    public Mono<O> predict(I input) {
+        return Mono.fromCallable(() -> pool.predict(input)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Runs a prediction on the inference scheduler once the input is available.
+     *
+     * @param input the input
+     * @return a mono emitting the output
+     */
+    public Mono<O> predict(Mono<I> input) {
+        return input.flatMap(this::predict);
+    }
+
+    /**
+     * Runs batch predictions over a stream of inputs. Outputs are emitted in the order of the inputs.
+     *
+     * @param inputs the inputs
+     * @return a flux emitting one output per input
+     */
+    public Flux<O> predict(Flux<I> inputs) {
+        return inputs.bufferTimeout(maxBatchSize, maxDelay, true)
+                .flatMapSequential(this::batchPredict, concurrency)
+                .flatMapIterable(outputs -> outputs);
+    }
+
+    private Mono<List<O>> batchPredict(List<I> batch) {
+        return Mono.fromCallable(() -> pool.batchPredict(batch)).subscribeOn(scheduler);
+    }
+
+    /**
+     * @return the scheduler forward passes run on
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Disposes the inference scheduler.
+     */
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+}
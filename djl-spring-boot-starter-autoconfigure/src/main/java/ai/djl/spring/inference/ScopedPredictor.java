@@ -0,0 +1,350 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
+import ai.djl.inference.streaming.StreamingTranslator;
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDResource;
+import ai.djl.ndarray.NDScope;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Predictor} that bounds the native memory of each call and reports when it is not closed.
+ *
+ * <p>
+ * When scoping is enabled, each {@code predict} and {@code batchPredict} call runs in an {@link NDScope}: the arrays
+ * created on the calling thread during the call are closed when it returns, whichever manager they are attached to,
+ * except the arrays of outputs that are themselves an {@link NDResource}, such as an {@code NDList}. Outputs holding
+ * arrays in any other way, for example a custom class with an {@code NDArray} field, need scoping to be disabled.
+ *
+ * <p>
+ * Each call is first admitted by the {@link AdaptiveConcurrencyLimiter} given to the predictor, when there is one,
+ * which rejects it with a {@link ConcurrencyLimitExceededException} when the model already runs as many predictions as
+ * it allows, then by the {@link NativeMemoryBudget}, which reserves the estimated footprint of the call until it
+ * returns and fails it with a {@link NativeMemoryExhaustedException} when native memory leaves no room for it.
+ * Predictors of a {@link PredictorPool} are given no limiter, since the pool admits its borrowers before they wait for
+ * a predictor.
+ *
+ * <p>
+ * A predictor garbage collected without being closed is reported to the observer and logged. A sampled fraction of
+ * predictors records where each array they return is allocated, and the leak report lists where those still
+ * unreleased were allocated. Its native resources are then released.
+ *
+ * <p>
+ * Only the wrapped predictor of the model holds native resources. The {@link Predictor} this class extends is built
+ * from the same model, and closes its own manager as soon as it is created.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class ScopedPredictor<I, O> extends Predictor<I, O> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScopedPredictor.class);
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int MAX_LOGGED_SITES = 5;
+
+    private final Predictor<I, O> predictor;
+    private final InferenceObserver observer;
+    private final NativeMemoryBudget budget;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean scoped;
+    private final Allocations allocations;
+    private final Leak leak;
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * Creates a predictor of the model.
+     *
+     * @param model the model
+     * @param observer the observer notified when the predictor is closed or leaked
+     * @param budget the native memory budget admitting each call
+     * @param limiter the concurrency limiter of the model, {@code null} for no limit
+     * @param scoped whether to run each call in an {@link NDScope}
+     * @param stackSampling the fraction of predictors recording the stack trace of their creation, from 0 to 1
+     */
+    public ScopedPredictor(ZooModel<I, O> model, InferenceObserver observer, NativeMemoryBudget budget,
+            AdaptiveConcurrencyLimiter limiter, boolean scoped, double stackSampling) {
+        this(model.getName(), model, model.newPredictor(), observer, budget, limiter, scoped, stackSampling);
+    }
+
+    /**
+     * Wraps a predictor created elsewhere, for example one dispatching to worker processes. The predictor is closed
+     * with the wrapper.
+     *
+     * @param modelName the name of the model, used in logs
+     * @param model the model the predictor runs, on whose device this predictor is created
+     * @param predictor the predictor the calls are delegated to
+     * @param observer the observer notified when the predictor is closed or leaked
+     * @param budget the native memory budget admitting each call
+     * @param limiter the concurrency limiter of the model, {@code null} for no limit
+     * @param scoped whether to run each call in an {@link NDScope}
+     * @param stackSampling the fraction of predictors recording where the arrays they return are allocated, from 0
+     *        to 1
+     */
+    public ScopedPredictor(String modelName, Model model, Predictor<I, O> predictor, InferenceObserver observer,
+            NativeMemoryBudget budget, AdaptiveConcurrencyLimiter limiter, boolean scoped, double stackSampling) {
+        super(model, null, model.getNDManager().getDevice(), false);
+        // the wrapped predictor allocates everything, and a closed manager keeps the finalizer of Predictor from
+        // closing this predictor before the leak is reported
+        manager.close();
+        this.predictor = predictor;
+        this.observer = observer;
+        this.budget = budget;
+        this.limiter = limiter;
+        this.scoped = scoped;
+        boolean sampled = stackSampling > 0 && ThreadLocalRandom.current().nextDouble() < stackSampling;
+        this.allocations = sampled ? new Allocations() : null;
+        // the leak must not reference this predictor, or it would never become unreachable
+        this.leak = new Leak(modelName, predictor, observer, allocations);
+        this.cleanable = CLEANER.register(this, leak);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public O predict(I input) throws TranslateException {
+        if (limiter == null) {
+            return doPredict(input);
+        }
+        limiter.acquire();
+        long begin = System.nanoTime();
+        boolean success = false;
+        try {
+            O output = doPredict(input);
+            success = true;
+            return output;
+        } finally {
+            limiter.release(begin, success);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        if (limiter == null) {
+            return doBatchPredict(inputs);
+        }
+        limiter.acquire();
+        long begin = System.nanoTime();
+        boolean success = false;
+        try {
+            List<O> outputs = doBatchPredict(inputs);
+            success = true;
+            return outputs;
+        } finally {
+            limiter.release(begin, success);
+        }
+    }
+
+    private O doPredict(I input) throws TranslateException {
+        O output;
+        var reservation = budget.admit();
+        try {
+            output = scoped ? scopedPredict(input) : predictor.predict(input);
+        } finally {
+            reservation.close();
+        }
+        if (allocations != null) {
+            allocations.record(Collections.singletonList(output));
+        }
+        return output;
+    }
+
+    private O scopedPredict(I input) throws TranslateException {
+        try (var scope = new NDScope()) {
+            scope.suppressNotUsedWarning();
+            O output = predictor.predict(input);
+            keep(output);
+            return output;
+        }
+    }
+
+    private List<O> doBatchPredict(List<I> inputs) throws TranslateException {
+        List<O> outputs;
+        var reservation = budget.admit(inputs.size());
+        try {
+            outputs = scoped ? scopedBatchPredict(inputs) : predictor.batchPredict(inputs);
+        } finally {
+            reservation.close();
+        }
+        if (allocations != null) {
+            allocations.record(outputs);
+        }
+        return outputs;
+    }
+
+    private List<O> scopedBatchPredict(List<I> inputs) throws TranslateException {
+        try (var scope = new NDScope()) {
+            scope.suppressNotUsedWarning();
+            List<O> outputs = predictor.batchPredict(inputs);
+            for (O output : outputs) {
+                keep(output);
+            }
+            return outputs;
+        }
+    }
+
+    /**
+     * Predicts an item with a streaming output. The output is consumed after the call returns, so it is not scoped.
+     *
+     * @param input the input
+     * @return the output stream
+     * @throws TranslateException if an error occurs during prediction
+     */
+    @Override
+    public StreamingTranslator.StreamOutput<O> streamingPredict(I input) throws TranslateException {
+        return predictor.streamingPredict(input);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean supportsStreaming() {
+        return predictor.supportsStreaming();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setMetrics(Metrics metrics) {
+        predictor.setMetrics(metrics);
+    }
+
+    /**
+     * @return the predictor the calls are delegated to
+     */
+    public Predictor<I, O> getPredictor() {
+        return predictor;
+    }
+
+    /**
+     * @return whether each call runs in an {@link NDScope}
+     */
+    public boolean isScoped() {
+        return scoped;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        if (leak.closed.compareAndSet(false, true)) {
+            predictor.close();
+            observer.onPredictorClosed();
+        }
+        cleanable.clean();
+    }
+
+    private static void keep(Object output) {
+        if (output instanceof NDResource) {
+            for (NDArray array : ((NDResource) output).getResourceNDArrays()) {
+                NDScope.unregister(array);
+            }
+        }
+    }
+
+    /**
+     * Reports and releases a predictor garbage collected without being closed.
+     */
+    private static final class Leak implements Runnable {
+
+        private final String modelName;
+        private final Predictor<?, ?> predictor;
+        private final InferenceObserver observer;
+        private final Allocations allocations;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Leak(String modelName, Predictor<?, ?> predictor, InferenceObserver observer,
+                Allocations allocations) {
+            this.modelName = modelName;
+            this.predictor = predictor;
+            this.observer = observer;
+            this.allocations = allocations;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            List<Throwable> sites = List.of();
+            if (allocations == null) {
+                LOG.warn("Predictor for {} was not closed, raise djl.memory.leak-stack-sampling to log where the "
+                        + "arrays it returned and that are not released were allocated", modelName);
+            } else {
+                sites = allocations.getUnreleased();
+                if (sites.isEmpty()) {
+                    LOG.warn("Predictor for {} was not closed, all the arrays it returned were released", modelName);
+                } else {
+                    LOG.warn("Predictor for {} was not closed, {} of its calls returned arrays that are not released",
+                            modelName, sites.size());
+                    for (Throwable site : sites.subList(0, Math.min(sites.size(), MAX_LOGGED_SITES))) {
+                        LOG.warn("Unreleased array of {}", modelName, site);
+                    }
+                }
+            }
+            observer.onPredictorLeaked(sites.isEmpty() ? null : sites.get(0));
+            predictor.close();
+        }
+    }
+
+    /**
+     * Where the arrays returned by a sampled predictor were allocated, until they are released.
+     */
+    private static final class Allocations {
+
+        private final Map<NDArray, Throwable> sites = new IdentityHashMap<>();
+
+        synchronized void record(List<?> outputs) {
+            sites.keySet().removeIf(NDArray::isReleased);
+            Throwable site = null;
+            for (Object output : outputs) {
+                if (!(output instanceof NDResource)) {
+                    continue;
+                }
+                for (NDArray array : ((NDResource) output).getResourceNDArrays()) {
+                    if (site == null) {
+                        site = new Throwable("Array allocated here");
+                    }
+                    sites.putIfAbsent(array, site);
+                }
+            }
+        }
+
+        /**
+         * Returns the allocation sites of the arrays not released yet, one per call.
+         */
+        synchronized List<Throwable> getUnreleased() {
+            var unreleased = new ArrayList<Throwable>();
+            var seen = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+            for (Map.Entry<NDArray, Throwable> entry : sites.entrySet()) {
+                if (!entry.getKey().isReleased() && seen.add(entry.getValue())) {
+                    unreleased.add(entry.getValue());
+                }
+            }
+            return unreleased;
+        }
+    }
+}
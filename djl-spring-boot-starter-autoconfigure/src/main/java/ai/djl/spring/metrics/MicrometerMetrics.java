@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * DJL {@link Metrics} recording the per-stage latencies reported by a {@link ai.djl.inference.Predictor} as
+ * Micrometer timers, instead of keeping every sample in memory.
+ *
+ * <p>
+ * The predictor's {@code Preprocess}, {@code Inference}, {@code Postprocess} and {@code Total} metrics are recorded
+ * under {@value MicrometerModelListener#INFERENCE_TIMER} with the {@code stage} tag set to {@code preprocess},
+ * {@code forward}, {@code postprocess} and {@code total}. Other metrics are ignored.
+ */
+public class MicrometerMetrics extends Metrics {
+
+    private static final Map<String, String> STAGES = Map.of("Preprocess", "preprocess", "Inference", "forward",
+            "Postprocess", "postprocess", "Total", "total");
+
+    private final Map<String, Timer> timers;
+
+    /**
+     * Creates metrics recording into the registry.
+     *
+     * @param registry the meter registry
+     * @param tags the tags identifying the model
+     */
+    public MicrometerMetrics(MeterRegistry registry, Tags tags) {
+        timers = Map.of("Preprocess", timer(registry, tags, "Preprocess"), "Inference",
+                timer(registry, tags, "Inference"), "Postprocess", timer(registry, tags, "Postprocess"), "Total",
+                timer(registry, tags, "Total"));
+    }
+
+    private static Timer timer(MeterRegistry registry, Tags tags, String metricName) {
+        return Timer.builder(MicrometerModelListener.INFERENCE_TIMER)
+                .description("Time spent in each stage of a DJL prediction")
+                .tags(tags)
+                .tag("stage", STAGES.get(metricName))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void addMetric(Metric metric) {
+        Timer timer = timers.get(metric.getMetricName());
+        if (timer == null) {
+            return;
+        }
+        double value = metric.getValue();
+        if (metric.getUnit() == Unit.MILLISECONDS) {
+            timer.record((long) (value * 1_000_000), TimeUnit.NANOSECONDS);
+        } else {
+            // the predictor reports its latencies in microseconds
+            timer.record((long) (value * 1_000), TimeUnit.NANOSECONDS);
+        }
+    }
+}
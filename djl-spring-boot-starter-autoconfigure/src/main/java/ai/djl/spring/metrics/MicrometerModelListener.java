@@ -0,0 +1,257 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import ai.djl.inference.Predictor;
+import ai.djl.spring.inference.AdaptiveConcurrencyLimiter;
+import ai.djl.spring.inference.InferenceScheduler;
+import ai.djl.spring.model.ModelListener;
+import ai.djl.spring.model.ServedModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes the load and inference events of served models as Micrometer meters, tagged with the model name and
+ * engine.
+ *
+ * <p>
+ * Meters are looked up on each event rather than cached per model, Micrometer already caches them by name and tags.
+ */
+public class MicrometerModelListener implements ModelListener {
+
+    /** Time taken to load a model, tagged with the outcome. */
+    public static final String LOAD_TIMER = "djl.model.load";
+    /** Time spent in each stage of a prediction, tagged with the stage. */
+    public static final String INFERENCE_TIMER = "djl.inference";
+    /** Time taken by a {@code predict} or {@code batchPredict} call on a pooled predictor. */
+    public static final String PREDICTION_TIMER = "djl.prediction";
+    /** Number of failed predictions, tagged with the exception class. */
+    public static final String ERROR_COUNTER = "djl.inference.errors";
+    /** Size of the batches dispatched by the batching predictor. */
+    public static final String BATCH_SIZE = "djl.batch.size";
+    /** Number of predictors currently borrowed from the pool. */
+    public static final String POOL_ACTIVE = "djl.pool.active";
+    /** Number of idle predictors in the pool. */
+    public static final String POOL_IDLE = "djl.pool.idle";
+    /** Number of threads waiting for a predictor. */
+    public static final String POOL_WAITING = "djl.pool.waiting";
+    /** Maximum number of predictors in the pool. */
+    public static final String POOL_MAX = "djl.pool.max";
+    /** Number of inputs waiting in the batching queue. */
+    public static final String QUEUE_SIZE = "djl.batching.queue.size";
+    /** Number of result cache lookups, tagged with the result, {@code hit} or {@code miss}. */
+    public static final String CACHE_REQUESTS = "djl.cache.requests";
+    /** Number of outputs evicted from the result cache. */
+    public static final String CACHE_EVICTIONS = "djl.cache.evictions";
+    /** Number of outputs in the result cache. */
+    public static final String CACHE_SIZE = "djl.cache.size";
+    /** Number of NDArrays held by the model and its predictors. */
+    public static final String ARRAYS_LIVE = "djl.ndarray.live";
+    /** Number of predictors created and not yet closed. */
+    public static final String PREDICTORS_OPEN = "djl.predictors.open";
+    /** Number of predictors garbage collected without being closed. */
+    public static final String PREDICTORS_LEAKED = "djl.predictors.leaked";
+
+    /** Time scheduled requests waited in the queue, tagged with their priority class. */
+    public static final String SCHEDULER_WAIT = "djl.scheduler.queue.wait";
+    /** Scheduled requests dropped because their deadline passed, tagged with their priority class. */
+    public static final String SCHEDULER_EXPIRED = "djl.scheduler.expired";
+    /** Scheduled requests waiting in the queue, tagged with their priority class. */
+    public static final String SCHEDULER_QUEUE_SIZE = "djl.scheduler.queue.size";
+
+    /** Predictions the adaptive concurrency limiter currently allows to run at once. */
+    public static final String LIMITER_LIMIT = "djl.limiter.limit";
+    /** Predictions running under the adaptive concurrency limiter. */
+    public static final String LIMITER_IN_FLIGHT = "djl.limiter.inflight";
+    /** Predictions rejected by the adaptive concurrency limiter. */
+    public static final String LIMITER_REJECTED = "djl.limiter.rejected";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Creates a listener publishing into the registry.
+     *
+     * @param registry the meter registry
+     */
+    public MicrometerModelListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onModelRegistered(ServedModel model) {
+        var tags = tags(model);
+        Gauge.builder(POOL_ACTIVE, model, m -> m.getPredictorPool() != null ? m.getPredictorPool().getActiveCount() : 0)
+                .description("Predictors currently borrowed from the pool")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(POOL_IDLE, model, m -> m.getPredictorPool() != null ? m.getPredictorPool().getIdleCount() : 0)
+                .description("Idle predictors in the pool")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(POOL_WAITING, model,
+                m -> m.getPredictorPool() != null ? m.getPredictorPool().getWaitingCount() : 0)
+                .description("Threads waiting for a predictor")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(POOL_MAX, model, m -> m.getPredictorPool() != null ? m.getPredictorPool().getMaxSize() : 0)
+                .description("Maximum number of predictors in the pool")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(QUEUE_SIZE, model,
+                m -> m.getBatchingPredictor() != null ? m.getBatchingPredictor().getQueueSize() : 0)
+                .description("Inputs waiting to be batched")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(CACHE_REQUESTS, model,
+                m -> m.getCachingPredictor() != null ? m.getCachingPredictor().getHitCount() : 0)
+                .description("Result cache lookups")
+                .tags(tags)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(CACHE_REQUESTS, model,
+                m -> m.getCachingPredictor() != null ? m.getCachingPredictor().getMissCount() : 0)
+                .description("Result cache lookups")
+                .tags(tags)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(CACHE_EVICTIONS, model,
+                m -> m.getCachingPredictor() != null ? m.getCachingPredictor().getEvictionCount() : 0)
+                .description("Outputs evicted from the result cache")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(CACHE_SIZE, model,
+                m -> m.getCachingPredictor() != null ? m.getCachingPredictor().getSize() : 0)
+                .description("Outputs in the result cache")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(ARRAYS_LIVE, model, m -> Math.max(m.getLiveArrayCount(), 0))
+                .description("NDArrays held by the model and its predictors")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder(PREDICTORS_OPEN, model, ServedModel::getOpenPredictorCount)
+                .description("Predictors created and not yet closed")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(PREDICTORS_LEAKED, model, ServedModel::getLeakedPredictorCount)
+                .description("Predictors garbage collected without being closed")
+                .tags(tags)
+                .register(registry);
+        if (model.getConcurrencyLimiter() != null) {
+            Gauge.builder(LIMITER_LIMIT, model.getConcurrencyLimiter(), AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Predictions the adaptive concurrency limiter allows to run at once")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder(LIMITER_IN_FLIGHT, model.getConcurrencyLimiter(), AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Predictions running under the adaptive concurrency limiter")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder(LIMITER_REJECTED, model.getConcurrencyLimiter(),
+                    AdaptiveConcurrencyLimiter::getRejectedCount)
+                    .description("Predictions rejected by the adaptive concurrency limiter")
+                    .tags(tags)
+                    .register(registry);
+        }
+        for (InferenceScheduler.Priority priority : InferenceScheduler.Priority.values()) {
+            Gauge.builder(SCHEDULER_QUEUE_SIZE, model,
+                    m -> m.getInferenceScheduler() != null ? m.getInferenceScheduler().getQueueSize(priority) : 0)
+                    .description("Scheduled requests waiting in the queue")
+                    .tags(tags)
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void onModelLoaded(ServedModel model, Duration duration) {
+        loadTimer(model, "success").record(duration);
+    }
+
+    @Override
+    public void onModelLoadFailed(ServedModel model, Throwable error) {
+        var duration = model.getLoadDuration();
+        loadTimer(model, "failure").record(duration != null ? duration : Duration.ZERO);
+    }
+
+    @Override
+    public void onPredictorCreated(ServedModel model, Predictor<?, ?> predictor) {
+        predictor.setMetrics(new MicrometerMetrics(registry, tags(model)));
+    }
+
+    @Override
+    public void onPrediction(ServedModel model, int items, long nanos) {
+        Timer.builder(PREDICTION_TIMER)
+                .description("Time taken by a prediction on a pooled predictor")
+                .tags(tags(model))
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onBatch(ServedModel model, int size) {
+        DistributionSummary.builder(BATCH_SIZE)
+                .description("Size of the batches dispatched by the batching predictor")
+                .tags(tags(model))
+                .register(registry)
+                .record(size);
+    }
+
+    @Override
+    public void onQueueWait(ServedModel model, String priority, long nanos) {
+        Timer.builder(SCHEDULER_WAIT)
+                .description("Time scheduled requests waited in the queue")
+                .tags(tags(model))
+                .tag("priority", priority)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onExpired(ServedModel model, String priority) {
+        Counter.builder(SCHEDULER_EXPIRED)
+                .description("Scheduled requests dropped because their deadline passed")
+                .tags(tags(model))
+                .tag("priority", priority)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void onError(ServedModel model, Throwable error) {
+        Counter.builder(ERROR_COUNTER)
+                .description("Failed predictions")
+                .tags(tags(model))
+                .tag("exception", error.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    private Timer loadTimer(ServedModel model, String outcome) {
+        return Timer.builder(LOAD_TIMER)
+                .description("Time taken to load a model")
+                .tags(tags(model))
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Tags tags(ServedModel model) {
+        return Tags.of("model", model.getName(), "engine", model.getEngine());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.metrics;
+
+import ai.djl.spring.inference.NativeMemoryBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the usage and the admissions of a {@link NativeMemoryBudget} as Micrometer meters.
+ */
+public class NativeMemoryMetrics implements MeterBinder {
+
+    /** Native memory held by the NDArrays of all models. */
+    public static final String USED = "djl.memory.native.used";
+    /** Native memory limit, zero when there is none. */
+    public static final String MAX = "djl.memory.native.max";
+    /** Native memory reserved by the predictions in flight. */
+    public static final String RESERVED = "djl.memory.native.reserved";
+    /** Number of predictions waiting for native memory. */
+    public static final String WAITING = "djl.memory.native.waiting";
+    /** Number of predictions rejected because native memory was exhausted. */
+    public static final String REJECTED = "djl.memory.native.rejected";
+
+    private final NativeMemoryBudget budget;
+
+    /**
+     * Creates metrics for the budget.
+     *
+     * @param budget the native memory budget
+     */
+    public NativeMemoryMetrics(NativeMemoryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(USED, budget, NativeMemoryBudget::getUsedBytes)
+                .description("Native memory held by the NDArrays of all models")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder(MAX, budget, b -> Math.max(b.getMaxBytes(), 0))
+                .description("Native memory limit of the NDArrays, zero when there is none")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder(RESERVED, budget, NativeMemoryBudget::getReservedBytes)
+                .description("Native memory reserved by the predictions in flight")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder(WAITING, budget, NativeMemoryBudget::getWaitingCount)
+                .description("Predictions waiting for native memory")
+                .register(registry);
+        FunctionCounter.builder(REJECTED, budget, NativeMemoryBudget::getRejectedCount)
+                .description("Predictions rejected because native memory was exhausted")
+                .register(registry);
+    }
+}
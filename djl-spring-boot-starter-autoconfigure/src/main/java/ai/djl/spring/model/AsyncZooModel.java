@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import ai.djl.repository.zoo.ZooModel;
+
+/**
+ * A {@link ZooModel} that is loaded in the background. Calls made before loading has finished block until the model
+ * is available.
+ *
+ * @param <I> the model input type
+ * @param <O> the model output type
+ */
+public class AsyncZooModel<I, O> extends DelegatingZooModel<I, O> {
+
+    private final CompletableFuture<? extends ZooModel<?, ?>> future;
+
+    /**
+     * Creates a model backed by a loading future.
+     *
+     * @param future the future completed with the loaded model
+     */
+    public AsyncZooModel(CompletableFuture<? extends ZooModel<?, ?>> future) {
+        this.future = future;
+    }
+
+    /**
+     * Starts loading a model on a dedicated background thread.
+     *
+     * @param name the name used for the loading thread
+     * @param loader loads the model
+     * @return the model being loaded
+     */
+    public static AsyncZooModel<?, ?> load(String name, Callable<? extends ZooModel<?, ?>> loader) {
+        var future = new CompletableFuture<ZooModel<?, ?>>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(loader.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, "djl-model-loader-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return new AsyncZooModel<>(future);
+    }
+
+    /**
+     * @return the future completed once the model is loaded
+     */
+    public CompletableFuture<? extends ZooModel<?, ?>> getFuture() {
+        return future;
+    }
+
+    /**
+     * @return whether the model has been loaded successfully
+     */
+    public boolean isLoaded() {
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected ZooModel<I, O> getDelegate() {
+        try {
+            return (ZooModel<I, O>) future.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Model failed to load", e.getCause());
+        }
+    }
+
+    /**
+     * Closes the model, or closes it once loaded if loading is still in progress.
+     */
+    @Override
+    public void close() {
+        future.thenAccept(ZooModel::close);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+
+import ai.djl.Device;
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.training.Trainer;
+import ai.djl.training.TrainingConfig;
+import ai.djl.translate.Translator;
+import ai.djl.util.PairList;
+
+/**
+ * A {@link ZooModel} that forwards every call to a model resolved on demand by {@link #getDelegate()}.
+ *
+ * <p>
+ * It lets the model bean be injected before the actual model has been loaded.
+ *
+ * @param <I> the model input type
+ * @param <O> the model output type
+ */
+public abstract class DelegatingZooModel<I, O> extends ZooModel<I, O> {
+
+    protected DelegatingZooModel() {
+        super(null, null);
+    }
+
+    /**
+     * Resolves the model calls are forwarded to, loading it if needed.
+     *
+     * @return the loaded model
+     */
+    protected abstract ZooModel<I, O> getDelegate();
+
+    @Override
+    public void load(Path modelPath, String prefix, Map<String, ?> options) {
+        getDelegate().load(modelPath, prefix, options);
+    }
+
+    @Override
+    public void load(InputStream modelStream, Map<String, ?> options) throws IOException {
+        getDelegate().load(modelStream, options);
+    }
+
+    @Override
+    public Model getWrappedModel() {
+        return getDelegate().getWrappedModel();
+    }
+
+    @Override
+    public void save(Path modelPath, String newModelName) throws IOException {
+        getDelegate().save(modelPath, newModelName);
+    }
+
+    @Override
+    public Path getModelPath() {
+        return getDelegate().getModelPath();
+    }
+
+    @Override
+    public Block getBlock() {
+        return getDelegate().getBlock();
+    }
+
+    @Override
+    public void setBlock(Block block) {
+        getDelegate().setBlock(block);
+    }
+
+    @Override
+    public String getName() {
+        return getDelegate().getName();
+    }
+
+    @Override
+    public String getProperty(String key) {
+        return getDelegate().getProperty(key);
+    }
+
+    @Override
+    public void setProperty(String key, String value) {
+        getDelegate().setProperty(key, value);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return getDelegate().getProperties();
+    }
+
+    @Override
+    public Trainer newTrainer(TrainingConfig trainingConfig) {
+        return getDelegate().newTrainer(trainingConfig);
+    }
+
+    @Override
+    public Predictor<I, O> newPredictor() {
+        return getDelegate().newPredictor();
+    }
+
+    @Override
+    public Predictor<I, O> newPredictor(Device device) {
+        return getDelegate().newPredictor(device);
+    }
+
+    @Override
+    public <P, Q> Predictor<P, Q> newPredictor(Translator<P, Q> translator, Device device) {
+        return getDelegate().newPredictor(translator, device);
+    }
+
+    @Override
+    public Translator<I, O> getTranslator() {
+        return getDelegate().getTranslator();
+    }
+
+    @Override
+    public PairList<String, Shape> describeInput() {
+        return getDelegate().describeInput();
+    }
+
+    @Override
+    public PairList<String, Shape> describeOutput() {
+        return getDelegate().describeOutput();
+    }
+
+    @Override
+    public String[] getArtifactNames() {
+        return getDelegate().getArtifactNames();
+    }
+
+    @Override
+    public <T> T getArtifact(String name, Function<InputStream, T> function) throws IOException {
+        return getDelegate().getArtifact(name, function);
+    }
+
+    @Override
+    public URL getArtifact(String name) throws IOException {
+        return getDelegate().getArtifact(name);
+    }
+
+    @Override
+    public InputStream getArtifactAsStream(String name) throws IOException {
+        return getDelegate().getArtifactAsStream(name);
+    }
+
+    @Override
+    public NDManager getNDManager() {
+        return getDelegate().getNDManager();
+    }
+
+    @Override
+    public void setDataType(DataType dataType) {
+        getDelegate().setDataType(dataType);
+    }
+
+    @Override
+    public DataType getDataType() {
+        return getDelegate().getDataType();
+    }
+
+    @Override
+    public void cast(DataType dataType) {
+        getDelegate().cast(dataType);
+    }
+
+    @Override
+    public void quantize() {
+        getDelegate().quantize();
+    }
+}
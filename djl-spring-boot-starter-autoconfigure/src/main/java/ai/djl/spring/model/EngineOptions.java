@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.inference.PredictorPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Threading and runtime options of the engines.
+ *
+ * <p>
+ * The PyTorch and TensorFlow engines read their options from system properties when they are loaded, so
+ * {@link #apply()} must be called before any engine or model is loaded. Options set with {@code -D} on the command line
+ * take precedence. OpenMP, MKL and MXNet options are read from the environment by the native libraries themselves;
+ * they cannot be changed from a running JVM, and are only checked against the environment of the process. ONNX Runtime
+ * options are session options, set per model with {@link ModelProperties#getOnnxruntime()}.
+ */
+public class EngineOptions {
+
+    /** Intra-op threads of PyTorch. */
+    public static final String PYTORCH_NUM_THREADS = "ai.djl.pytorch.num_threads";
+    /** Inter-op threads of PyTorch. */
+    public static final String PYTORCH_NUM_INTEROP_THREADS = "ai.djl.pytorch.num_interop_threads";
+    /** Whether the TorchScript graph executor optimizer is enabled. */
+    public static final String PYTORCH_GRAPH_OPTIMIZER = "ai.djl.pytorch.graph_optimizer";
+    /** Whether cuDNN benchmarks convolution algorithms. */
+    public static final String PYTORCH_CUDNN_BENCHMARK = "ai.djl.pytorch.cudnn_benchmark";
+    /** Intra-op threads of TensorFlow. */
+    public static final String TENSORFLOW_NUM_INTRAOP_THREADS = "ai.djl.tensorflow.num_intraop_threads";
+    /** Inter-op threads of TensorFlow. */
+    public static final String TENSORFLOW_NUM_INTEROP_THREADS = "ai.djl.tensorflow.num_interop_threads";
+    /** OpenMP threads, an environment variable. */
+    public static final String OMP_NUM_THREADS = "OMP_NUM_THREADS";
+    /** MKL threads, an environment variable. */
+    public static final String MKL_NUM_THREADS = "MKL_NUM_THREADS";
+    /** MXNet execution engine, an environment variable. */
+    public static final String MXNET_ENGINE_TYPE = "MXNET_ENGINE_TYPE";
+    /** MXNet CPU worker threads, an environment variable. */
+    public static final String MXNET_CPU_WORKER_NTHREADS = "MXNET_CPU_WORKER_NTHREADS";
+
+    private static final Logger LOG = LoggerFactory.getLogger(EngineOptions.class);
+
+    private final Map<String, String> systemProperties = new LinkedHashMap<>();
+    private final Map<String, String> environment = new LinkedHashMap<>();
+
+    /**
+     * Sets a system property read by an engine.
+     *
+     * @param name the property name
+     * @param value the value, {@code null} to keep the engine default
+     * @return these options
+     */
+    public EngineOptions systemProperty(String name, Object value) {
+        if (value != null) {
+            systemProperties.put(name, value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Expects an environment variable read by a native library.
+     *
+     * @param name the variable name
+     * @param value the expected value, {@code null} to keep the library default
+     * @return these options
+     */
+    public EngineOptions environment(String name, Object value) {
+        if (value != null) {
+            environment.put(name, value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Sets the system properties not already set, and warns about environment variables that do not have the
+     * expected value. Must be called before any engine or model is loaded.
+     */
+    public void apply() {
+        for (Map.Entry<String, String> option : systemProperties.entrySet()) {
+            String current = System.getProperty(option.getKey());
+            if (current == null) {
+                System.setProperty(option.getKey(), option.getValue());
+                LOG.debug("Set engine option {}={}", option.getKey(), option.getValue());
+            } else if (!current.equals(option.getValue())) {
+                LOG.warn("Engine option {}={} is overridden by the system property set to {}", option.getKey(),
+                        option.getValue(), current);
+            }
+        }
+        for (Map.Entry<String, String> option : environment.entrySet()) {
+            String current = System.getenv(option.getKey());
+            if (!option.getValue().equals(current)) {
+                LOG.warn("Engine option {}={} is read from the environment when the native library is loaded and "
+                        + "cannot be applied by the application, set it in the environment of the process "
+                        + "(currently {})", option.getKey(), option.getValue(), current == null ? "unset" : current);
+            }
+        }
+    }
+
+    /**
+     * Describes how many threads the engines may run, given the number of forward passes the predictor pools allow
+     * at once, and whether that oversubscribes the cores.
+     *
+     * @param models the served models
+     * @return a multi-line report
+     */
+    public static String describeThreadLayout(Collection<ServedModel> models) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        var sb = new StringBuilder("DJL thread layout on ").append(cores).append(" cores:");
+        sb.append("\n  ").append(OMP_NUM_THREADS).append('=').append(envOrUnset(OMP_NUM_THREADS))
+                .append(", ").append(MKL_NUM_THREADS).append('=').append(envOrUnset(MKL_NUM_THREADS));
+        long threads = 0;
+        for (ServedModel model : models) {
+            String engine = model.getEngine();
+            PredictorPool<?, ?> pool = model.getPredictorPool();
+            int forwardPasses = pool != null ? pool.getMaxSize() : 1;
+            int intraOp = intraOpThreads(model, cores);
+            threads += (long) forwardPasses * intraOp;
+            sb.append("\n  model '").append(model.getName()).append("' on ").append(engine).append(": ")
+                    .append(forwardPasses).append(" concurrent forward passes x ").append(intraOp)
+                    .append(" intra-op threads");
+            String interOp = interOpThreads(model, cores);
+            if (interOp != null) {
+                sb.append(", ").append(interOp).append(" inter-op threads");
+            }
+        }
+        sb.append("\n  up to ").append(threads).append(" compute threads");
+        if (threads > cores) {
+            sb.append(String.format(Locale.ROOT, ", %.1fx oversubscribed: lower the intra-op threads of the engine "
+                    + "or the max size of the predictor pools", (double) threads / cores));
+        }
+        return sb.toString();
+    }
+
+    private static int intraOpThreads(ServedModel model, int cores) {
+        String threads;
+        switch (model.getEngine()) {
+            case "PyTorch":
+                threads = System.getProperty(PYTORCH_NUM_THREADS, System.getenv(OMP_NUM_THREADS));
+                break;
+            case "TensorFlow":
+                threads = System.getProperty(TENSORFLOW_NUM_INTRAOP_THREADS);
+                break;
+            case "OnnxRuntime":
+                // session options are set per model
+                Integer intraOp = model.getProperties().getOnnxruntime().getIntraOpNumThreads();
+                threads = intraOp != null ? intraOp.toString() : null;
+                break;
+            default:
+                threads = System.getenv(OMP_NUM_THREADS);
+                break;
+        }
+        return parse(threads, cores);
+    }
+
+    private static String interOpThreads(ServedModel model, int cores) {
+        switch (model.getEngine()) {
+            case "PyTorch":
+                return String.valueOf(parse(System.getProperty(PYTORCH_NUM_INTEROP_THREADS), cores));
+            case "TensorFlow":
+                return String.valueOf(parse(System.getProperty(TENSORFLOW_NUM_INTEROP_THREADS), cores));
+            case "OnnxRuntime":
+                var ort = model.getProperties().getOnnxruntime();
+                if (ort.getExecutionMode() != ModelProperties.OnnxRuntime.ExecutionMode.PARALLEL) {
+                    return null;
+                }
+                return String.valueOf(ort.getInterOpNumThreads() != null ? ort.getInterOpNumThreads() : cores);
+            case "MXNet":
+                // MXNet runs operators on its CPU worker threads rather than an inter-op pool
+                return String.valueOf(parse(System.getenv(MXNET_CPU_WORKER_NTHREADS), 1));
+            default:
+                return null;
+        }
+    }
+
+    private static int parse(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static String envOrUnset(String name) {
+        String value = System.getenv(name);
+        return value != null ? value : "unset";
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import ai.djl.Device;
+import ai.djl.inference.Predictor;
+import ai.djl.inference.streaming.StreamingTranslator;
+import ai.djl.metric.Metrics;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.TranslateException;
+import ai.djl.translate.Translator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ZooModel} that is loaded the first time it is used.
+ *
+ * <p>
+ * Concurrent first callers share a single load. When an idle timeout is set, the model is closed once it has not been
+ * used for that long, no predictor created from it is still open and nothing reports it as in use, and it is loaded
+ * again on the next call. Each prediction of an open predictor counts as a use.
+ *
+ * @param <I> the model input type
+ * @param <O> the model output type
+ */
+public class LazyZooModel<I, O> extends DelegatingZooModel<I, O> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyZooModel.class);
+
+    private final String name;
+    private final Callable<? extends ZooModel<?, ?>> loader;
+    private final Duration idleTimeout;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService reaper;
+    private final AtomicInteger openPredictors = new AtomicInteger();
+
+    private volatile CompletableFuture<ZooModel<I, O>> model;
+    private volatile long lastAccess = System.nanoTime();
+    private volatile BooleanSupplier inUse = () -> false;
+
+    /**
+     * Creates a model that is loaded on first use.
+     *
+     * @param name the name used for logging and for the idle reaper thread
+     * @param loader loads the model
+     * @param idleTimeout time after which an unused model is closed, {@code null}, zero or negative to keep it loaded
+     */
+    public LazyZooModel(String name, Callable<? extends ZooModel<?, ?>> loader, Duration idleTimeout) {
+        this.name = name;
+        this.loader = loader;
+        this.idleTimeout = idleTimeout;
+        if (idleTimeout != null && !idleTimeout.isZero() && !idleTimeout.isNegative()) {
+            long period = Math.max(idleTimeout.toMillis() / 2, 1);
+            reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "djl-lazy-model-reaper-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            reaper.scheduleWithFixedDelay(this::unloadIfIdle, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            reaper = null;
+        }
+    }
+
+    /**
+     * Sets a check that keeps the model loaded while it is in use in a way predictors do not show.
+     *
+     * @param inUse returns {@code true} while the model must not be unloaded
+     */
+    public void setInUse(BooleanSupplier inUse) {
+        this.inUse = inUse;
+    }
+
+    /**
+     * @return the number of predictors created from this model and not closed yet
+     */
+    public int getOpenPredictorCount() {
+        return openPredictors.get();
+    }
+
+    /**
+     * @return whether the model is currently loaded
+     */
+    public boolean isLoaded() {
+        var future = model;
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    @Override
+    protected ZooModel<I, O> getDelegate() {
+        lastAccess = System.nanoTime();
+        var future = model;
+        if (future == null) {
+            future = new CompletableFuture<>();
+            boolean owner;
+            synchronized (this) {
+                owner = model == null;
+                if (owner) {
+                    model = future;
+                } else {
+                    future = model;
+                }
+            }
+            if (owner) {
+                load(future);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Model " + name + " failed to load", e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(CompletableFuture<ZooModel<I, O>> future) {
+        LOG.info("Loading model {} on first use", name);
+        try {
+            future.complete((ZooModel<I, O>) loader.call());
+        } catch (Throwable e) {
+            // let the next caller try again
+            synchronized (this) {
+                if (model == future) {
+                    model = null;
+                }
+            }
+            future.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public Predictor<I, O> newPredictor() {
+        lock.readLock().lock();
+        try {
+            ZooModel<I, O> delegate = getDelegate();
+            return new LazyPredictor<>(delegate, delegate.getNDManager().getDevice(), delegate.newPredictor());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Predictor<I, O> newPredictor(Device device) {
+        lock.readLock().lock();
+        try {
+            ZooModel<I, O> delegate = getDelegate();
+            return new LazyPredictor<>(delegate, device, delegate.newPredictor(device));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <P, Q> Predictor<P, Q> newPredictor(Translator<P, Q> translator, Device device) {
+        lock.readLock().lock();
+        try {
+            ZooModel<I, O> delegate = getDelegate();
+            return new LazyPredictor<>(delegate, device, delegate.newPredictor(translator, device));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isIdle() {
+        return isLoaded() && System.nanoTime() - lastAccess >= idleTimeout.toNanos() && openPredictors.get() == 0
+                && !inUse.getAsBoolean();
+    }
+
+    private void unloadIfIdle() {
+        if (!isIdle()) {
+            return;
+        }
+        if (!lock.writeLock().tryLock()) {
+            return;
+        }
+        ZooModel<I, O> loaded;
+        try {
+            synchronized (this) {
+                // check again, a caller may have created a predictor or used the model in the meantime
+                if (!isIdle()) {
+                    return;
+                }
+                loaded = model.join();
+                model = null;
+            }
+            loaded.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Unloaded model {} after being idle for {}", name, idleTimeout);
+    }
+
+    @Override
+    public void close() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        CompletableFuture<ZooModel<I, O>> future;
+        synchronized (this) {
+            future = model;
+            model = null;
+        }
+        if (future != null) {
+            future.thenAccept(ZooModel::close);
+        }
+    }
+
+    /**
+     * A predictor of the loaded model, keeping it loaded until closed. Its own manager is an empty sub-manager of the
+     * model, the calls run on the predictor of the model.
+     */
+    private final class LazyPredictor<P, Q> extends Predictor<P, Q> {
+
+        private final Predictor<P, Q> predictor;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        LazyPredictor(ZooModel<I, O> model, Device device, Predictor<P, Q> predictor) {
+            super(model, null, device, false);
+            this.predictor = predictor;
+            openPredictors.incrementAndGet();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Q predict(P input) throws TranslateException {
+            lastAccess = System.nanoTime();
+            return predictor.predict(input);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<Q> batchPredict(List<P> inputs) throws TranslateException {
+            lastAccess = System.nanoTime();
+            return predictor.batchPredict(inputs);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public StreamingTranslator.StreamOutput<Q> streamingPredict(P input) throws TranslateException {
+            lastAccess = System.nanoTime();
+            return predictor.streamingPredict(input);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean supportsStreaming() {
+            return predictor.supportsStreaming();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void setMetrics(Metrics metrics) {
+            predictor.setMetrics(metrics);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                predictor.close();
+                super.close();
+                lastAccess = System.nanoTime();
+                openPredictors.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import ai.djl.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local directory DJL downloads models and engine native libraries to.
+ *
+ * <p>
+ * After the models have been pre-fetched into the cache, {@link #writeManifest()} records every cached file with its
+ * size. {@link #verify()} checks the cache against that manifest at startup, so that an incomplete cache is detected
+ * before any model is loaded rather than by a download attempt in a network-isolated environment.
+ */
+public class ModelCache {
+
+    /**
+     * Name of the manifest file written to the root of the cache directory.
+     */
+    public static final String MANIFEST = "djl-cache.manifest";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelCache.class);
+
+    private final Path directory;
+
+    /**
+     * Creates a cache.
+     *
+     * @param directory the cache directory, {@code null} for the DJL default
+     */
+    public ModelCache(Path directory) {
+        this.directory = directory != null ? directory.toAbsolutePath() : Utils.getCacheDir();
+    }
+
+    /**
+     * Makes DJL use this cache. Must be called before any engine or model is loaded.
+     *
+     * @param offline whether DJL must only use cached files and never access the network
+     */
+    public void apply(boolean offline) {
+        System.setProperty("DJL_CACHE_DIR", directory.toString());
+        if (offline) {
+            System.setProperty("ai.djl.offline", "true");
+        }
+        LOG.info("Using DJL cache directory {}{}", directory, offline ? " in offline mode" : "");
+    }
+
+    /**
+     * @return the cache directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Records all files currently in the cache, with their sizes, in the manifest.
+     *
+     * @return the manifest file
+     * @throws IOException if the cache cannot be read or the manifest cannot be written
+     */
+    public Path writeManifest() throws IOException {
+        Properties manifest = new Properties();
+        listFiles().forEach((file, size) -> manifest.setProperty(file, String.valueOf(size)));
+        Path file = directory.resolve(MANIFEST);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            manifest.store(os, "DJL model cache manifest");
+        }
+        LOG.info("Recorded {} cached files in {}", manifest.size(), file);
+        return file;
+    }
+
+    /**
+     * Checks that every file recorded in the manifest is present in the cache with the recorded size.
+     *
+     * @return the problems found, empty if the cache is complete
+     * @throws IOException if the cache cannot be read
+     */
+    public List<String> verify() throws IOException {
+        Path file = directory.resolve(MANIFEST);
+        if (!Files.isRegularFile(file)) {
+            return List.of("Manifest " + file + " not found, the cache has not been pre-fetched");
+        }
+        Properties manifest = new Properties();
+        try (InputStream is = Files.newInputStream(file)) {
+            manifest.load(is);
+        }
+        Map<String, Long> files = listFiles();
+        List<String> problems = new ArrayList<>();
+        for (String name : new TreeSet<>(manifest.stringPropertyNames())) {
+            long expected = Long.parseLong(manifest.getProperty(name));
+            Long actual = files.get(name);
+            if (actual == null) {
+                problems.add("Missing cached file " + name);
+            } else if (actual != expected) {
+                problems.add("Cached file " + name + " has " + actual + " bytes, expected " + expected);
+            }
+        }
+        return problems;
+    }
+
+    private Map<String, Long> listFiles() throws IOException {
+        Map<String, Long> files = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) stream::iterator) {
+                if (Files.isRegularFile(path) && !path.getFileName().toString().equals(MANIFEST)) {
+                    // forward slashes keep the manifest portable between build and runtime platforms
+                    String name = directory.relativize(path).toString().replace('\\', '/');
+                    files.put(name, Files.size(path));
+                }
+            }
+        }
+        return files;
+    }
+}
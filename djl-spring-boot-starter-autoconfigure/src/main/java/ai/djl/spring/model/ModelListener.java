@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.time.Duration;
+
+import ai.djl.inference.Predictor;
+
+/**
+ * Receives lifecycle and inference events of the models registered in a {@link ModelRegistry}.
+ *
+ * <p>
+ * Beans implementing this interface are picked up by the auto-configuration. Inference events are delivered on the
+ * inference path and must be handled quickly.
+ */
+public interface ModelListener {
+
+    /**
+     * Called when a model is registered, before it is loaded.
+     *
+     * @param model the served model
+     */
+    default void onModelRegistered(ServedModel model) {
+    }
+
+    /**
+     * Called when a model has been loaded.
+     *
+     * @param model the served model
+     * @param duration the time loading took
+     */
+    default void onModelLoaded(ServedModel model, Duration duration) {
+    }
+
+    /**
+     * Called when a model failed to load.
+     *
+     * @param model the served model
+     * @param error the failure
+     */
+    default void onModelLoadFailed(ServedModel model, Throwable error) {
+    }
+
+    /**
+     * Called when a new predictor has been created for the model.
+     *
+     * @param model the served model
+     * @param predictor the predictor
+     */
+    default void onPredictorCreated(ServedModel model, Predictor<?, ?> predictor) {
+    }
+
+    /**
+     * Called after a successful prediction.
+     *
+     * @param model the served model
+     * @param items the number of inputs predicted
+     * @param nanos the time the prediction took, in nanoseconds
+     */
+    default void onPrediction(ServedModel model, int items, long nanos) {
+    }
+
+    /**
+     * Called when a batch is dispatched for the model.
+     *
+     * @param model the served model
+     * @param size the number of inputs in the batch
+     */
+    default void onBatch(ServedModel model, int size) {
+    }
+
+    /**
+     * Called when a scheduled request of the model is taken out of the queue to run.
+     *
+     * @param model the served model
+     * @param priority the priority class of the request
+     * @param nanos the time the request waited in the queue, in nanoseconds
+     */
+    default void onQueueWait(ServedModel model, String priority, long nanos) {
+    }
+
+    /**
+     * Called when a scheduled request of the model is dropped because its deadline passed.
+     *
+     * @param model the served model
+     * @param priority the priority class of the request
+     */
+    default void onExpired(ServedModel model, String priority) {
+    }
+
+    /**
+     * Called when a prediction failed.
+     *
+     * @param model the served model
+     * @param error the failure
+     */
+    default void onError(ServedModel model, Throwable error) {
+    }
+}
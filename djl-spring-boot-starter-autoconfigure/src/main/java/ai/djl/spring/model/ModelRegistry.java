@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ai.djl.spring.configuration.ModelProperties;
+
+/**
+ * Keeps track of the models served by the application, by name.
+ *
+ * <p>
+ * The single model configured under {@code djl.*} is registered as {@value #DEFAULT_MODEL_NAME}, named models under
+ * their key in {@code djl.models}.
+ */
+public class ModelRegistry {
+
+    /**
+     * Name of the model configured directly under {@code djl.*}.
+     */
+    public static final String DEFAULT_MODEL_NAME = "default";
+
+    private final Map<String, ServedModel> models = new LinkedHashMap<>();
+    private final List<ModelListener> listeners;
+
+    /**
+     * Creates a new registry.
+     *
+     * @param listeners the listeners notified of the events of every registered model
+     */
+    public ModelRegistry(List<ModelListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    /**
+     * Registers a model, unless a model with the same name is already registered.
+     *
+     * @param name the name of the model
+     * @param properties the properties the model is loaded from
+     * @return the registered model
+     */
+    public ServedModel register(String name, ModelProperties properties) {
+        ServedModel model;
+        synchronized (models) {
+            model = models.get(name);
+            if (model != null) {
+                return model;
+            }
+            model = new ServedModel(name, properties, listeners);
+            models.put(name, model);
+        }
+        for (ModelListener listener : listeners) {
+            listener.onModelRegistered(model);
+        }
+        return model;
+    }
+
+    /**
+     * @param name the name of the model
+     * @return the model registered under the name
+     * @throws IllegalArgumentException if no model is registered under the name
+     */
+    public ServedModel get(String name) {
+        synchronized (models) {
+            var model = models.get(name);
+            if (model == null) {
+                throw new IllegalArgumentException("No model named " + name);
+            }
+            return model;
+        }
+    }
+
+    /**
+     * @return the registered models, in registration order
+     */
+    public Collection<ServedModel> getModels() {
+        synchronized (models) {
+            return Collections.unmodifiableList(new ArrayList<>(models.values()));
+        }
+    }
+}
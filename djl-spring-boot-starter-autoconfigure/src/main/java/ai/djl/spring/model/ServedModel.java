@@ -0,0 +1,542 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import ai.djl.Device;
+import ai.djl.engine.Engine;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.inference.AdaptiveConcurrencyLimiter;
+import ai.djl.spring.inference.BatchingPredictor;
+import ai.djl.spring.inference.CachingPredictor;
+import ai.djl.spring.inference.InferenceObserver;
+import ai.djl.spring.inference.InferenceScheduler;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.util.cuda.CudaUtils;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * A model served by the application, together with the components built on it and its load and inference
+ * statistics.
+ *
+ * <p>
+ * Served models are created by {@link ModelRegistry#register(String, ModelProperties)}. They observe the inference
+ * events of their predictor pool and forward them, with the model as context, to the registry's
+ * {@link ModelListener}s.
+ */
+public class ServedModel implements InferenceObserver {
+
+    /**
+     * Load state of a served model.
+     */
+    public enum State {
+        /** The model has not been loaded yet, or a lazy model has been unloaded. */
+        NOT_LOADED,
+        /** The model is being loaded. */
+        LOADING,
+        /** The model is loaded. */
+        LOADED,
+        /** The last attempt to load the model failed. */
+        FAILED
+    }
+
+    private final String name;
+    private final ModelProperties properties;
+    private final List<ModelListener> listeners;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final LongAdder predictions = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder predictionNanos = new LongAdder();
+    private final LongAdder predictorsCreated = new LongAdder();
+    private final LongAdder predictorsClosed = new LongAdder();
+    private final LongAdder predictorsLeaked = new LongAdder();
+
+    private volatile ZooModel<?, ?> model;
+    private volatile PredictorPool<?, ?> predictorPool;
+    private volatile BatchingPredictor<?, ?> batchingPredictor;
+    private volatile CachingPredictor<?, ?> cachingPredictor;
+    private volatile InferenceScheduler<?, ?> inferenceScheduler;
+    private volatile String engine;
+    private volatile Parameters parameters;
+
+    private volatile State state = State.NOT_LOADED;
+    private volatile long loadStarted;
+    private volatile Duration loadDuration;
+    private volatile Instant loadedAt;
+    private volatile Throwable loadError;
+
+    ServedModel(String name, ModelProperties properties, List<ModelListener> listeners) {
+        this.name = name;
+        this.properties = properties;
+        this.listeners = listeners;
+        var limiter = properties.getLimiter();
+        this.concurrencyLimiter = limiter.isEnabled() ? new AdaptiveConcurrencyLimiter(limiter.getInitialLimit(),
+                limiter.getMinLimit(), limiter.getMaxLimit(), limiter.getTolerance(), limiter.getSmoothing(),
+                limiter.getLongWindow()) : null;
+    }
+
+    /**
+     * Records that loading the model started.
+     */
+    public void loadStarted() {
+        loadStarted = System.nanoTime();
+        parameters = null;
+        state = State.LOADING;
+    }
+
+    /**
+     * Records that the model was loaded.
+     */
+    public void loadSucceeded() {
+        var duration = Duration.ofNanos(System.nanoTime() - loadStarted);
+        loadDuration = duration;
+        loadedAt = Instant.now();
+        loadError = null;
+        state = State.LOADED;
+        for (ModelListener listener : listeners) {
+            listener.onModelLoaded(this, duration);
+        }
+    }
+
+    /**
+     * Records that loading the model failed.
+     *
+     * @param error the failure
+     */
+    public void loadFailed(Throwable error) {
+        loadDuration = Duration.ofNanos(System.nanoTime() - loadStarted);
+        loadError = error;
+        state = State.FAILED;
+        for (ModelListener listener : listeners) {
+            listener.onModelLoadFailed(this, error);
+        }
+    }
+
+    @Override
+    public void onPredictorCreated(Predictor<?, ?> predictor) {
+        predictorsCreated.increment();
+        for (ModelListener listener : listeners) {
+            listener.onPredictorCreated(this, predictor);
+        }
+    }
+
+    @Override
+    public void onPredictorClosed() {
+        predictorsClosed.increment();
+    }
+
+    @Override
+    public void onPredictorLeaked(Throwable allocationSite) {
+        predictorsLeaked.increment();
+    }
+
+    @Override
+    public void onPrediction(int count, long nanos) {
+        predictions.increment();
+        items.add(count);
+        predictionNanos.add(nanos);
+        for (ModelListener listener : listeners) {
+            listener.onPrediction(this, count, nanos);
+        }
+    }
+
+    @Override
+    public void onBatch(int size) {
+        for (ModelListener listener : listeners) {
+            listener.onBatch(this, size);
+        }
+    }
+
+    @Override
+    public void onQueueWait(String priority, long nanos) {
+        for (ModelListener listener : listeners) {
+            listener.onQueueWait(this, priority, nanos);
+        }
+    }
+
+    @Override
+    public void onExpired(String priority) {
+        for (ModelListener listener : listeners) {
+            listener.onExpired(this, priority);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        errors.increment();
+        for (ModelListener listener : listeners) {
+            listener.onError(this, error);
+        }
+    }
+
+    /**
+     * @return the name the model is registered under
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the properties the model is loaded from
+     */
+    public ModelProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the name of the engine running the model, without loading it. This is the configured engine, or the
+     * default engine when none is configured.
+     *
+     * @return the engine name, or {@code unknown} when no engine is available
+     */
+    public String getEngine() {
+        if (engine == null) {
+            String configured = properties.getEngine();
+            String resolved;
+            if (StringUtils.hasText(configured)) {
+                resolved = configured;
+            } else {
+                try {
+                    resolved = Engine.getDefaultEngineName();
+                } catch (RuntimeException e) {
+                    resolved = null;
+                }
+            }
+            engine = resolved != null ? resolved : "unknown";
+        }
+        return engine;
+    }
+
+    /**
+     * @return the model bean, possibly a lazy or asynchronous proxy, or {@code null} before the bean is created
+     */
+    public ZooModel<?, ?> getModel() {
+        return model;
+    }
+
+    /**
+     * @param model the model bean
+     */
+    public void setModel(ZooModel<?, ?> model) {
+        this.model = model;
+    }
+
+    /**
+     * @return the predictor pool of the model, or {@code null} if none was created
+     */
+    public PredictorPool<?, ?> getPredictorPool() {
+        return predictorPool;
+    }
+
+    /**
+     * Sets the predictor pool of the model and starts observing it.
+     *
+     * @param predictorPool the predictor pool
+     */
+    public void setPredictorPool(PredictorPool<?, ?> predictorPool) {
+        this.predictorPool = predictorPool;
+        predictorPool.setObserver(this);
+        predictorPool.setConcurrencyLimiter(concurrencyLimiter);
+    }
+
+    /**
+     * @return the batching predictor of the model, or {@code null} if batching is disabled
+     */
+    public BatchingPredictor<?, ?> getBatchingPredictor() {
+        return batchingPredictor;
+    }
+
+    /**
+     * Sets the batching predictor of the model and starts observing it.
+     *
+     * @param batchingPredictor the batching predictor
+     */
+    public void setBatchingPredictor(BatchingPredictor<?, ?> batchingPredictor) {
+        this.batchingPredictor = batchingPredictor;
+        batchingPredictor.setObserver(this);
+    }
+
+    /**
+     * @return the caching predictor of the model, or {@code null} if result caching is disabled
+     */
+    public CachingPredictor<?, ?> getCachingPredictor() {
+        return cachingPredictor;
+    }
+
+    /**
+     * @param cachingPredictor the caching predictor of the model
+     */
+    public void setCachingPredictor(CachingPredictor<?, ?> cachingPredictor) {
+        this.cachingPredictor = cachingPredictor;
+    }
+
+    /**
+     * @return the concurrency limiter shared by the predictors of the model, or {@code null} if limiting is disabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return the inference scheduler of the model, or {@code null} if scheduling is disabled
+     */
+    public InferenceScheduler<?, ?> getInferenceScheduler() {
+        return inferenceScheduler;
+    }
+
+    /**
+     * @param inferenceScheduler the inference scheduler of the model
+     */
+    public void setInferenceScheduler(InferenceScheduler<?, ?> inferenceScheduler) {
+        this.inferenceScheduler = inferenceScheduler;
+        inferenceScheduler.setObserver(this);
+    }
+
+    /**
+     * @return the load state of the model
+     */
+    public State getState() {
+        if (state == State.LOADED && model instanceof LazyZooModel && !((LazyZooModel<?, ?>) model).isLoaded()) {
+            return State.NOT_LOADED;
+        }
+        return state;
+    }
+
+    /**
+     * @return how long the last load took, or {@code null} if the model was never loaded
+     */
+    public Duration getLoadDuration() {
+        return loadDuration;
+    }
+
+    /**
+     * @return when the model was last loaded, or {@code null} if it was never loaded
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * @return the failure of the last load, or {@code null} if it succeeded
+     */
+    public Throwable getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * Returns the size of the model parameters, which are held in native memory by the engine. Memory the engine
+     * allocates for intermediate results is not included.
+     *
+     * @return the size of the initialized parameters in bytes, or {@code -1} if the model is not loaded or its
+     *         parameters cannot be inspected
+     */
+    public long getParameterBytes() {
+        ZooModel<?, ?> current = model;
+        if (current == null || getState() != State.LOADED) {
+            return -1;
+        }
+        return getParameters(current).bytes;
+    }
+
+    /**
+     * Returns the number of NDArrays held by the model's manager and its sub-managers, which include the predictors.
+     * A count that keeps growing under steady load means arrays are leaking.
+     *
+     * @return the number of open arrays, or {@code -1} if the model is not loaded or its manager cannot be inspected
+     */
+    public int getLiveArrayCount() {
+        List<NDArray> arrays = getLiveArrays();
+        return arrays != null ? arrays.size() : -1;
+    }
+
+    /**
+     * Returns the native memory held by the NDArrays of the model's manager and its sub-managers, which include the
+     * model parameters and the predictors.
+     *
+     * @return the size of the open arrays in bytes, or {@code -1} if the model is not loaded or its manager cannot be
+     *         inspected
+     */
+    public long getLiveArrayBytes() {
+        List<NDArray> arrays = getLiveArrays();
+        if (arrays == null) {
+            return -1;
+        }
+        long bytes = 0;
+        for (NDArray array : arrays) {
+            if (!array.isReleased()) {
+                bytes += array.getShape().size() * array.getDataType().getNumOfBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the native memory held by the NDArrays of the model's manager and its sub-managers, like
+     * {@link #getLiveArrayBytes()}, but cheaper to sample: the parameters are measured once per loaded model, and only
+     * the other arrays, those of the predictions, are measured on each call.
+     *
+     * @return the size of the open arrays in bytes, or {@code -1} if the model is not loaded or its manager cannot be
+     *         inspected
+     */
+    public long getNativeArrayBytes() {
+        ZooModel<?, ?> current = model;
+        List<NDArray> arrays = getLiveArrays();
+        if (current == null || arrays == null) {
+            // a lazy model may have been unloaded, its parameters must not be held
+            parameters = null;
+            return -1;
+        }
+        Parameters loaded = getParameters(current);
+        long bytes = Math.max(loaded.bytes, 0);
+        for (NDArray array : arrays) {
+            if (!loaded.arrays.contains(array) && !array.isReleased()) {
+                bytes += array.getShape().size() * array.getDataType().getNumOfBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private Parameters getParameters(ZooModel<?, ?> current) {
+        NDManager manager = current.getNDManager();
+        Parameters loaded = parameters;
+        if (loaded == null || loaded.manager != manager) {
+            loaded = new Parameters(current, manager);
+            parameters = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the memory usage the engine reports for the device of the model, the whole device and not only this
+     * model. Only CUDA devices report their memory.
+     *
+     * @return the memory usage of the device, or {@code null} if the model is not loaded or its device does not report
+     *         its memory
+     */
+    public MemoryUsage getDeviceMemory() {
+        ZooModel<?, ?> current = model;
+        if (current == null || getState() != State.LOADED) {
+            return null;
+        }
+        Device device = current.getNDManager().getDevice();
+        if (!device.isGpu()) {
+            return null;
+        }
+        try {
+            return CudaUtils.getGpuMemory(device);
+        } catch (RuntimeException e) {
+            // CUDA is not available to the application
+            return null;
+        }
+    }
+
+    private List<NDArray> getLiveArrays() {
+        ZooModel<?, ?> current = model;
+        if (current == null || getState() != State.LOADED) {
+            return null;
+        }
+        var manager = current.getNDManager();
+        if (!(manager instanceof BaseNDManager)) {
+            return null;
+        }
+        return ((BaseNDManager) manager).getManagedArrays();
+    }
+
+    /**
+     * The parameters of a loaded model, measured once. A reloaded model has a new manager.
+     */
+    private static final class Parameters {
+
+        private final NDManager manager;
+        private final Set<NDArray> arrays = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final long bytes;
+
+        private Parameters(ZooModel<?, ?> model, NDManager manager) {
+            this.manager = manager;
+            long size = 0;
+            try {
+                for (var entry : model.getBlock().getParameters()) {
+                    var parameter = entry.getValue();
+                    if (parameter.isInitialized()) {
+                        var array = parameter.getArray();
+                        arrays.add(array);
+                        size += array.getShape().size() * array.getDataType().getNumOfBytes();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // some engines do not expose the parameters of imported models
+                arrays.clear();
+                size = -1;
+            }
+            this.bytes = size;
+        }
+    }
+
+    /**
+     * @return the number of predictors created and not yet closed or reported as leaked
+     */
+    public long getOpenPredictorCount() {
+        return predictorsCreated.sum() - predictorsClosed.sum() - predictorsLeaked.sum();
+    }
+
+    /**
+     * @return the number of predictors garbage collected without being closed
+     */
+    public long getLeakedPredictorCount() {
+        return predictorsLeaked.sum();
+    }
+
+    /**
+     * @return the number of successful {@code predict} and {@code batchPredict} calls
+     */
+    public long getPredictionCount() {
+        return predictions.sum();
+    }
+
+    /**
+     * @return the number of inputs predicted successfully
+     */
+    public long getItemCount() {
+        return items.sum();
+    }
+
+    /**
+     * @return the number of failed predictions
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the total time spent in successful predictions
+     */
+    public Duration getPredictionTime() {
+        return Duration.ofNanos(predictionNanos.sum());
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import ai.djl.modality.Output;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.spring.inference.BatchingPredictor;
+import ai.djl.spring.inference.ConcurrencyLimitExceededException;
+import ai.djl.spring.inference.NativeMemoryExhaustedException;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.inference.PredictorPoolExhaustedException;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+import ai.djl.translate.TranslateException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Serves the models of the {@link ModelRegistry} over HTTP at {@code POST /djl/predict/{model}}.
+ *
+ * <p>
+ * A raw body is a single input and a {@code multipart/form-data} body is a batch, one input per part in order. Bodies
+ * are read straight into the input as described in {@link InferencePayloads}, with no intermediate JSON or base64.
+ * Inputs go through the batching predictor of the model when batching is enabled, so they are batched with the
+ * inputs of concurrent requests; otherwise they run on the predictor pool, a multipart batch as one batch prediction.
+ * The {@code Server-Timing} header of the response reports the time spent reading the inputs and predicting.
+ */
+@RestController
+public class InferenceController {
+
+    private static final MediaType NDLIST_TYPE = MediaType.valueOf(InferencePayloads.NDLIST);
+
+    private final ModelRegistry modelRegistry;
+
+    /**
+     * @param modelRegistry the registry of served models
+     */
+    public InferenceController(ModelRegistry modelRegistry) {
+        this.modelRegistry = modelRegistry;
+    }
+
+    /**
+     * Runs a prediction on the body of the request.
+     *
+     * @param name the name of the model
+     * @param request the request, whose body holds the input or a multipart batch of inputs
+     * @param response the response the outputs are written to
+     * @throws IOException if the response cannot be written
+     */
+    @PostMapping("${djl.web.path:/djl/predict}/{model}")
+    public void predict(@PathVariable("model") String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ServedModel served = find(name);
+        Class<?> inputClass = served.getProperties().getInputClass();
+        if (inputClass == null || !InferencePayloads.isSupported(inputClass)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Model " + name + " takes inputs that cannot be read from a request body");
+        }
+        if (served.getState() == ServedModel.State.LOADING || served.getState() == ServedModel.State.FAILED) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Model " + name + " is " + served.getState().name().toLowerCase(Locale.ROOT));
+        }
+        boolean batch = request instanceof MultipartHttpServletRequest;
+        NDManager manager = inputClass == NDList.class ? served.getModel().getNDManager().newSubManager() : null;
+        try {
+            long begin = System.nanoTime();
+            List<Object> inputs = batch ? decodeParts((MultipartHttpServletRequest) request, inputClass, manager)
+                    : List.of(decode(inputClass, request, manager));
+            long decoded = System.nanoTime();
+            List<Object> outputs = predict(served, inputs, batch);
+            long predicted = System.nanoTime();
+            try {
+                response.setHeader("Server-Timing", String.format(Locale.ROOT, "decode;dur=%.3f, predict;dur=%.3f",
+                        (decoded - begin) / 1e6, (predicted - decoded) / 1e6));
+                if (batch) {
+                    response.setContentType(InferencePayloads.batchContentType(outputs));
+                    InferencePayloads.encodeBatch(outputs, response.getOutputStream());
+                } else {
+                    Object output = outputs.get(0);
+                    if (output instanceof Output) {
+                        response.setStatus(((Output) output).getCode());
+                    }
+                    response.setContentType(InferencePayloads.contentType(output));
+                    InferencePayloads.encode(output, response.getOutputStream());
+                }
+            } finally {
+                for (Object output : outputs) {
+                    if (output instanceof NDList) {
+                        ((NDList) output).close();
+                    }
+                }
+            }
+        } finally {
+            if (manager != null) {
+                manager.close();
+            }
+        }
+    }
+
+    private ServedModel find(String name) {
+        try {
+            return modelRegistry.get(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
+    private static Object decode(Class<?> inputClass, HttpServletRequest request, NDManager manager) {
+        checkContentType(inputClass, request.getContentType());
+        try {
+            return InferencePayloads.decode(inputClass, request.getInputStream(), request.getContentType(), manager);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read the input: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Object> decodeParts(MultipartHttpServletRequest request, Class<?> inputClass,
+            NDManager manager) {
+        Collection<Part> parts;
+        try {
+            // in the order of the request, the multipart file map groups the parts by name
+            parts = request.getParts();
+        } catch (IOException | ServletException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read the parts: " + e.getMessage(), e);
+        }
+        List<Object> inputs = new ArrayList<>(parts.size());
+        for (Part part : parts) {
+            checkContentType(inputClass, part.getContentType());
+            try {
+                inputs.add(InferencePayloads.decode(inputClass, part.getInputStream(), part.getContentType(), manager));
+            } catch (IOException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cannot read part " + part.getName() + ": " + e.getMessage(), e);
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The multipart request has no parts");
+        }
+        return inputs;
+    }
+
+    private static void checkContentType(Class<?> inputClass, String contentType) {
+        if (contentType == null || inputClass == NDList.class) {
+            return;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage(), e);
+        }
+        // the content type may carry parameters
+        if (NDLIST_TYPE.equalsTypeAndSubtype(mediaType)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "The model takes " + inputClass.getSimpleName() + " inputs, not " + InferencePayloads.NDLIST);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I, O> List<O> predict(ServedModel served, List<I> inputs, boolean batch) {
+        try {
+            var batching = (BatchingPredictor<I, O>) served.getBatchingPredictor();
+            if (batching != null) {
+                List<CompletableFuture<O>> futures = new ArrayList<>(inputs.size());
+                for (I input : inputs) {
+                    futures.add(batching.predict(input));
+                }
+                List<O> outputs = new ArrayList<>(inputs.size());
+                for (CompletableFuture<O> future : futures) {
+                    outputs.add(future.join());
+                }
+                return outputs;
+            }
+            var pool = (PredictorPool<I, O>) served.getPredictorPool();
+            if (pool == null) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Model " + served.getName() + " has no predictor pool");
+            }
+            return batch ? pool.batchPredict(inputs) : Collections.singletonList(pool.predict(inputs.get(0)));
+        } catch (CompletionException e) {
+            throw toStatus(e.getCause() != null ? e.getCause() : e);
+        } catch (TranslateException | RuntimeException e) {
+            throw toStatus(e);
+        }
+    }
+
+    private static RuntimeException toStatus(Throwable error) {
+        if (error instanceof ResponseStatusException) {
+            return (ResponseStatusException) error;
+        }
+        if (error instanceof ConcurrencyLimitExceededException) {
+            return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, error.getMessage(), error);
+        }
+        if (error instanceof PredictorPoolExhaustedException || error instanceof NativeMemoryExhaustedException
+                || error instanceof RejectedExecutionException) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, error.getMessage(), error);
+        }
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Prediction failed: "
+                + error.getMessage(), error);
+    }
+}
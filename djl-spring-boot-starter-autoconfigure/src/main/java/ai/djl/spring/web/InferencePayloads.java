@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import ai.djl.modality.Input;
+import ai.djl.modality.Output;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.BytesSupplier;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.util.JsonSerializable;
+import ai.djl.util.JsonUtils;
+
+/**
+ * Reads model inputs from request bodies and writes model outputs to response bodies, without going through base64
+ * or JSON for binary data.
+ *
+ * <p>
+ * Inputs are read straight from the body stream according to the input class of the model: encoded images for
+ * {@link Image}, the DJL {@link NDList} binary encoding ({@value #NDLIST}) for {@link NDList}, and the raw bytes for
+ * {@code byte[]}, {@link String} and {@link Input}. Outputs that are {@link NDList}s are written in the same binary
+ * encoding, JSON serializable outputs such as classifications and detected objects as JSON, and other outputs as
+ * their bytes or as JSON.
+ */
+public final class InferencePayloads {
+
+    /** Content type of the DJL binary {@link NDList} encoding, as used by DJL Serving. */
+    public static final String NDLIST = "tensor/ndlist";
+    /** Content type of JSON outputs. */
+    public static final String JSON = "application/json";
+    /** Content type of raw bytes. */
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private InferencePayloads() {
+    }
+
+    /**
+     * Tells whether inputs of a class can be read from a request body.
+     *
+     * @param inputClass the input class of the model
+     * @return whether {@link #decode} supports the class
+     */
+    public static boolean isSupported(Class<?> inputClass) {
+        return inputClass == Image.class || inputClass == NDList.class || inputClass == byte[].class
+                || inputClass == String.class || inputClass == Input.class;
+    }
+
+    /**
+     * Reads a model input from a body, consuming the stream as the input is decoded.
+     *
+     * @param inputClass the input class of the model
+     * @param body the body
+     * @param contentType the content type of the body, may be {@code null}
+     * @param manager the manager holding the arrays of {@link NDList} inputs
+     * @return the input
+     * @throws IOException if the body cannot be read or decoded
+     * @throws IllegalArgumentException if the input class is not supported
+     */
+    public static Object decode(Class<?> inputClass, InputStream body, String contentType, NDManager manager)
+            throws IOException {
+        if (inputClass == Image.class) {
+            return ImageFactory.getInstance().fromInputStream(body);
+        } else if (inputClass == NDList.class) {
+            try {
+                return NDList.decode(manager, body);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed " + NDLIST + " body", e);
+            }
+        } else if (inputClass == byte[].class) {
+            return body.readAllBytes();
+        } else if (inputClass == String.class) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } else if (inputClass == Input.class) {
+            var input = new Input();
+            if (contentType != null) {
+                input.addProperty("Content-Type", contentType);
+            }
+            input.add(body.readAllBytes());
+            return input;
+        }
+        throw new IllegalArgumentException("Inputs of class " + inputClass.getName() + " cannot be read from a "
+                + "request body");
+    }
+
+    /**
+     * @param output a model output
+     * @return the content type {@link #encode} writes the output with
+     */
+    public static String contentType(Object output) {
+        if (output instanceof NDList) {
+            return NDLIST;
+        } else if (output instanceof Output) {
+            return ((Output) output).getProperty("Content-Type", OCTET_STREAM);
+        } else if (output instanceof byte[]
+                || output instanceof BytesSupplier && !(output instanceof JsonSerializable)) {
+            return OCTET_STREAM;
+        }
+        return JSON;
+    }
+
+    /**
+     * Writes a model output.
+     *
+     * @param output the output
+     * @param out the response body
+     * @throws IOException if the body cannot be written
+     */
+    public static void encode(Object output, OutputStream out) throws IOException {
+        if (output instanceof NDList) {
+            ((NDList) output).encode(out);
+        } else if (output instanceof byte[]) {
+            out.write((byte[]) output);
+        } else if (output instanceof Output) {
+            BytesSupplier data = ((Output) output).getData();
+            if (data != null) {
+                out.write(data.getAsBytes());
+            }
+        } else if (output instanceof JsonSerializable) {
+            out.write(((JsonSerializable) output).toJson().getBytes(StandardCharsets.UTF_8));
+        } else if (output instanceof BytesSupplier) {
+            out.write(((BytesSupplier) output).getAsBytes());
+        } else {
+            out.write(JsonUtils.GSON.toJson(output).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * @param outputs the outputs of a batch
+     * @return the content type {@link #encodeBatch} writes the outputs with
+     */
+    public static String batchContentType(List<?> outputs) {
+        return outputs.isEmpty() ? JSON : contentType(outputs.get(0));
+    }
+
+    /**
+     * Writes the outputs of a batch: {@link NDList}s one after the other, as the encoding is self-delimiting, JSON
+     * outputs as a JSON array, and binary outputs each preceded by its length as a 4-byte big-endian integer.
+     *
+     * @param outputs the outputs, in the order of the inputs
+     * @param out the response body
+     * @throws IOException if the body cannot be written
+     */
+    public static void encodeBatch(List<?> outputs, OutputStream out) throws IOException {
+        String contentType = batchContentType(outputs);
+        if (NDLIST.equals(contentType)) {
+            for (Object output : outputs) {
+                encode(output, out);
+            }
+        } else if (JSON.equals(contentType)) {
+            out.write('[');
+            for (int i = 0; i < outputs.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                encode(outputs.get(i), out);
+            }
+            out.write(']');
+        } else {
+            var data = new DataOutputStream(out);
+            for (Object output : outputs) {
+                var bytes = new ByteArrayOutputStream();
+                encode(output, bytes);
+                data.writeInt(bytes.size());
+                bytes.writeTo(data);
+            }
+            data.flush();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A memory mapped file shared by the application and a worker, holding the payload of the request being sent and of
+ * its response, so that tensors are written once into memory both processes see rather than copied through the
+ * socket.
+ *
+ * <p>
+ * The first half of the file holds the request, the second half the response. A connection has at most one request in
+ * flight, and the socket carries the lengths, so the regions need no further synchronization. The part of a payload
+ * that does not fit its region is sent through the socket.
+ */
+final class SharedBuffer implements AutoCloseable {
+
+    private final Path file;
+    private final int capacity;
+    private final boolean owner;
+    private final MappedByteBuffer buffer;
+
+    private SharedBuffer(Path file, int capacity, boolean owner) throws IOException {
+        this.file = file;
+        this.capacity = capacity;
+        this.owner = owner;
+        try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (owner) {
+                raf.setLength(2L * capacity);
+            }
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 2L * capacity);
+        }
+    }
+
+    /**
+     * Creates the file of a new connection.
+     *
+     * @param directory the directory of the file, preferably a memory backed file system like {@code /dev/shm}
+     * @param capacity the capacity of each region in bytes
+     * @return the buffer, deleting the file when closed
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static SharedBuffer create(Path directory, int capacity) throws IOException {
+        Path file = Files.createTempFile(directory, "djl-worker-", ".buf");
+        try {
+            return new SharedBuffer(file, capacity, true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Maps the file created by the other side of the connection.
+     *
+     * @param file the file
+     * @param capacity the capacity of each region in bytes
+     * @return the buffer
+     * @throws IOException if the file cannot be mapped
+     */
+    static SharedBuffer open(Path file, int capacity) throws IOException {
+        return new SharedBuffer(file, capacity, false);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param request whether to write the request region, rather than the response region
+     * @return a stream writing the region from its start, keeping what does not fit in memory
+     */
+    RegionOutputStream output(boolean request) {
+        return new RegionOutputStream(region(request));
+    }
+
+    /**
+     * @param request whether to read the request region, rather than the response region
+     * @param length the number of bytes written
+     * @return a stream reading the region from its start
+     */
+    InputStream input(boolean request, int length) {
+        if (length < 0 || length > capacity) {
+            throw new IllegalArgumentException("Invalid shared payload length " + length);
+        }
+        ByteBuffer region = region(request);
+        region.limit(length);
+        return new RegionInputStream(region);
+    }
+
+    private ByteBuffer region(boolean request) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(request ? 0 : capacity);
+        region.limit(region.position() + capacity);
+        return region.slice();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        // the mapping itself is released when the buffer is garbage collected
+        if (owner) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Writes a region, then keeps in memory the rest of a payload that does not fit. */
+    static final class RegionOutputStream extends OutputStream {
+
+        private final ByteBuffer region;
+        private ByteArrayOutputStream spill;
+
+        RegionOutputStream(ByteBuffer region) {
+            this.region = region;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(int b) {
+            if (spill == null && region.hasRemaining()) {
+                region.put((byte) b);
+            } else {
+                spill().write(b);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void write(byte[] b, int off, int len) {
+            int fitting = spill == null ? Math.min(len, region.remaining()) : 0;
+            region.put(b, off, fitting);
+            if (fitting < len) {
+                spill().write(b, off + fitting, len - fitting);
+            }
+        }
+
+        private ByteArrayOutputStream spill() {
+            if (spill == null) {
+                spill = new ByteArrayOutputStream();
+            }
+            return spill;
+        }
+
+        boolean isOverflow() {
+            return spill != null;
+        }
+
+        /**
+         * @return the number of bytes written to the region
+         */
+        int size() {
+            return region.position();
+        }
+
+        /**
+         * @return the bytes that did not fit the region, {@code null} if the payload fit
+         */
+        ByteArrayOutputStream getSpill() {
+            return spill;
+        }
+    }
+
+    private static final class RegionInputStream extends InputStream {
+
+        private final ByteBuffer region;
+
+        RegionInputStream(ByteBuffer region) {
+            this.region = region;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read() {
+            return region.hasRemaining() ? region.get() & 0xFF : -1;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!region.hasRemaining()) {
+                return len == 0 ? 0 : -1;
+            }
+            int n = Math.min(len, region.remaining());
+            region.get(b, off, n);
+            return n;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int available() {
+            return region.remaining();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.TranslateException;
+
+/**
+ * A connection of the application to a worker, carrying one request at a time.
+ */
+final class WorkerConnection implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final SharedBuffer buffer;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    /**
+     * Connects and presents the token of the worker.
+     *
+     * @param address the address of the worker
+     * @param token the token of the worker
+     * @param buffer the shared buffer of the connection, {@code null} to send payloads through the socket, closed
+     *     with the connection
+     * @throws IOException if the worker cannot be reached or rejects the token
+     */
+    WorkerConnection(String address, String token, SharedBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            channel = WorkerTransport.connect(address);
+        } catch (IOException e) {
+            closeBuffer();
+            throw e;
+        }
+        try {
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeUTF(token);
+            out.writeUTF(buffer != null ? buffer.getFile().toString() : "");
+            out.writeInt(buffer != null ? buffer.getCapacity() : 0);
+            out.flush();
+            if (!in.readBoolean()) {
+                throw new IOException("Worker at " + address + " rejected the connection");
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @param operation {@link WorkerProtocol#PREDICT} or {@link WorkerProtocol#BATCH_PREDICT}
+     * @param input the input
+     * @param manager the manager of the decoded tensors
+     * @return the output
+     * @throws IOException if the connection fails, after which it must be closed
+     * @throws TranslateException if the prediction failed in the worker
+     */
+    Object call(byte operation, Object input, NDManager manager) throws IOException, TranslateException {
+        out.writeByte(operation);
+        WorkerProtocol.writeFrame(out, buffer, true, input);
+        if (in.readByte() == WorkerProtocol.ERROR) {
+            throw new TranslateException("Prediction failed in worker: " + in.readUTF());
+        }
+        return WorkerProtocol.readFrame(in, buffer, false, manager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException ignore) {
+            // already closed by the worker
+        } finally {
+            closeBuffer();
+        }
+    }
+
+    private void closeBuffer() {
+        if (buffer != null) {
+            try {
+                buffer.close();
+            } catch (IOException ignore) {
+                // the file is removed with its directory at the latest
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ai.djl.ndarray.NDManager;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.configuration.DjlAutoConfiguration;
+import ai.djl.spring.inference.PredictorPool;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Entry point of a worker process. The worker loads the model described by its {@code --djl.*} arguments, binds the
+ * address given as first argument and prints {@link #READY} followed by the bound address. It exits when its standard
+ * input is closed, which happens when the application that started it stops or dies.
+ */
+public final class WorkerMain {
+
+    /** Printed by a worker once it accepts connections, followed by its address. */
+    public static final String READY = "DJL-WORKER-READY ";
+    /** Environment variable holding the token the application presents to the worker. */
+    public static final String TOKEN = "DJL_WORKER_TOKEN";
+
+    private static final String BOOT_LOADER_PACKAGE = "org.springframework.boot.loader";
+    private static final String PROPERTIES_LAUNCHER = BOOT_LOADER_PACKAGE + ".launch.PropertiesLauncher";
+
+    private WorkerMain() {
+    }
+
+    /**
+     * Runs a worker.
+     *
+     * @param args the address to bind, followed by the {@code --djl.*} properties of the model
+     * @throws IOException if the address cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        String token = System.getenv(TOKEN);
+        if (args.length == 0 || token == null) {
+            System.err.println("Usage: " + TOKEN + "=<token> java " + WorkerMain.class.getName()
+                    + " <unix:path|tcp:port> [--djl.property=value...]");
+            System.exit(2);
+        }
+        exitWithParent();
+        List<String> properties = new ArrayList<>(Arrays.asList(args).subList(1, args.length));
+        properties.add("--djl.workers.enabled=false");
+        var context = new SpringApplicationBuilder(WorkerApplication.class).web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF).run(properties.toArray(new String[0]));
+        try {
+            @SuppressWarnings("unchecked")
+            PredictorPool<Object, Object> pool = context.getBean(PredictorPool.class);
+            ZooModel<?, ?> model = context.getBean(ZooModel.class);
+            serve(args[0], token, pool, model.getNDManager());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Binds the address and serves the application until the channel is closed.
+     *
+     * @param address the address to bind
+     * @param token the token the application must present
+     * @param pool the predictor pool of the worker
+     * @param manager the manager of decoded tensors
+     * @throws IOException if the address cannot be bound
+     */
+    static void serve(String address, String token, PredictorPool<Object, Object> pool, NDManager manager)
+            throws IOException {
+        try (var channel = WorkerTransport.bind(address);
+                var server = new WorkerServer(channel, token, pool, manager)) {
+            System.out.println(READY + WorkerTransport.localAddress(channel, address));
+            System.out.flush();
+            server.serve();
+        }
+    }
+
+    /**
+     * Builds the command running this class with the class path of the running application, through the Spring Boot
+     * launcher when the application runs from an executable jar.
+     *
+     * @param jvmArgs the options of the worker JVM
+     * @return the command, to be followed by the arguments of the worker
+     */
+    public static List<String> launcher(List<String> jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        ClassLoader loader = WorkerMain.class.getClassLoader();
+        if (loader != null && loader.getClass().getName().startsWith(BOOT_LOADER_PACKAGE)) {
+            // the nested jars of an executable jar are only visible to the Spring Boot class loader
+            command.add(command.size() - 2, "-Dloader.main=" + WorkerMain.class.getName());
+            command.add(PROPERTIES_LAUNCHER);
+        } else {
+            command.add(WorkerMain.class.getName());
+        }
+        return command;
+    }
+
+    /** Exits once the standard input is closed, so that a worker does not outlive its application. */
+    static void exitWithParent() {
+        var watcher = new Thread(() -> {
+            try {
+                InputStream in = System.in;
+                while (in.read() >= 0) {
+                    // the application never writes, it only keeps the stream open
+                }
+            } catch (IOException ignore) {
+                // the application is gone
+            }
+            System.exit(0);
+        }, "djl-worker-parent-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration(DjlAutoConfiguration.class)
+    static class WorkerApplication {
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import ai.djl.Model;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.TranslateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local worker processes each loading the model, so that predictions scale across cores without sharing the native
+ * threads and memory of a single engine, and a crash of the engine does not bring down the application.
+ *
+ * <p>
+ * Calls are sent to the live worker with the fewest calls in flight, over Unix domain sockets when the runtime
+ * supports them and loopback TCP otherwise. Each connection carries one call at a time, and owns a memory mapped file
+ * holding the payloads, in {@code /dev/shm} by default. A worker that exits is restarted by a supervisor thread after a
+ * delay; the calls it was running fail over once to another worker. A worker that does not answer a call in time is
+ * killed and restarted the same way, and the call fails without failing over, since its input may be what hangs.
+ */
+public class WorkerPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerPool.class);
+
+    private final List<String> launcher;
+    private final List<String> arguments;
+    private final String engine;
+    private final Duration startTimeout;
+    private final Path bufferDirectory;
+    private final int bufferSize;
+    private final Duration restartDelay;
+    private final Duration callTimeout;
+    private final String token;
+    private final Path socketDirectory;
+    private final List<Slot> slots = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong restarts = new AtomicLong();
+    private final Thread supervisor;
+    private final ScheduledExecutorService watchdog;
+    private volatile boolean closed;
+    private Model clientModel;
+
+    /**
+     * Creates a pool of workers, started by {@link #start()}.
+     *
+     * @param launcher the command running the main class of a worker, see {@link WorkerMain#launcher(List)}
+     * @param arguments the arguments of each worker, after its address
+     * @param engine the engine of the tensors decoded in the application, {@code null} for the default engine
+     * @param size the number of workers
+     * @param startTimeout how long a worker may take to load its model
+     * @param bufferDirectory the directory of the files shared with the workers
+     * @param bufferSize the size of the request and of the response payloads shared through memory, larger payloads
+     *     are sent through the socket, 0 to send every payload through the socket
+     * @param restartDelay how long to wait before restarting a worker that exited
+     * @param callTimeout how long a worker may take to answer a call before it is killed, 0 for no limit
+     * @throws IOException if the directory of the sockets cannot be created
+     */
+    public WorkerPool(List<String> launcher, List<String> arguments, String engine, int size, Duration startTimeout,
+            Path bufferDirectory, int bufferSize, Duration restartDelay, Duration callTimeout) throws IOException {
+        if (size < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.launcher = List.copyOf(launcher);
+        this.arguments = List.copyOf(arguments);
+        this.engine = engine;
+        this.startTimeout = startTimeout;
+        this.bufferDirectory = bufferDirectory;
+        this.bufferSize = bufferSize;
+        this.restartDelay = restartDelay;
+        this.callTimeout = callTimeout;
+        byte[] secret = new byte[24];
+        new SecureRandom().nextBytes(secret);
+        this.token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        this.socketDirectory = Files.createTempDirectory("djl-workers");
+        for (int i = 0; i < size; i++) {
+            slots.add(new Slot(i));
+        }
+        supervisor = new Thread(this::supervise, "djl-worker-supervisor");
+        supervisor.setDaemon(true);
+        if (callTimeout.isZero()) {
+            watchdog = null;
+        } else {
+            watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "djl-worker-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts the workers in parallel and waits until all of them are ready.
+     *
+     * @throws IOException if a worker cannot be started
+     */
+    public void start() throws IOException {
+        List<CompletableFuture<Void>> started = new ArrayList<>();
+        for (Slot slot : slots) {
+            var future = new CompletableFuture<Void>();
+            var thread = new Thread(() -> {
+                try {
+                    slot.process = launch(slot);
+                    future.complete(null);
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }, "djl-worker-" + slot.index + "-start");
+            thread.setDaemon(true);
+            thread.start();
+            started.add(future);
+        }
+        try {
+            CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            close();
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to start the workers", e.getCause());
+        }
+        LOG.info("Started {} DJL workers over {}", slots.size(),
+                WorkerTransport.isUnixDomainSocketSupported() ? "Unix domain sockets" : "loopback TCP");
+        supervisor.start();
+    }
+
+    /**
+     * Creates a predictor dispatching to the workers. The engine is loaded in the application on first call, the model
+     * is not.
+     *
+     * @param <I> the input type
+     * @param <O> the output type
+     * @return the predictor
+     */
+    public <I, O> WorkerPredictor<I, O> newPredictor() {
+        return new WorkerPredictor<>(this, getClientModel());
+    }
+
+    private synchronized Model getClientModel() {
+        if (closed) {
+            throw new IllegalStateException("Worker pool is closed");
+        }
+        if (clientModel == null) {
+            clientModel = engine != null ? Model.newInstance("djl-workers", engine) : Model.newInstance("djl-workers");
+        }
+        return clientModel;
+    }
+
+    /**
+     * Runs a call in a worker, failing over once to another worker when the connection fails.
+     *
+     * @param operation {@link WorkerProtocol#PREDICT} or {@link WorkerProtocol#BATCH_PREDICT}
+     * @param input the input
+     * @param manager the manager of the decoded tensors
+     * @return the output
+     * @throws TranslateException if the prediction failed or no worker could run it
+     */
+    Object call(byte operation, Object input, NDManager manager) throws TranslateException {
+        IOException failure = null;
+        Slot failed = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Slot slot = select(failed);
+            if (slot == null) {
+                break;
+            }
+            WorkerProcess process = slot.process;
+            slot.inFlight.incrementAndGet();
+            WorkerConnection connection = null;
+            var settled = new AtomicBoolean();
+            ScheduledFuture<?> deadline = watch(slot, process, settled);
+            try {
+                connection = borrow(slot, process);
+                Object output = connection.call(operation, input, manager);
+                if (settled.compareAndSet(false, true)) {
+                    release(slot, process, connection);
+                } else {
+                    connection.close();
+                }
+                return output;
+            } catch (IOException e) {
+                if (connection != null) {
+                    connection.close();
+                }
+                if (!settled.compareAndSet(false, true)) {
+                    String message = "DJL worker " + slot.index + " did not answer within " + callTimeout;
+                    throw new TranslateException(message, e);
+                }
+                LOG.warn("Call to DJL worker {} failed", slot.index, e);
+                failure = e;
+                failed = slot;
+            } catch (TranslateException e) {
+                if (settled.compareAndSet(false, true)) {
+                    release(slot, process, connection);
+                } else {
+                    connection.close();
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                if (connection != null) {
+                    connection.close();
+                }
+                throw e;
+            } finally {
+                settled.set(true);
+                if (deadline != null) {
+                    deadline.cancel(false);
+                }
+                slot.inFlight.decrementAndGet();
+            }
+        }
+        throw new TranslateException("No DJL worker could run the prediction", failure);
+    }
+
+    private ScheduledFuture<?> watch(Slot slot, WorkerProcess process, AtomicBoolean settled) {
+        if (watchdog == null) {
+            return null;
+        }
+        return watchdog.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                // the supervisor restarts the killed worker, and the call fails once its connection closes
+                LOG.warn("DJL worker {} did not answer within {}, killing it", slot.index, callTimeout);
+                process.kill();
+            }
+        }, callTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Slot select(Slot excluded) {
+        if (closed) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), slots.size());
+        return Stream.concat(slots.subList(start, slots.size()).stream(), slots.subList(0, start).stream())
+                .filter(slot -> slot != excluded && slot.process != null && slot.process.isAlive())
+                .min(Comparator.comparingInt(slot -> slot.inFlight.get())).orElse(null);
+    }
+
+    private WorkerConnection borrow(Slot slot, WorkerProcess process) throws IOException {
+        WorkerConnection connection = slot.idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        SharedBuffer buffer = bufferSize > 0 ? SharedBuffer.create(bufferDirectory, bufferSize) : null;
+        return new WorkerConnection(process.getAddress(), token, buffer);
+    }
+
+    private void release(Slot slot, WorkerProcess process, WorkerConnection connection) {
+        if (closed || slot.process != process) {
+            connection.close();
+            return;
+        }
+        slot.idle.offer(connection);
+    }
+
+    private WorkerProcess launch(Slot slot) throws IOException {
+        String address;
+        if (WorkerTransport.isUnixDomainSocketSupported()) {
+            Path socket = socketDirectory.resolve("worker-" + slot.index + '-' + slot.generation++ + ".sock");
+            Files.deleteIfExists(socket);
+            address = WorkerTransport.UNIX + socket;
+        } else {
+            address = WorkerTransport.TCP + 0;
+        }
+        return WorkerProcess.start(slot.index, launcher, address, arguments, Map.of(WorkerMain.TOKEN, token),
+                startTimeout);
+    }
+
+    private void supervise() {
+        long interval = Math.max(10, Math.min(restartDelay.toMillis(), 1000));
+        while (!closed) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Slot slot : slots) {
+                if (!closed) {
+                    check(slot);
+                }
+            }
+        }
+    }
+
+    private void check(Slot slot) {
+        WorkerProcess process = slot.process;
+        if (process != null && process.isAlive()) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (slot.failedAt == 0) {
+            slot.failedAt = now;
+            LOG.warn("DJL worker {} exited with code {}, restarting it in {}", slot.index,
+                    process != null ? process.exitValue() : -1, restartDelay);
+            closeConnections(slot);
+        }
+        if (now - slot.failedAt < restartDelay.toNanos()) {
+            return;
+        }
+        try {
+            WorkerProcess restarted = launch(slot);
+            synchronized (this) {
+                if (closed) {
+                    restarted.stop();
+                    return;
+                }
+                slot.process = restarted;
+            }
+            slot.failedAt = 0;
+            restarts.incrementAndGet();
+            LOG.info("Restarted DJL worker {}", slot.index);
+        } catch (IOException e) {
+            slot.failedAt = System.nanoTime();
+            LOG.error("Failed to restart DJL worker {}, retrying in {}", slot.index, restartDelay, e);
+        }
+    }
+
+    private static void closeConnections(Slot slot) {
+        WorkerConnection connection;
+        while ((connection = slot.idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * @return the number of workers
+     */
+    public int getSize() {
+        return slots.size();
+    }
+
+    /**
+     * @return the number of workers running
+     */
+    public int getAliveCount() {
+        return (int) slots.stream().filter(slot -> slot.process != null && slot.process.isAlive()).count();
+    }
+
+    /**
+     * @return the number of times a worker has been restarted
+     */
+    public long getRestartCount() {
+        return restarts.get();
+    }
+
+    /**
+     * @param index the index of the worker
+     * @return the process of the worker, {@code null} before it is started
+     */
+    WorkerProcess getProcess(int index) {
+        return slots.get(index).process;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (clientModel != null) {
+                clientModel.close();
+            }
+        }
+        supervisor.interrupt();
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        for (Slot slot : slots) {
+            closeConnections(slot);
+            if (slot.process != null) {
+                slot.process.stop();
+            }
+        }
+        try (Stream<Path> files = Files.list(socketDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(socketDirectory);
+        } catch (IOException e) {
+            LOG.debug("Failed to delete {}", socketDirectory, e);
+        }
+    }
+
+    private static final class Slot {
+
+        final int index;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final BlockingQueue<WorkerConnection> idle = new LinkedBlockingQueue<>();
+        volatile WorkerProcess process;
+        int generation;
+        long failedAt;
+
+        Slot(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.util.List;
+
+import ai.djl.Model;
+import ai.djl.inference.Predictor;
+import ai.djl.inference.streaming.StreamingTranslator;
+import ai.djl.translate.TranslateException;
+
+/**
+ * A {@link Predictor} running each call in one of the processes of a {@link WorkerPool}. The model is loaded by the
+ * workers only; tensors of the outputs are attached to the manager of this predictor, and closed with it.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class WorkerPredictor<I, O> extends Predictor<I, O> {
+
+    private final WorkerPool workers;
+
+    /**
+     * Creates a predictor dispatching to the workers.
+     *
+     * @param workers the worker processes
+     * @param model the model owning the manager of the outputs, without parameters
+     */
+    public WorkerPredictor(WorkerPool workers, Model model) {
+        super(model, null, model.getNDManager().getDevice(), false);
+        this.workers = workers;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public O predict(I input) throws TranslateException {
+        return (O) workers.call(WorkerProtocol.PREDICT, input, manager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<O> batchPredict(List<I> inputs) throws TranslateException {
+        return (List<O>) workers.call(WorkerProtocol.BATCH_PREDICT, inputs, manager);
+    }
+
+    /**
+     * @return the model owning the manager of the outputs
+     */
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * Streaming outputs cannot be sent between processes.
+     *
+     * @param input the input
+     * @return never
+     * @throws TranslateException always
+     */
+    @Override
+    public StreamingTranslator.StreamOutput<O> streamingPredict(I input) throws TranslateException {
+        throw new TranslateException("Streaming predictions are not supported by worker processes");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean supportsStreaming() {
+        return false;
+    }
+}
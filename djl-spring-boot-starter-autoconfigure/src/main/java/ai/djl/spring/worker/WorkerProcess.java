@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A running worker process. The worker prints {@link WorkerMain#READY} followed by its address once its model is
+ * loaded; the rest of its output is logged by the application. The standard input of the worker stays open for its
+ * whole life, so that the worker exits when the application dies.
+ */
+final class WorkerProcess {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerProcess.class);
+
+    private final int index;
+    private final Process process;
+    private final String address;
+
+    private WorkerProcess(int index, Process process, String address) {
+        this.index = index;
+        this.process = process;
+        this.address = address;
+    }
+
+    /**
+     * Starts a worker and waits until it is ready.
+     *
+     * @param index the index of the worker, used in thread names and logs
+     * @param launcher the command running the main class of the worker
+     * @param address the address the worker binds, its first argument
+     * @param arguments the other arguments of the worker
+     * @param environment the environment added to the one of the application
+     * @param timeout how long the worker may take to load its model
+     * @return the ready worker
+     * @throws IOException if the worker cannot be started, exits or is not ready in time
+     */
+    static WorkerProcess start(int index, List<String> launcher, String address, List<String> arguments,
+            Map<String, String> environment, Duration timeout) throws IOException {
+        List<String> command = new ArrayList<>(launcher);
+        command.add(address);
+        command.addAll(arguments);
+        var builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT);
+        builder.environment().putAll(environment);
+        Process process = builder.start();
+        var ready = new CompletableFuture<String>();
+        var output = new Thread(() -> copyOutput(index, process, ready), "djl-worker-" + index + "-output");
+        output.setDaemon(true);
+        output.start();
+        try {
+            return new WorkerProcess(index, process, ready.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            process.destroyForcibly();
+            throw new IOException("Worker " + index + " exited before it was ready", e.getCause());
+        } catch (TimeoutException e) {
+            process.destroyForcibly();
+            throw new IOException("Worker " + index + " was not ready within " + timeout, e);
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while starting worker " + index, e);
+        }
+    }
+
+    private static void copyOutput(int index, Process process, CompletableFuture<String> ready) {
+        try (var reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!ready.isDone() && line.startsWith(WorkerMain.READY)) {
+                    ready.complete(line.substring(WorkerMain.READY.length()).trim());
+                } else {
+                    LOG.info("[worker {}] {}", index, line);
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Stopped reading the output of a worker", e);
+        }
+        ready.completeExceptionally(new IOException("Worker output closed"));
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    String getAddress() {
+        return address;
+    }
+
+    long getPid() {
+        return process.pid();
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * @return the exit code, or -1 while the worker runs
+     */
+    int exitValue() {
+        return process.isAlive() ? -1 : process.exitValue();
+    }
+
+    /** Kills the worker without letting it shut down, as a crash would. */
+    void kill() {
+        process.destroyForcibly();
+    }
+
+    /** Stops the worker, killing it if it does not exit in time. */
+    void stop() {
+        try {
+            // closing the standard input tells the worker its application is gone
+            process.getOutputStream().close();
+        } catch (IOException ignore) {
+            // the worker already exited
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import ai.djl.modality.Input;
+import ai.djl.modality.Output;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+
+/**
+ * The messages exchanged between the application and a worker.
+ *
+ * <p>
+ * A connection starts with a handshake: the token the worker was started with, the path of the {@link SharedBuffer}
+ * and its capacity. Each request is then an operation and a frame, answered by a status and a frame. A frame is a mode
+ * and the length of the payload in the shared buffer, followed by the length and the bytes of the rest of the payload
+ * when it did not fit; without a shared buffer, the whole payload follows. Payloads encode {@link NDList},
+ * {@link Image}, {@link Input}, {@link Output}, byte arrays, strings and other {@link Serializable} values of the
+ * {@code ai.djl} and {@code java} packages. Images backed by a {@link BufferedImage} are sent as raw ARGB pixels,
+ * others as PNG.
+ */
+final class WorkerProtocol {
+
+    static final byte PREDICT = 0;
+    static final byte BATCH_PREDICT = 1;
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    private static final byte INLINE = 0;
+    private static final byte SHARED = 1;
+    private static final byte SPLIT = 2;
+
+    private static final byte NULL = 0;
+    private static final byte NDLIST = 1;
+    private static final byte IMAGE = 2;
+    private static final byte BYTES = 3;
+    private static final byte STRING = 4;
+    private static final byte INPUT = 5;
+    private static final byte OUTPUT = 6;
+    private static final byte SERIALIZED = 7;
+    private static final byte LIST = 8;
+    private static final byte ENCODED_IMAGE = 9;
+
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter("ai.djl.**;java.**;!*");
+
+    private WorkerProtocol() {
+    }
+
+    /**
+     * Writes a frame, into the shared buffer as far as it fits. The payload is encoded once.
+     *
+     * @param out the socket
+     * @param buffer the shared buffer, {@code null} to write inline
+     * @param request whether the frame is a request, rather than a response
+     * @param value the payload
+     * @throws IOException if the socket fails
+     * @throws IllegalArgumentException if the value cannot be sent to a worker
+     */
+    static void writeFrame(DataOutputStream out, SharedBuffer buffer, boolean request, Object value)
+            throws IOException {
+        if (buffer == null) {
+            var bytes = new ByteArrayOutputStream();
+            encode(value, bytes);
+            out.writeByte(INLINE);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+            out.flush();
+            return;
+        }
+        var region = buffer.output(request);
+        encode(value, region);
+        ByteArrayOutputStream spill = region.getSpill();
+        out.writeByte(spill == null ? SHARED : SPLIT);
+        out.writeInt(region.size());
+        if (spill != null) {
+            out.writeInt(spill.size());
+            spill.writeTo(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a frame.
+     *
+     * @param in the socket
+     * @param buffer the shared buffer
+     * @param request whether the frame is a request, rather than a response
+     * @param manager the manager of decoded arrays
+     * @return the payload
+     * @throws IOException if the socket fails or the payload cannot be decoded
+     */
+    static Object readFrame(DataInputStream in, SharedBuffer buffer, boolean request, NDManager manager)
+            throws IOException {
+        byte mode = in.readByte();
+        int length = in.readInt();
+        InputStream payload;
+        if (mode == INLINE) {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            payload = new ByteArrayInputStream(bytes);
+        } else {
+            if (buffer == null) {
+                throw new IOException("Shared payload received without a shared buffer");
+            }
+            payload = buffer.input(request, length);
+            if (mode == SPLIT) {
+                payload = new SequenceInputStream(payload, new ByteArrayInputStream(readBytes(in)));
+            }
+        }
+        return decode(new DataInputStream(payload), manager);
+    }
+
+    static void encode(Object value, OutputStream stream) throws IOException {
+        var out = new DataOutputStream(stream);
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof NDList) {
+            out.writeByte(NDLIST);
+            ((NDList) value).encode(out);
+        } else if (value instanceof Image) {
+            writeImage(out, (Image) value);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Output) {
+            Output output = (Output) value;
+            out.writeByte(OUTPUT);
+            out.writeInt(output.getCode());
+            out.writeUTF(output.getMessage() != null ? output.getMessage() : "");
+            writeInput(out, output);
+        } else if (value instanceof Input) {
+            out.writeByte(INPUT);
+            writeInput(out, (Input) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                encode(element, out);
+            }
+        } else if (value instanceof Serializable) {
+            var serialized = new ByteArrayOutputStream();
+            try (var oos = new ObjectOutputStream(serialized)) {
+                oos.writeObject(value);
+            }
+            out.writeByte(SERIALIZED);
+            writeBytes(out, serialized.toByteArray());
+        } else {
+            throw new IllegalArgumentException("Cannot send " + value.getClass().getName() + " to a worker process");
+        }
+        out.flush();
+    }
+
+    static Object decode(DataInputStream in, NDManager manager) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case NDLIST:
+                return NDList.decode(manager, in);
+            case IMAGE:
+                return readImage(in);
+            case ENCODED_IMAGE:
+                return ImageFactory.getInstance().fromInputStream(new ByteArrayInputStream(readBytes(in)));
+            case BYTES:
+                return readBytes(in);
+            case STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case OUTPUT:
+                var output = new Output(in.readInt(), in.readUTF());
+                readInput(in, output);
+                return output;
+            case INPUT:
+                var input = new Input();
+                readInput(in, input);
+                return input;
+            case LIST:
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(decode(in, manager));
+                }
+                return list;
+            case SERIALIZED:
+                try (var ois = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+                    ois.setObjectInputFilter(FILTER);
+                    return ois.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot decode the payload of the worker", e);
+                }
+            default:
+                throw new IOException("Unknown payload type " + tag);
+        }
+    }
+
+    private static void writeImage(DataOutputStream out, Image image) throws IOException {
+        if (!(image.getWrappedImage() instanceof BufferedImage)) {
+            var png = new ByteArrayOutputStream();
+            image.save(png, "png");
+            out.writeByte(ENCODED_IMAGE);
+            writeBytes(out, png.toByteArray());
+            return;
+        }
+        // raw pixels go straight into the shared buffer, without compressing and decompressing each image
+        var pixels = (BufferedImage) image.getWrappedImage();
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        out.writeByte(IMAGE);
+        out.writeInt(width);
+        out.writeInt(height);
+        int[] row = new int[width];
+        ByteBuffer bytes = ByteBuffer.allocate(width * Integer.BYTES);
+        for (int y = 0; y < height; y++) {
+            pixels.getRGB(0, y, width, 1, row, 0, width);
+            bytes.asIntBuffer().put(row);
+            out.write(bytes.array());
+        }
+    }
+
+    private static Image readImage(DataInputStream in) throws IOException {
+        int width = in.readInt();
+        int height = in.readInt();
+        int[] pixels = new int[width * height];
+        byte[] row = new byte[width * Integer.BYTES];
+        IntBuffer view = ByteBuffer.wrap(row).asIntBuffer();
+        for (int y = 0; y < height; y++) {
+            in.readFully(row);
+            view.get(pixels, y * width, width).rewind();
+        }
+        return ImageFactory.getInstance().fromPixels(pixels, width, height);
+    }
+
+    private static void writeInput(DataOutputStream out, Input input) throws IOException {
+        Map<String, String> properties = input.getProperties();
+        out.writeInt(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            out.writeUTF(property.getKey());
+            out.writeUTF(property.getValue());
+        }
+        var content = input.getContent();
+        out.writeInt(content.size());
+        for (int i = 0; i < content.size(); i++) {
+            String key = content.keyAt(i);
+            out.writeUTF(key != null ? key : "");
+            writeBytes(out, content.valueAt(i).getAsBytes());
+        }
+    }
+
+    private static void readInput(DataInputStream in, Input input) throws IOException {
+        int properties = in.readInt();
+        for (int i = 0; i < properties; i++) {
+            input.addProperty(in.readUTF(), in.readUTF());
+        }
+        int content = in.readInt();
+        for (int i = 0; i < content; i++) {
+            String key = in.readUTF();
+            input.add(key.isEmpty() ? null : key, readBytes(in));
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.spring.inference.PredictorPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the connections of the application within a worker process, running each request on the predictor pool of the
+ * worker. Each connection is served by its own thread, so the pool bounds how many forward passes run at once.
+ */
+final class WorkerServer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerServer.class);
+
+    private final ServerSocketChannel channel;
+    private final byte[] token;
+    private final PredictorPool<Object, Object> pool;
+    private final NDManager manager;
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /**
+     * @param channel the bound channel
+     * @param token the token the application must present
+     * @param pool the predictor pool of the worker
+     * @param manager the manager of decoded tensors, a sub-manager is opened per request
+     */
+    WorkerServer(ServerSocketChannel channel, String token, PredictorPool<Object, Object> pool, NDManager manager) {
+        this.channel = channel;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.pool = pool;
+        this.manager = manager;
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     *
+     * @throws IOException if accepting fails
+     */
+    void serve() throws IOException {
+        while (channel.isOpen()) {
+            SocketChannel connection;
+            try {
+                connection = channel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            var thread = new Thread(() -> handle(connection), "djl-worker-connection-" + connections.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void handle(SocketChannel connection) {
+        SharedBuffer buffer = null;
+        try (connection) {
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection)));
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(connection)));
+            boolean accepted = MessageDigest.isEqual(token, in.readUTF().getBytes(StandardCharsets.UTF_8));
+            String file = in.readUTF();
+            int capacity = in.readInt();
+            out.writeBoolean(accepted);
+            out.flush();
+            if (!accepted) {
+                LOG.warn("Rejected a connection presenting a wrong token");
+                return;
+            }
+            if (!file.isEmpty()) {
+                buffer = SharedBuffer.open(Path.of(file), capacity);
+            }
+            while (true) {
+                byte operation;
+                try {
+                    operation = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                respond(operation, in, out, buffer);
+            }
+        } catch (IOException e) {
+            LOG.debug("Closing worker connection", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respond(byte operation, DataInputStream in, DataOutputStream out, SharedBuffer buffer)
+            throws IOException {
+        try (NDManager scope = manager.newSubManager()) {
+            Object result;
+            try {
+                Object input = WorkerProtocol.readFrame(in, buffer, true, scope);
+                if (operation == WorkerProtocol.BATCH_PREDICT) {
+                    result = pool.batchPredict((List<Object>) input);
+                } else {
+                    result = pool.predict(input);
+                }
+            } catch (Exception e) {
+                LOG.debug("Prediction failed in worker", e);
+                out.writeByte(WorkerProtocol.ERROR);
+                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+                out.writeUTF(message.length() > 1024 ? message.substring(0, 1024) : message);
+                out.flush();
+                return;
+            }
+            out.writeByte(WorkerProtocol.OK);
+            WorkerProtocol.writeFrame(out, buffer, false, result);
+            close(result);
+        }
+    }
+
+    private static void close(Object result) {
+        if (result instanceof NDList) {
+            ((NDList) result).close();
+        } else if (result instanceof List) {
+            ((List<?>) result).forEach(WorkerServer::close);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
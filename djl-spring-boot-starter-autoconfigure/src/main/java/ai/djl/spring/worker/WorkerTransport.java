@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Opens the sockets between the application and its workers: Unix domain sockets when the runtime supports them,
+ * from Java 16, and loopback TCP otherwise.
+ *
+ * <p>
+ * The starter targets Java 11, so Unix domain sockets are opened through reflection. Addresses are written
+ * {@code unix:<path>} or {@code tcp:<port>}; binding {@code tcp:0} picks a free port, reported by
+ * {@link #localAddress}.
+ */
+final class WorkerTransport {
+
+    static final String UNIX = "unix:";
+    static final String TCP = "tcp:";
+
+    private static final ProtocolFamily UNIX_FAMILY = unixFamily();
+
+    private WorkerTransport() {
+    }
+
+    /**
+     * @return whether Unix domain sockets can be opened on this runtime
+     */
+    static boolean isUnixDomainSocketSupported() {
+        return UNIX_FAMILY != null;
+    }
+
+    static ServerSocketChannel bind(String address) throws IOException {
+        if (address.startsWith(UNIX)) {
+            ServerSocketChannel channel = invoke(ServerSocketChannel.class, UNIX_FAMILY);
+            try {
+                channel.bind(unixAddress(address));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return channel;
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port(address)));
+        return channel;
+    }
+
+    static String localAddress(ServerSocketChannel channel, String address) throws IOException {
+        if (address.startsWith(UNIX)) {
+            return address;
+        }
+        return TCP + ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    static SocketChannel connect(String address) throws IOException {
+        if (address.startsWith(UNIX)) {
+            SocketChannel channel = invoke(SocketChannel.class, UNIX_FAMILY);
+            try {
+                channel.connect(unixAddress(address));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return channel;
+        }
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                port(address)));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        return channel;
+    }
+
+    private static int port(String address) {
+        if (!address.startsWith(TCP)) {
+            throw new IllegalArgumentException("Unsupported worker address " + address);
+        }
+        return Integer.parseInt(address.substring(TCP.length()));
+    }
+
+    private static SocketAddress unixAddress(String address) throws IOException {
+        if (UNIX_FAMILY == null) {
+            throw new IOException("Unix domain sockets require Java 16 or later, running on "
+                    + System.getProperty("java.specification.version"));
+        }
+        try {
+            return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class)
+                    .invoke(null, address.substring(UNIX.length()));
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot create Unix domain socket address " + address, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T invoke(Class<T> channelClass, ProtocolFamily family) throws IOException {
+        if (family == null) {
+            throw new IOException("Unix domain sockets require Java 16 or later, running on "
+                    + System.getProperty("java.specification.version"));
+        }
+        try {
+            return (T) channelClass.getMethod("open", ProtocolFamily.class).invoke(null, family);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Cannot open Unix domain socket", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Cannot open Unix domain socket", e);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ProtocolFamily unixFamily() {
+        try {
+            Class.forName("java.net.UnixDomainSocketAddress");
+            return (ProtocolFamily) Enum.valueOf((Class<Enum>) Class.forName("java.net.StandardProtocolFamily"),
+                    "UNIX");
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
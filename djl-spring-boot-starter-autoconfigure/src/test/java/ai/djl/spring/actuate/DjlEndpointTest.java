@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.actuate;
+
+import ai.djl.Device;
+import ai.djl.inference.Predictor;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DjlEndpointTest {
+
+    private final ModelRegistry modelRegistry = new ModelRegistry(List.of());
+    private final DjlEndpoint endpoint = new DjlEndpoint(modelRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void describesServedModels() throws TranslateException {
+        var properties = new ModelProperties();
+        properties.setEngine("MXNet");
+        properties.setModelArtifactId("ssd");
+        properties.setInputClass(Image.class);
+        properties.setOutputClass(DetectedObjects.class);
+        var servedModel = modelRegistry.register("detector", properties);
+        servedModel.loadStarted();
+        servedModel.loadSucceeded();
+
+        Predictor<String, String> predictor = mock(Predictor.class);
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 4, Duration.ofSeconds(1), Duration.ZERO)) {
+            servedModel.setPredictorPool(pool);
+            pool.predict("input");
+
+            var models = endpoint.models().getModels();
+            assertThat(models).containsOnlyKeys("detector");
+            var model = models.get("detector");
+            assertThat(model.getState()).isEqualTo("LOADED");
+            assertThat(model.getEngine()).isEqualTo("MXNet");
+            assertThat(model.getArtifactId()).isEqualTo("ssd");
+            assertThat(model.getInputClass()).isEqualTo(Image.class.getName());
+            assertThat(model.getLoadDuration()).isNotNull();
+            assertThat(model.getInference().getPredictions()).isEqualTo(1);
+            assertThat(model.getPool().getIdle()).isEqualTo(1);
+            assertThat(model.getPool().getMaxSize()).isEqualTo(4);
+            // no model instance is set, so native memory is unknown rather than zero
+            assertThat(model.getMemory().getLiveArrays()).isEqualTo(-1);
+            assertThat(model.getMemory().getLiveArrayBytes()).isEqualTo(-1);
+            assertThat(model.getMemory().getDeviceUsedBytes()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void reportsNativeMemoryOfLoadedModel() {
+        var manager = mock(BaseNDManager.class);
+        when(manager.getDevice()).thenReturn(Device.cpu());
+        List<NDArray> arrays = List.of(array(new Shape(2, 3), DataType.FLOAT32), array(new Shape(4), DataType.INT64));
+        when(manager.getManagedArrays()).thenReturn(arrays);
+        ZooModel<?, ?> model = mock(ZooModel.class);
+        when(model.getNDManager()).thenReturn(manager);
+        var servedModel = modelRegistry.register("default", new ModelProperties());
+        servedModel.loadStarted();
+        servedModel.setModel(model);
+        servedModel.loadSucceeded();
+
+        var memory = endpoint.model("default").getMemory();
+        assertThat(memory.getLiveArrays()).isEqualTo(2);
+        assertThat(memory.getLiveArrayBytes()).isEqualTo(2 * 3 * 4 + 4 * 8);
+        // only CUDA devices report their memory
+        assertThat(memory.getDeviceUsedBytes()).isEqualTo(-1);
+        assertThat(memory.getDeviceTotalBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    public void returnsNullForUnknownModel() {
+        assertThat(endpoint.model("missing")).isNull();
+    }
+
+    private static NDArray array(Shape shape, DataType dataType) {
+        var array = mock(NDArray.class);
+        when(array.getShape()).thenReturn(shape);
+        when(array.getDataType()).thenReturn(dataType);
+        return array;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.actuate;
+
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.model.LazyZooModel;
+import ai.djl.spring.model.ModelRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DjlHealthIndicatorTest {
+
+    private final ModelRegistry modelRegistry = new ModelRegistry(List.of());
+    private final DjlHealthIndicator healthIndicator = new DjlHealthIndicator(modelRegistry);
+
+    @Test
+    public void downWhileLoading() {
+        var servedModel = modelRegistry.register("detector", properties());
+        servedModel.loadStarted();
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+
+        servedModel.loadSucceeded();
+        var health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("detector", "LOADED");
+    }
+
+    @Test
+    public void downAfterFailedLoad() {
+        var servedModel = modelRegistry.register("detector", properties());
+        servedModel.loadStarted();
+        servedModel.loadFailed(new IOException("unreachable"));
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    public void upForLazyModelNotLoadedYet() {
+        var servedModel = modelRegistry.register("detector", properties());
+        servedModel.setModel(new LazyZooModel<>("detector", () -> null, Duration.ZERO));
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    private static ModelProperties properties() {
+        var properties = new ModelProperties();
+        properties.setEngine("MXNet");
+        return properties;
+    }
+}
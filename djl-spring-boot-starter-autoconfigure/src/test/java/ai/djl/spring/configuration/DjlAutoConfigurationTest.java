@@ -22,6 +22,9 @@ import ai.djl.modality.cv.transform.ToTensor;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ModelNotFoundException;
 import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
 import ai.djl.translate.Pipeline;
 import ai.djl.translate.Translator;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +54,9 @@ public class DjlAutoConfigurationTest {
         applicationContextRunner.run(context -> {
             assertThat(context).hasSingleBean(ZooModel.class);
             assertThat(context).hasBean("predictorProvider");
+            assertThat(context).hasSingleBean(PredictorPool.class);
+            assertThat(context.getBean(ModelRegistry.class).get(ModelRegistry.DEFAULT_MODEL_NAME).getState())
+                    .isEqualTo(ServedModel.State.LOADED);
         });
     }
 
@@ -60,6 +66,7 @@ public class DjlAutoConfigurationTest {
                 .run(context -> {
                     assertThat(context).hasSingleBean(ZooModel.class);
                     assertThat(context).doesNotHaveBean("predictorProvider");
+                    assertThat(context).doesNotHaveBean(PredictorPool.class);
                 });
     }
 
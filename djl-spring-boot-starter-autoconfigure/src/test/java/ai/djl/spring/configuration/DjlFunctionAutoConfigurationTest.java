@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.inference.Predictor;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.inference.ReactivePredictor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DjlFunctionAutoConfigurationTest {
+
+    private static final Queue<Integer> BATCH_SIZES = new ConcurrentLinkedQueue<>();
+
+    @Test
+    public void streamsMessagesThroughBatchPredictions() {
+        BATCH_SIZES.clear();
+        try (var context = run("--spring.cloud.function.definition=" + DjlFunctionAutoConfiguration.PREDICT,
+                "--djl.reactive.max-batch-size=4", "--djl.reactive.max-delay=50ms")) {
+            var input = context.getBean(InputDestination.class);
+            var output = context.getBean(OutputDestination.class);
+            for (int i = 0; i < 8; i++) {
+                input.send(MessageBuilder.withPayload(("input" + i).getBytes(StandardCharsets.UTF_8)).build(),
+                        "djlPredict-in-0");
+            }
+
+            List<String> outputs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Message<byte[]> message = output.receive(5000, "djlPredict-out-0");
+                assertThat(message).isNotNull();
+                outputs.add(new String(message.getPayload(), StandardCharsets.UTF_8));
+            }
+            assertThat(outputs).containsExactly("INPUT0", "INPUT1", "INPUT2", "INPUT3", "INPUT4", "INPUT5",
+                    "INPUT6", "INPUT7");
+            assertThat(BATCH_SIZES).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(4));
+        }
+    }
+
+    @Test
+    public void mapsBinderBatchesOntoBatchPredict() {
+        BATCH_SIZES.clear();
+        try (var context = run("--spring.cloud.function.definition=" + DjlFunctionAutoConfiguration.BATCH_PREDICT,
+                "--spring.cloud.stream.bindings.djlBatchPredict-in-0.consumer.batch-mode=true")) {
+            var input = context.getBean(InputDestination.class);
+            var output = context.getBean(OutputDestination.class);
+            input.send(MessageBuilder.withPayload(List.of("a", "b", "c")).build(), "djlBatchPredict-in-0");
+
+            Message<byte[]> message = output.receive(5000, "djlBatchPredict-out-0");
+            assertThat(message).isNotNull();
+            assertThat(new String(message.getPayload(), StandardCharsets.UTF_8)).isEqualTo("[\"A\",\"B\",\"C\"]");
+            assertThat(BATCH_SIZES).containsExactly(3);
+        }
+    }
+
+    private static ConfigurableApplicationContext run(String... args) {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--djl.function.enabled=true");
+        arguments.add("--djl.input-class=java.lang.String");
+        arguments.add("--djl.output-class=java.lang.String");
+        return new SpringApplicationBuilder(TestChannelBinderConfiguration.getCompleteConfiguration(
+                TestApplication.class)).web(WebApplicationType.NONE).run(arguments.toArray(new String[0]));
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    static class TestApplication {
+
+        @Bean
+        public ZooModel<?, ?> model() {
+            return mock(ZooModel.class);
+        }
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        public PredictorPool<?, ?> predictorPool() throws Exception {
+            Predictor<String, String> predictor = mock(Predictor.class);
+            when(predictor.batchPredict(anyList())).thenAnswer(invocation -> {
+                List<String> inputs = invocation.getArgument(0);
+                BATCH_SIZES.add(inputs.size());
+                return inputs.stream().map(String::toUpperCase).collect(Collectors.toList());
+            });
+            return new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+        }
+
+        @Bean
+        public ReactivePredictor<?, ?> reactivePredictor(PredictorPool<?, ?> predictorPool,
+                DjlConfigurationProperties properties) {
+            var reactive = properties.getReactive();
+            return new ReactivePredictor<>(predictorPool, reactive.getThreads(), reactive.getQueueCapacity(),
+                    reactive.getMaxBatchSize(), reactive.getMaxDelay());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.inference.PredictorPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DjlModelsAutoConfigurationTest {
+
+    private ApplicationContextRunner applicationContextRunner;
+
+    @BeforeEach
+    public void setUp() {
+        applicationContextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DjlAutoConfiguration.class, DjlModelsAutoConfiguration.class));
+    }
+
+    @Test
+    public void doesNotLoadNamedModelsByDefault() {
+        applicationContextRunner.withPropertyValues(
+                "djl.input-class = ai.djl.modality.cv.Image",
+                "djl.output-class = ai.djl.modality.Classifications",
+                "djl.modelArtifactId = ai.djl.mxnet:squeezenet")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ZooModel.class);
+                    assertThat(context).hasBean("model");
+                    assertThat(context).doesNotHaveBean(NamedModelsRegistrar.LOADER_BEAN_NAME);
+                });
+    }
+
+    @Test
+    public void loadNamedModels() {
+        applicationContextRunner.withPropertyValues(
+                "djl.models.classifier.input-class = ai.djl.modality.cv.Image",
+                "djl.models.classifier.output-class = ai.djl.modality.Classifications",
+                "djl.models.classifier.model-artifact-id = ai.djl.mxnet:squeezenet",
+                "djl.models.classifier.pool.max-size = 2",
+                "djl.models.detector.application-type = OBJECT_DETECTION",
+                "djl.models.detector.input-class = ai.djl.modality.cv.Image",
+                "djl.models.detector.output-class = ai.djl.modality.cv.output.DetectedObjects",
+                "djl.models.detector.model-filter.size = 512",
+                "djl.models.detector.model-filter.backbone = mobilenet1.0")
+                .withUserConfiguration(QualifiedInjectionConfiguration.class)
+                .run(context -> {
+                    assertThat(context).getBeans(ZooModel.class).containsOnlyKeys("classifierModel", "detectorModel");
+                    assertThat(context).hasBean("classifierPredictorProvider");
+                    assertThat(context).hasBean("detectorPredictorProvider");
+                    assertThat(context).getBeans(PredictorPool.class)
+                            .containsOnlyKeys("classifierPredictorPool", "detectorPredictorPool");
+                    assertThat(context).doesNotHaveBean("model");
+                    assertThat(context).doesNotHaveBean("predictorProvider");
+
+                    var injected = context.getBean(QualifiedInjectionConfiguration.class);
+                    assertThat(injected.classifierPool).isSameAs(context.getBean("classifierPredictorPool"));
+                    assertThat(injected.classifierPool.getMaxSize()).isEqualTo(2);
+                });
+    }
+
+    @Configuration
+    static class QualifiedInjectionConfiguration {
+
+        private final PredictorPool<?, ?> classifierPool;
+
+        QualifiedInjectionConfiguration(@Qualifier("classifier") PredictorPool<?, ?> classifierPool) {
+            this.classifierPool = classifierPool;
+        }
+    }
+}
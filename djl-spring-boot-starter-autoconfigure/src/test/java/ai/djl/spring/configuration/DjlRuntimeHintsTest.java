@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.Image;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DjlRuntimeHintsTest {
+
+    @Test
+    public void registersEngineDiscoveryResources() {
+        var hints = new RuntimeHints();
+        new DjlRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/ai.djl.engine.EngineProvider"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Image.class)).accepts(hints);
+    }
+
+    @Test
+    public void registersConfiguredModelClasses() {
+        var environment = new MockEnvironment()
+                .withProperty("djl.input-class", "ai.djl.modality.cv.Image")
+                .withProperty("djl.output-class", "ai.djl.modality.Classifications")
+                .withProperty("djl.models.detector.translator-factory",
+                        "ai.djl.modality.cv.translator.ImageClassificationTranslatorFactory");
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, environment);
+
+        var hints = new RuntimeHints();
+        var generationContext = mock(GenerationContext.class);
+        when(generationContext.getRuntimeHints()).thenReturn(hints);
+        new DjlModelClassesAotProcessor().processAheadOfTime(beanFactory).applyTo(generationContext, null);
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(Classifications.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("ai.djl.modality.cv.translator.ImageClassificationTranslatorFactory"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    public void skipsApplicationsWithoutModels() {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, new MockEnvironment());
+
+        assertThat(new DjlModelClassesAotProcessor().processAheadOfTime(beanFactory)).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModelLoaderTest {
+
+    @Test
+    public void mapsOnnxRuntimeSessionOptions() {
+        var properties = new ModelProperties();
+        properties.getOnnxruntime().setOptimizationLevel(ModelProperties.OnnxRuntime.OptimizationLevel.ALL_OPT);
+        properties.getOnnxruntime().setExecutionMode(ModelProperties.OnnxRuntime.ExecutionMode.PARALLEL);
+        properties.getOnnxruntime().setInterOpNumThreads(2);
+        properties.getOnnxruntime().setCpuArenaAllocator(false);
+
+        assertThat(ModelLoader.buildOptions(properties)).containsExactly(
+                Map.entry("optLevel", "ALL_OPT"),
+                Map.entry("executionMode", "PARALLEL"),
+                Map.entry("interOpNumThreads", "2"),
+                Map.entry("cpuArenaAllocator", "false"));
+    }
+
+    @Test
+    public void genericOptionsOverrideSessionOptions() {
+        var properties = new ModelProperties();
+        properties.getOnnxruntime().setIntraOpNumThreads(4);
+        properties.setOptions(Map.of("intraOpNumThreads", "1", "customOpLibrary", "/opt/ops.so"));
+
+        assertThat(ModelLoader.buildOptions(properties))
+                .containsEntry("intraOpNumThreads", "1")
+                .containsEntry("customOpLibrary", "/opt/ops.so")
+                .hasSize(2);
+    }
+
+    @Test
+    public void noOptionsByDefault() {
+        assertThat(ModelLoader.buildOptions(new ModelProperties())).isEmpty();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.configuration;
+
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.model.AsyncZooModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.availability.ApplicationAvailabilityAutoConfiguration;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ModelReadinessListenerTest {
+
+    private final ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ApplicationAvailabilityAutoConfiguration.class))
+            .withUserConfiguration(AsyncModelConfiguration.class)
+            .withPropertyValues("djl.async-loading=true");
+
+    @Test
+    public void refusesTrafficUntilModelIsLoaded() {
+        applicationContextRunner.run(context -> {
+            var availability = context.getBean(ApplicationAvailability.class);
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+
+            context.getBean(AsyncModelConfiguration.class).future.complete(mock(ZooModel.class));
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        });
+    }
+
+    @Test
+    public void marksApplicationBrokenWhenLoadingFails() {
+        applicationContextRunner.run(context -> {
+            var availability = context.getBean(ApplicationAvailability.class);
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+
+            context.getBean(AsyncModelConfiguration.class).future.completeExceptionally(new IllegalStateException());
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.REFUSING_TRAFFIC);
+            assertThat(availability.getLivenessState()).isEqualTo(LivenessState.BROKEN);
+        });
+    }
+
+    @Test
+    public void acceptsTrafficWhenModelIsAlreadyLoaded() {
+        applicationContextRunner.run(context -> {
+            var availability = context.getBean(ApplicationAvailability.class);
+            context.getBean(AsyncModelConfiguration.class).future.complete(mock(ZooModel.class));
+            AvailabilityChangeEvent.publish(context, ReadinessState.ACCEPTING_TRAFFIC);
+            assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        });
+    }
+
+    @Configuration
+    @Import(DjlAsyncLoadingConfiguration.class)
+    static class AsyncModelConfiguration {
+
+        private final CompletableFuture<ZooModel<?, ?>> future = new CompletableFuture<>();
+
+        @Bean
+        public ZooModel<?, ?> model() {
+            return new AsyncZooModel<>(future);
+        }
+    }
+}
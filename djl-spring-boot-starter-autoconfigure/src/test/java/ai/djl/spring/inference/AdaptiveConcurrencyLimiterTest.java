@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void rejectsPredictionsBeyondLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2, 100);
+        limiter.acquire();
+        limiter.acquire();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release(System.nanoTime(), false);
+        limiter.acquire();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void growsWhileLatencyIsStableAndShrinksWhenItRises() {
+        var limiter = new AdaptiveConcurrencyLimiter(4, 1, 100, 1.5, 0.2, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(MILLIS, limiter.getLimit());
+        }
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(4);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.sample(10 * MILLIS, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isLessThan(grown / 2);
+    }
+
+    @Test
+    public void staysWithinBoundsAndDoesNotGrowWhenUnderused() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 12, 1.5, 1.0, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(MILLIS, 1);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(MILLIS, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(12);
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(100 * MILLIS, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void shrinksWhenLatencyRisesEvenIfUnderused() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 12, 1.5, 1.0, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(MILLIS, 1);
+        }
+        for (int i = 0; i < 50; i++) {
+            limiter.sample(100 * MILLIS, 1);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+}
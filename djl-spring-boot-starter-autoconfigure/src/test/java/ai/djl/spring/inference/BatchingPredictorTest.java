@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BatchingPredictorTest {
+
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @SuppressWarnings("unchecked")
+    private PredictorPool<String, String> newPool() {
+        return new PredictorPool<>(() -> {
+            Predictor<String, String> predictor = mock(Predictor.class);
+            try {
+                when(predictor.batchPredict(anyList())).thenAnswer(invocation -> {
+                    List<String> inputs = invocation.getArgument(0);
+                    batchSizes.add(inputs.size());
+                    return inputs.stream().map(String::toUpperCase).collect(Collectors.toList());
+                });
+            } catch (TranslateException e) {
+                throw new AssertionError(e);
+            }
+            return predictor;
+        }, 0, 1, Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    @Test
+    public void gathersConcurrentRequestsIntoBatches() throws Exception {
+        try (var pool = newPool();
+                var batching = new BatchingPredictor<>(pool, 4, Duration.ofMillis(200), 100, 1)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(batching.predict("item" + i));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertThat(futures.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("ITEM" + i);
+            }
+            assertThat(batchSizes).allMatch(size -> size <= 4);
+            assertThat(batchSizes.size()).isLessThan(8);
+        }
+    }
+
+    @Test
+    public void dispatchesPartialBatchAfterMaxDelay() throws Exception {
+        try (var pool = newPool();
+                var batching = new BatchingPredictor<>(pool, 64, Duration.ofMillis(10), 100, 1)) {
+            assertThat(batching.predict("single").get(5, TimeUnit.SECONDS)).isEqualTo("SINGLE");
+            assertThat(batchSizes).containsExactly(1);
+        }
+    }
+
+    @Test
+    public void rejectsWhenQueueIsFull() {
+        try (var pool = newPool();
+                var batching = new BatchingPredictor<>(pool, 1, Duration.ZERO, 1, 1)) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(batching.predict("item" + i));
+            }
+            assertThat(futures).anySatisfy(future -> assertThatThrownBy(future::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RejectedExecutionException.class));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkInferenceRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<Path, String> written = new ConcurrentHashMap<>();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void processesDirectoryAndResumesFromCheckpoint() throws Exception {
+        Path images = Files.createDirectories(dir.resolve("images"));
+        for (int i = 0; i < 50; i++) {
+            Files.writeString(images.resolve("file" + i + ".txt"), "input" + i);
+        }
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                .stream().map(String::toUpperCase).collect(Collectors.toList()));
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            var runner = newRunner(pool);
+            Path checkpoint = dir.resolve("checkpoint.txt");
+            var summary = runner.run(images, checkpoint);
+
+            assertThat(summary.getProcessed()).isEqualTo(50);
+            assertThat(summary.getFailed()).isZero();
+            assertThat(written).hasSize(50).containsEntry(images.resolve("file7.txt"), "INPUT7");
+            assertThat(Files.readAllLines(checkpoint)).hasSize(50);
+
+            written.clear();
+            summary = runner.run(images, checkpoint);
+            assertThat(summary.getProcessed()).isZero();
+            assertThat(summary.getSkipped()).isEqualTo(50);
+            assertThat(written).isEmpty();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void isolatesFailingInputs() throws Exception {
+        Path manifest = dir.resolve("manifest.txt");
+        Files.writeString(manifest, "a.txt\nbad.txt\nc.txt\n");
+        for (String name : List.of("a", "bad", "c")) {
+            Files.writeString(dir.resolve(name + ".txt"), name);
+        }
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> {
+            List<String> inputs = invocation.getArgument(0);
+            if (inputs.contains("bad")) {
+                throw new TranslateException("bad batch");
+            }
+            return inputs.stream().map(String::toUpperCase).collect(Collectors.toList());
+        });
+        when(predictor.predict(anyString())).thenAnswer(invocation -> {
+            String input = invocation.getArgument(0);
+            if ("bad".equals(input)) {
+                throw new TranslateException("bad input");
+            }
+            return input.toUpperCase();
+        });
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            var summary = newRunner(pool).run(manifest, dir.resolve("checkpoint.txt"));
+
+            assertThat(summary.getProcessed()).isEqualTo(2);
+            assertThat(summary.getFailed()).isEqualTo(1);
+            assertThat(written).containsOnlyKeys(dir.resolve("a.txt"), dir.resolve("c.txt"));
+            assertThat(Files.readAllLines(dir.resolve("checkpoint.txt"))).hasSize(2);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void predictsOneByOneWhenBatchLosesOutputs() throws Exception {
+        Path manifest = dir.resolve("manifest.txt");
+        Files.writeString(manifest, "a.txt\nb.txt\nc.txt\n");
+        for (String name : List.of("a", "b", "c")) {
+            Files.writeString(dir.resolve(name + ".txt"), name);
+        }
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> List.of("lost"));
+        when(predictor.predict(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).toUpperCase());
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            var summary = newRunner(pool).run(manifest, dir.resolve("checkpoint.txt"));
+
+            assertThat(summary.getProcessed()).isEqualTo(3);
+            assertThat(written).containsEntry(dir.resolve("a.txt"), "A").doesNotContainValue("lost");
+            assertThat(Files.readAllLines(dir.resolve("checkpoint.txt"))).hasSize(3);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void endsWhenWorkerDiesOfError() throws Exception {
+        Path manifest = dir.resolve("manifest.txt");
+        Files.writeString(manifest, "a.txt\nfatal.txt\nc.txt\n");
+        for (String name : List.of("a", "fatal", "c")) {
+            Files.writeString(dir.resolve(name + ".txt"), name);
+        }
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                .stream().map(String::toUpperCase).collect(Collectors.toList()));
+        BulkInferenceRunner.InputReader<String> reader = file -> {
+            if (file.endsWith("fatal.txt")) {
+                throw new AssertionError("fatal");
+            }
+            return read(file);
+        };
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            var runner = new BulkInferenceRunner<>(pool, reader, this::write, 2, 2, 8, 4);
+            var summary = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> runner.run(manifest, dir.resolve("checkpoint.txt")));
+
+            assertThat(summary.getProcessed()).isEqualTo(2);
+            assertThat(written).containsOnlyKeys(dir.resolve("a.txt"), dir.resolve("c.txt"));
+        }
+    }
+
+    private BulkInferenceRunner<String, String> newRunner(PredictorPool<String, String> pool) {
+        return new BulkInferenceRunner<>(pool, BulkInferenceRunnerTest::read, this::write, 2, 2, 8, 4);
+    }
+
+    private static String read(Path file) throws IOException {
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    private void write(Path file, String input, String output) {
+        written.put(file, output);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Input;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.BytesSupplier;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+public class CachingPredictorTest {
+
+    private final AtomicInteger predictions = new AtomicInteger();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void servesEqualInputsFromCache() throws TranslateException {
+        Predictor<byte[], String> predictor = mock(Predictor.class);
+        when(predictor.predict(any())).thenAnswer(invocation -> {
+            predictions.incrementAndGet();
+            return new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8);
+        });
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            var caching = new CachingPredictor<>(pool, "default", 100, Duration.ofMinutes(1));
+            assertThat(caching.predict("a".getBytes(StandardCharsets.UTF_8))).isEqualTo("a");
+            assertThat(caching.predict("a".getBytes(StandardCharsets.UTF_8))).isEqualTo("a");
+            assertThat(caching.predict("b".getBytes(StandardCharsets.UTF_8))).isEqualTo("b");
+
+            assertThat(predictions).hasValue(2);
+            assertThat(caching.getHitCount()).isEqualTo(1);
+            assertThat(caching.getMissCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void coalescesConcurrentRequests() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> {
+            predictions.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "output";
+        });
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            var caching = new CachingPredictor<>(pool, "default", 100, null);
+            var first = CompletableFuture.supplyAsync(() -> predict(caching));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var second = CompletableFuture.supplyAsync(() -> predict(caching));
+            while (caching.getHitCount() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("output");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("output");
+            assertThat(predictions).hasValue(1);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doesNotCacheFailures() throws TranslateException {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("input")).thenThrow(new TranslateException("failed")).thenReturn("output");
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            var caching = new CachingPredictor<>(pool, "default", 100, Duration.ofMinutes(1));
+            assertThatThrownBy(() -> caching.predict("input")).isInstanceOf(TranslateException.class);
+            assertThat(caching.predict("input")).isEqualTo("output");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void doesNotShareNDResourceOutputs() throws TranslateException {
+        Predictor<String, NDList> predictor = mock(Predictor.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> {
+            predictions.incrementAndGet();
+            return new NDList();
+        });
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            var caching = new CachingPredictor<>(pool, "default", 100, Duration.ofMinutes(1));
+            var first = caching.predict("input");
+            var second = caching.predict("input");
+
+            assertThat(second).isNotSameAs(first);
+            assertThat(predictions).hasValue(2);
+            assertThat(caching.getSize()).isZero();
+        }
+    }
+
+    @Test
+    public void keysOtherImagesByTheirArrays() {
+        try (var managers = mockStatic(NDManager.class)) {
+            NDManager manager = mock(NDManager.class);
+            managers.when(NDManager::newBaseManager).thenReturn(manager);
+
+            byte[] red = CachingPredictor.toBytes(image(new byte[] {(byte) 255, 0, 0}));
+            assertThat(red).isEqualTo(CachingPredictor.toBytes(image(new byte[] {(byte) 255, 0, 0})));
+            assertThat(red).isNotEqualTo(CachingPredictor.toBytes(image(new byte[] {0, 0, (byte) 255})));
+        }
+    }
+
+    @Test
+    public void keysInputFieldsSeparately() {
+        var first = new Input();
+        first.add("ab", "c");
+        var second = new Input();
+        second.add("a", "bc");
+        assertThat(CachingPredictor.toBytes(first)).isNotEqualTo(CachingPredictor.toBytes(second));
+
+        var unnamed = new Input();
+        unnamed.getContent().add(null, BytesSupplier.wrap("c"));
+        var empty = new Input();
+        empty.getContent().add("", BytesSupplier.wrap("c"));
+        assertThat(CachingPredictor.toBytes(unnamed)).isNotEqualTo(CachingPredictor.toBytes(empty));
+    }
+
+    @Test
+    public void keysSubimagesByTheirOwnPixels() {
+        var image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+        var graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 2, 2);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(2, 0, 2, 2);
+        graphics.dispose();
+        var red = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        graphics = red.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 2, 2);
+        graphics.dispose();
+
+        var factory = ImageFactory.getInstance();
+        byte[] left = CachingPredictor.toBytes(factory.fromImage(image.getSubimage(0, 0, 2, 2)));
+        byte[] right = CachingPredictor.toBytes(factory.fromImage(image.getSubimage(2, 0, 2, 2)));
+        assertThat(left).isNotEqualTo(right);
+        assertThat(left).isEqualTo(CachingPredictor.toBytes(factory.fromImage(red)));
+    }
+
+    private static Image image(byte[] pixel) {
+        NDArray array = mock(NDArray.class);
+        when(array.getShape()).thenReturn(new Shape(1, 1, 3));
+        when(array.getDataType()).thenReturn(DataType.UINT8);
+        when(array.toByteBuffer()).thenAnswer(invocation -> ByteBuffer.wrap(pixel));
+        Image image = mock(Image.class);
+        when(image.getWrappedImage()).thenReturn(new Object());
+        when(image.toNDArray(any(NDManager.class))).thenReturn(array);
+        return image;
+    }
+
+    private static String predict(CachingPredictor<String, String> caching) {
+        try {
+            return caching.predict("input");
+        } catch (TranslateException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
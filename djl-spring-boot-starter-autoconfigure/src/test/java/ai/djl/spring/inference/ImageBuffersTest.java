@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ImageBuffersTest {
+
+    @Test
+    public void passesDirectBufferToEngine() {
+        var pixels = ByteBuffer.allocateDirect(2 * 3 * 3);
+        var manager = mock(NDManager.class);
+        var array = mock(NDArray.class);
+        when(manager.create(same(pixels), eq(new Shape(3, 2, 3)), eq(DataType.UINT8))).thenReturn(array);
+
+        assertThat(ImageBuffers.fromPixels(manager, pixels, 2, 3, ImageBuffers.PixelFormat.RGB)).isSameAs(array);
+        verify(array, never()).close();
+    }
+
+    @Test
+    public void reordersBgrChannels() {
+        var pixels = ByteBuffer.allocateDirect(2 * 2 * 3);
+        var manager = mock(NDManager.class);
+        var array = mock(NDArray.class);
+        var flipped = mock(NDArray.class);
+        when(manager.create(any(ByteBuffer.class), any(Shape.class), any(DataType.class))).thenReturn(array);
+        when(array.flip(2)).thenReturn(flipped);
+
+        assertThat(ImageBuffers.fromPixels(manager, pixels, 2, 2, ImageBuffers.PixelFormat.BGR)).isSameAs(flipped);
+        verify(array).close();
+    }
+
+    @Test
+    public void attachesMappedFileToArrayManager() throws IOException {
+        Path file = Files.createTempFile("pixels", ".rgb");
+        try {
+            Files.write(file, new byte[2 * 2 * 3]);
+            var manager = mock(NDManager.class);
+            var array = mock(NDArray.class);
+            when(manager.create(any(ByteBuffer.class), any(Shape.class), any(DataType.class))).thenReturn(array);
+            when(array.getManager()).thenReturn(manager);
+
+            assertThat(ImageBuffers.fromPixelFile(manager, file, 2, 2, ImageBuffers.PixelFormat.RGB)).isSameAs(array);
+            verify(manager).attachInternal(anyString(), any(AutoCloseable.class));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void rejectsBufferOfWrongSize() {
+        var manager = mock(NDManager.class);
+        assertThatThrownBy(() -> ImageBuffers.fromPixels(manager, ByteBuffer.allocate(10), 2, 2,
+                ImageBuffers.PixelFormat.RGB)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InferenceExecutorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void runsPredictionOnInferenceThreads() throws TranslateException {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+                var executor = new InferenceExecutor<>(pool, 4, 10, true)) {
+            assertThat(executor.predictAsync("input").join()).startsWith("djl-inference-");
+            assertThat(executor.predictAsync(() -> "input").join()).startsWith("djl-inference-");
+            assertThat(pool.getActiveCount()).isZero();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void propagatesFailures() throws TranslateException {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("fail")).thenThrow(new TranslateException("failed"));
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(1), Duration.ZERO);
+                var executor = new InferenceExecutor<>(pool, 1, 10, false)) {
+            assertThat(executor.isVirtualThreads()).isFalse();
+            assertThatThrownBy(() -> executor.predictAsync("fail").join()).isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(TranslateException.class);
+            assertThatThrownBy(() -> executor.predictAsync(() -> {
+                throw new IOException("unreadable");
+            }).join()).hasCauseInstanceOf(IOException.class);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.spring.inference.InferenceScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InferenceSchedulerTest {
+
+    private final List<String> predicted = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PredictorPool<String, String> pool;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict(anyString())).thenAnswer(invocation -> {
+            String input = invocation.getArgument(0);
+            if ("block".equals(input)) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            predicted.add(input);
+            return input.toUpperCase();
+        });
+        pool = new PredictorPool<>(() -> predictor, 0, 1, Duration.ofSeconds(5), Duration.ZERO);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        pool.close();
+    }
+
+    @Test
+    public void runsHigherPriorityClassesFirst() throws Exception {
+        try (var scheduler = new InferenceScheduler<>(pool, 1, 100, Map.of())) {
+            var blocking = scheduler.predict("block", Priority.BATCH);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            futures.add(scheduler.predict("bulk1", Priority.BATCH));
+            futures.add(scheduler.predict("bulk2", Priority.BATCH));
+            futures.add(scheduler.predict("default", Priority.DEFAULT));
+            futures.add(scheduler.predict("interactive", Priority.INTERACTIVE));
+            assertThat(scheduler.getQueueSize(Priority.BATCH)).isEqualTo(2);
+
+            release.countDown();
+            blocking.get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<String> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertThat(predicted).containsExactly("block", "interactive", "default", "bulk1", "bulk2");
+        }
+    }
+
+    @Test
+    public void dropsExpiredRequestsBeforePredicting() throws Exception {
+        List<String> expired = Collections.synchronizedList(new ArrayList<>());
+        List<String> waited = Collections.synchronizedList(new ArrayList<>());
+        try (var scheduler = new InferenceScheduler<>(pool, 1, 100,
+                Map.of(Priority.INTERACTIVE, Duration.ofMillis(20)))) {
+            scheduler.setObserver(new InferenceObserver() {
+                @Override
+                public void onQueueWait(String priority, long nanos) {
+                    waited.add(priority);
+                }
+
+                @Override
+                public void onExpired(String priority) {
+                    expired.add(priority);
+                }
+            });
+            var blocking = scheduler.predict("block", Priority.BATCH);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var late = scheduler.predict("late", Priority.INTERACTIVE);
+            var patient = scheduler.predict("patient", Priority.BATCH);
+
+            // the caller is released at the deadline, while the request is still queued
+            assertThatThrownBy(() -> late.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+            release.countDown();
+            blocking.get(5, TimeUnit.SECONDS);
+            assertThat(patient.get(5, TimeUnit.SECONDS)).isEqualTo("PATIENT");
+
+            assertThat(predicted).containsExactly("block", "patient");
+            assertThat(scheduler.getExpiredCount(Priority.INTERACTIVE)).isEqualTo(1);
+            assertThat(expired).containsExactly("INTERACTIVE");
+            assertThat(waited).containsExactly("BATCH", "BATCH");
+        }
+    }
+
+    @Test
+    public void rejectsRequestsBeyondQueueCapacity() throws Exception {
+        try (var scheduler = new InferenceScheduler<>(pool, 1, 1, Map.of())) {
+            var blocking = scheduler.predict("block", Priority.DEFAULT);
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            var queued = scheduler.predict("queued", Priority.DEFAULT);
+            var rejected = scheduler.predict("rejected", Priority.INTERACTIVE);
+
+            assertThatThrownBy(rejected::join).hasCauseInstanceOf(RejectedExecutionException.class);
+            release.countDown();
+            assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo("BLOCK");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("QUEUED");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.cv.Image;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ModelWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void predictsEveryBatchSizeAndThreadCount() throws Exception {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict(anyString())).thenReturn("output");
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                .stream().map(String::toUpperCase).collect(Collectors.toList()));
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            new ModelWarmup<>(pool, List.of("a", "b", "c"), 3, List.of(1, 4), List.of(1, 8)).run("test");
+
+            // 3 iterations on 1 thread, then on 2 threads since the pool holds 2 predictors
+            verify(predictor, times(9)).predict(anyString());
+            verify(predictor, times(9)).batchPredict(anyList());
+        }
+    }
+
+    @Test
+    public void generatesSyntheticInputs() {
+        assertThat(ModelWarmup.syntheticInputs(String.class, 1, 1)).hasSize(1);
+        Image image = ModelWarmup.syntheticInputs(Image.class, 32, 16).get(0);
+        assertThat(image.getWidth()).isEqualTo(32);
+        assertThat(image.getHeight()).isEqualTo(16);
+        assertThatThrownBy(() -> ModelWarmup.syntheticInputs(Integer.class, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void readsSampleFiles() throws Exception {
+        Path sample = Files.writeString(dir.resolve("sample.txt"), "hello");
+        assertThat(ModelWarmup.readSamples(String.class, List.of(sample))).containsExactly("hello");
+        assertThat(ModelWarmup.readSamples(byte[].class, List.of(sample)).get(0)).hasSize(5);
+    }
+}
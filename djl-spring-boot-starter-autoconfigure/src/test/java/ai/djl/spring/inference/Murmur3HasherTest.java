@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Murmur3HasherTest {
+
+    private static final byte[] FOX = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void matchesReferenceHashes() {
+        assertThat(hex(new Murmur3Hasher().hash())).isEqualTo("00000000000000000000000000000000");
+        assertThat(hex(new Murmur3Hasher().put(FOX).hash())).isEqualTo("6c1b07bc7bbc4be347939ac4a93c437a");
+    }
+
+    @Test
+    public void hashesChunksLikeTheWholeInput() {
+        byte[] whole = new Murmur3Hasher().put(FOX).hash();
+        for (int split = 0; split <= FOX.length; split++) {
+            var hasher = new Murmur3Hasher().put(FOX, 0, split);
+            hasher.put(ByteBuffer.allocateDirect(FOX.length - split).put(FOX, split, FOX.length - split).flip());
+            assertThat(hasher.hash()).isEqualTo(whole);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        var hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
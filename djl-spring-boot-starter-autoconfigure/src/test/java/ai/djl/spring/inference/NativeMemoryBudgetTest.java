@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class NativeMemoryBudgetTest {
+
+    private final AtomicLong used = new AtomicLong();
+
+    @Test
+    public void rejectsWhileAboveLimit() {
+        used.set(2048);
+        try (var budget = new NativeMemoryBudget(1024, Duration.ofMillis(50), Duration.ofHours(1), used::get)) {
+            budget.sample();
+            assertThatThrownBy(budget::admit).isInstanceOf(NativeMemoryExhaustedException.class);
+            assertThat(budget.getRejectedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void admitsWaitingPredictionWhenMemoryIsReleased() throws Exception {
+        used.set(2048);
+        try (var budget = new NativeMemoryBudget(1024, Duration.ofSeconds(10), Duration.ofHours(1), used::get)) {
+            budget.sample();
+            var admitted = CompletableFuture.runAsync(budget::admit);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (budget.getWaitingCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(budget.getWaitingCount()).isEqualTo(1);
+
+            used.set(512);
+            budget.sample();
+            admitted.get(5, TimeUnit.SECONDS);
+            assertThat(budget.getRejectedCount()).isZero();
+        }
+    }
+
+    @Test
+    public void reservesEstimateUntilPredictionCompletes() {
+        try (var budget = new NativeMemoryBudget(1024, 0, 400, Duration.ofMillis(50), Duration.ofHours(1),
+                used::get)) {
+            budget.sample();
+            var first = budget.admit();
+            var second = budget.admit();
+            assertThat(budget.getReservedBytes()).isEqualTo(800);
+            assertThatThrownBy(budget::admit).isInstanceOf(NativeMemoryExhaustedException.class);
+
+            first.close();
+            first.close();
+            assertThat(budget.getReservedBytes()).isEqualTo(400);
+            budget.admit().close();
+            second.close();
+            assertThat(budget.getReservedBytes()).isZero();
+        }
+    }
+
+    @Test
+    public void reservesEstimatePerBatchItem() {
+        try (var budget = new NativeMemoryBudget(1024, 0, 100, Duration.ofMillis(50), Duration.ofHours(1),
+                used::get)) {
+            budget.sample();
+            var batch = budget.admit(8);
+            assertThat(batch.getBytes()).isEqualTo(800);
+            assertThatThrownBy(() -> budget.admit(4)).isInstanceOf(NativeMemoryExhaustedException.class);
+            batch.close();
+        }
+    }
+
+    @Test
+    public void keepsHeadroomFree() {
+        used.set(600);
+        try (var budget = new NativeMemoryBudget(1024, 512, 0, Duration.ofMillis(50), Duration.ofHours(1),
+                used::get)) {
+            budget.sample();
+            assertThatThrownBy(budget::admit).isInstanceOf(NativeMemoryExhaustedException.class);
+
+            used.set(400);
+            budget.sample();
+            budget.admit().close();
+        }
+    }
+
+    @Test
+    public void admitsOnePredictionLargerThanLimit() {
+        try (var budget = new NativeMemoryBudget(1024, 0, 4096, Duration.ofMillis(50), Duration.ofHours(1),
+                used::get)) {
+            budget.sample();
+            try (var reservation = budget.admit()) {
+                assertThat(reservation.getBytes()).isEqualTo(4096);
+                assertThatThrownBy(budget::admit).isInstanceOf(NativeMemoryExhaustedException.class);
+            }
+            budget.admit().close();
+        }
+    }
+
+    @Test
+    public void admitsEverythingWithoutLimit() {
+        used.set(Long.MAX_VALUE);
+        try (var budget = new NativeMemoryBudget(0, Duration.ZERO, Duration.ofHours(1), used::get)) {
+            budget.admit();
+            assertThat(budget.getUsedBytes()).isEqualTo(Long.MAX_VALUE);
+        }
+    }
+}
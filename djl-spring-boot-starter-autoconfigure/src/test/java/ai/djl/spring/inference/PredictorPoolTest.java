@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class PredictorPoolTest {
+
+    private final List<Predictor<String, String>> created = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<Predictor<String, String>> factory = () -> {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        created.add(predictor);
+        return predictor;
+    };
+
+    @Test
+    public void reusesReturnedPredictor() {
+        try (var pool = new PredictorPool<>(factory, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            Predictor<String, String> first;
+            try (var predictor = pool.borrow()) {
+                first = predictor.getPredictor();
+            }
+            try (var predictor = pool.borrow()) {
+                assertThat(predictor.getPredictor()).isSameAs(first);
+            }
+            assertThat(created).hasSize(1);
+            verify(first, never()).close();
+        }
+    }
+
+    @Test
+    public void prefillsMinIdle() {
+        try (var pool = new PredictorPool<>(factory, 2, 4, Duration.ofSeconds(1), Duration.ZERO)) {
+            pool.prefill();
+            assertThat(pool.getIdleCount()).isEqualTo(2);
+            assertThat(pool.getSize()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void failsWhenExhausted() {
+        try (var pool = new PredictorPool<>(factory, 0, 1, Duration.ofMillis(10), Duration.ZERO)) {
+            try (var predictor = pool.borrow()) {
+                assertThat(predictor).isNotNull();
+                assertThat(pool.getActiveCount()).isEqualTo(1);
+                assertThatThrownBy(pool::borrow).isInstanceOf(PredictorPoolExhaustedException.class);
+            }
+            assertThat(pool.getActiveCount()).isZero();
+        }
+    }
+
+    @Test
+    public void rejectsBorrowsBeyondConcurrencyLimitWithoutWaiting() {
+        try (var pool = new PredictorPool<>(factory, 0, 1, Duration.ofSeconds(30), Duration.ZERO)) {
+            var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 1.5, 0.2, 100);
+            pool.setConcurrencyLimiter(limiter);
+            try (var predictor = pool.borrow()) {
+                assertThat(predictor).isNotNull();
+                long begin = System.nanoTime();
+                assertThatThrownBy(pool::borrow).isInstanceOf(ConcurrencyLimitExceededException.class);
+                assertThat(Duration.ofNanos(System.nanoTime() - begin)).isLessThan(Duration.ofSeconds(1));
+                assertThat(pool.getWaitingCount()).isZero();
+                assertThat(limiter.getInFlight()).isEqualTo(1);
+            }
+            assertThat(limiter.getInFlight()).isZero();
+        }
+    }
+
+    @Test
+    public void closesInvalidatedPredictor() {
+        try (var pool = new PredictorPool<>(factory, 0, 1, Duration.ofSeconds(1), Duration.ZERO)) {
+            try (var predictor = pool.borrow()) {
+                predictor.invalidate();
+            }
+            verify(created.get(0)).close();
+            assertThat(pool.getIdleCount()).isZero();
+            assertThat(pool.getSize()).isZero();
+        }
+    }
+
+    @Test
+    public void evictsIdlePredictorsAboveMinIdle() throws InterruptedException {
+        try (var pool = new PredictorPool<>(factory, 1, 3, Duration.ofSeconds(1), Duration.ofMillis(20))) {
+            var first = pool.borrow();
+            var second = pool.borrow();
+            var third = pool.borrow();
+            first.close();
+            second.close();
+            third.close();
+            assertThat(pool.getIdleCount()).isEqualTo(3);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.getIdleCount() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(pool.getIdleCount()).isEqualTo(1);
+            assertThat(pool.getSize()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void closeDestroysIdleAndReturnedPredictors() {
+        var pool = new PredictorPool<>(factory, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+        var borrowed = pool.borrow();
+        pool.borrow().close();
+        pool.close();
+        verify(created.get(1)).close();
+        verify(created.get(0), never()).close();
+
+        borrowed.close();
+        verify(created.get(0)).close();
+        assertThatThrownBy(pool::borrow).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.inference.Predictor;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReactivePredictorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void predictsOnInferenceScheduler() throws TranslateException {
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> Thread.currentThread().getName());
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+                var reactive = new ReactivePredictor<>(pool, 2, 10, 4, Duration.ofMillis(10))) {
+            assertThat(reactive.predict("input").block()).startsWith("djl-reactive");
+            assertThat(reactive.predict(Mono.just("input")).block()).startsWith("djl-reactive");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batchesStreamsInOrder() throws TranslateException {
+        var batchSizes = new CopyOnWriteArrayList<Integer>();
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> {
+            List<String> inputs = invocation.getArgument(0);
+            batchSizes.add(inputs.size());
+            return inputs.stream().map(String::toUpperCase).collect(Collectors.toList());
+        });
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+                var reactive = new ReactivePredictor<>(pool, 2, 10, 4, Duration.ofMillis(10))) {
+            var inputs = IntStream.range(0, 10).mapToObj(i -> "input" + i).collect(Collectors.toList());
+            var outputs = reactive.predict(Flux.fromIterable(inputs)).collectList().block();
+
+            assertThat(outputs).containsExactlyElementsOf(
+                    inputs.stream().map(String::toUpperCase).collect(Collectors.toList()));
+            assertThat(batchSizes).allMatch(size -> size <= 4);
+            assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.inference;
+
+import ai.djl.Device;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.NDScope;
+import ai.djl.repository.zoo.ZooModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScopedPredictorTest {
+
+    private ZooModel<String, NDList> model;
+    private Predictor<String, NDList> predictor;
+    private InferenceObserver observer;
+    private NDManager manager;
+    private NDManager subManager;
+    private final AtomicInteger leaks = new AtomicInteger();
+    private final NativeMemoryBudget budget = new NativeMemoryBudget(0, Duration.ZERO, Duration.ZERO, () -> 0);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        model = mock(ZooModel.class);
+        predictor = mock(Predictor.class);
+        observer = mock(InferenceObserver.class);
+        manager = mock(NDManager.class);
+        subManager = mock(NDManager.class);
+        when(manager.getDevice()).thenReturn(Device.cpu());
+        when(manager.newSubManager(any(Device.class))).thenReturn(subManager);
+        when(subManager.getDevice()).thenReturn(Device.cpu());
+        when(model.getNDManager()).thenReturn(manager);
+        when(model.newPredictor()).thenReturn(predictor);
+        doAnswer(invocation -> leaks.incrementAndGet()).when(observer).onPredictorLeaked(any());
+    }
+
+    @Test
+    public void closesTemporariesButKeepsOutput() throws Exception {
+        var temporary = mock(NDArray.class);
+        var output = mock(NDArray.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> {
+            NDScope.register(temporary);
+            NDScope.register(output);
+            return new NDList(output);
+        });
+
+        try (var scoped = new ScopedPredictor<>(model, observer, budget, null, true, 0)) {
+            assertThat(scoped.predict("input").singletonOrThrow()).isSameAs(output);
+        }
+        verify(temporary).close();
+        verify(output, never()).close();
+    }
+
+    @Test
+    public void leavesArraysAloneWhenNotScoped() throws Exception {
+        var temporary = mock(NDArray.class);
+        when(predictor.predict("input")).thenAnswer(invocation -> {
+            NDScope.register(temporary);
+            return new NDList();
+        });
+
+        try (var scope = new NDScope();
+                var scoped = new ScopedPredictor<>(model, observer, budget, null, false, 0)) {
+            scope.suppressNotUsedWarning();
+            scoped.predict("input");
+            verify(temporary, never()).close();
+        }
+    }
+
+    @Test
+    public void holdsNoNativeResourcesOfItsOwn() {
+        try (var scoped = new ScopedPredictor<>(model, observer, budget, null, true, 0)) {
+            assertThat(scoped.getPredictor()).isSameAs(predictor);
+            verify(subManager).close();
+        }
+        verify(model, times(1)).newPredictor();
+    }
+
+    @Test
+    public void reportsCloseOnceAndLeaksWithAllocationSite() throws Exception {
+        var closed = new ScopedPredictor<>(model, observer, budget, null, true, 0);
+        closed.close();
+        closed.close();
+        verify(observer, times(1)).onPredictorClosed();
+        verify(predictor, times(1)).close();
+
+        createAndDrop(1, false);
+        createAndDrop(1, true);
+        createAndDrop(0, false);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (leaks.get() < 3 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        verify(observer).onPredictorLeaked(argThat(site -> site != null
+                && "Array allocated here".equals(site.getMessage())));
+        verify(observer, times(2)).onPredictorLeaked(isNull());
+        verify(predictor, times(4)).close();
+        verify(observer, times(1)).onPredictorClosed();
+    }
+
+    private void createAndDrop(double stackSampling, boolean released) throws Exception {
+        var output = mock(NDArray.class);
+        when(output.isReleased()).thenReturn(released);
+        when(predictor.predict("input")).thenReturn(new NDList(output));
+        new ScopedPredictor<>(model, observer, budget, null, true, stackSampling).predict("input");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.metrics;
+
+import ai.djl.inference.Predictor;
+import ai.djl.metric.Unit;
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.translate.TranslateException;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MicrometerModelListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ModelRegistry modelRegistry = new ModelRegistry(List.of(new MicrometerModelListener(meterRegistry)));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void recordsPredictionsAndErrors() throws TranslateException {
+        var servedModel = modelRegistry.register("resnet", properties());
+        Predictor<String, String> predictor = mock(Predictor.class);
+        when(predictor.predict("fail")).thenThrow(new TranslateException("failed"));
+
+        try (var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO)) {
+            servedModel.setPredictorPool(pool);
+            pool.predict("ok");
+            pool.batchPredict(List.of("a", "b"));
+            assertThatThrownBy(() -> pool.predict("fail")).isInstanceOf(TranslateException.class);
+
+            assertThat(meterRegistry.get(MicrometerModelListener.PREDICTION_TIMER)
+                    .tags("model", "resnet", "engine", "MXNet")
+                    .timer()
+                    .count()).isEqualTo(2);
+            assertThat(meterRegistry.get(MicrometerModelListener.ERROR_COUNTER)
+                    .tag("exception", "TranslateException")
+                    .counter()
+                    .count()).isEqualTo(1);
+            assertThat(meterRegistry.get(MicrometerModelListener.POOL_IDLE).gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get(MicrometerModelListener.POOL_MAX).gauge().value()).isEqualTo(2);
+        }
+        assertThat(servedModel.getPredictionCount()).isEqualTo(2);
+        assertThat(servedModel.getItemCount()).isEqualTo(3);
+        assertThat(servedModel.getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void recordsModelLoad() {
+        var servedModel = modelRegistry.register("resnet", properties());
+        servedModel.loadStarted();
+        servedModel.loadSucceeded();
+
+        var timer = meterRegistry.get(MicrometerModelListener.LOAD_TIMER).tag("outcome", "success").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(servedModel.getLoadDuration()).isNotNull();
+    }
+
+    @Test
+    public void recordsPredictorStages() {
+        var metrics = new MicrometerMetrics(meterRegistry, Tags.of("model", "resnet", "engine", "MXNet"));
+        metrics.addMetric("Inference", 1500L, Unit.MICROSECONDS);
+        metrics.addMetric("Unknown", 1L, Unit.COUNT);
+
+        var timer = meterRegistry.get(MicrometerModelListener.INFERENCE_TIMER).tag("stage", "forward").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MICROSECONDS)).isEqualTo(1500);
+    }
+
+    private static ModelProperties properties() {
+        var properties = new ModelProperties();
+        properties.setEngine("MXNet");
+        return properties;
+    }
+}
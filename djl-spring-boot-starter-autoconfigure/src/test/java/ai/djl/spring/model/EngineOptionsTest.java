@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import ai.djl.spring.inference.PredictorPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EngineOptionsTest {
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(EngineOptions.PYTORCH_NUM_THREADS);
+        System.clearProperty(EngineOptions.PYTORCH_NUM_INTEROP_THREADS);
+    }
+
+    @Test
+    public void keepsSystemPropertiesSetOnCommandLine() {
+        System.setProperty(EngineOptions.PYTORCH_NUM_INTEROP_THREADS, "2");
+
+        new EngineOptions()
+                .systemProperty(EngineOptions.PYTORCH_NUM_THREADS, 4)
+                .systemProperty(EngineOptions.PYTORCH_NUM_INTEROP_THREADS, 1)
+                .systemProperty(EngineOptions.PYTORCH_GRAPH_OPTIMIZER, null)
+                .apply();
+
+        assertThat(System.getProperty(EngineOptions.PYTORCH_NUM_THREADS)).isEqualTo("4");
+        assertThat(System.getProperty(EngineOptions.PYTORCH_NUM_INTEROP_THREADS)).isEqualTo("2");
+        assertThat(System.getProperty(EngineOptions.PYTORCH_GRAPH_OPTIMIZER)).isNull();
+    }
+
+    @Test
+    public void reportsOversubscribedCores() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.setProperty(EngineOptions.PYTORCH_NUM_THREADS, String.valueOf(cores));
+        var pool = mock(PredictorPool.class);
+        when(pool.getMaxSize()).thenReturn(2);
+        var model = mock(ServedModel.class);
+        when(model.getName()).thenReturn("default");
+        when(model.getEngine()).thenReturn("PyTorch");
+        doReturn(pool).when(model).getPredictorPool();
+
+        String report = EngineOptions.describeThreadLayout(List.of(model));
+
+        assertThat(report)
+                .contains("model 'default' on PyTorch: 2 concurrent forward passes x " + cores + " intra-op threads")
+                .contains("up to " + 2 * cores + " compute threads")
+                .contains("2.0x oversubscribed");
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import ai.djl.Device;
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.NDManager;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.inference.InferenceObserver;
+import ai.djl.spring.inference.NativeMemoryBudget;
+import ai.djl.spring.inference.ScopedPredictor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LazyZooModelTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<ZooModel<?, ?>> loaded = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private ZooModel<?, ?> load() throws Exception {
+        loads.incrementAndGet();
+        Thread.sleep(50);
+        ZooModel<Object, Object> model = mock(ZooModel.class);
+        when(model.getName()).thenReturn("model" + loads.get());
+        var manager = mock(NDManager.class);
+        var predictorManager = mock(NDManager.class);
+        when(manager.getDevice()).thenReturn(Device.cpu());
+        when(predictorManager.getDevice()).thenReturn(Device.cpu());
+        when(manager.newSubManager(any(Device.class))).thenReturn(predictorManager);
+        when(model.getNDManager()).thenReturn(manager);
+        Predictor<Object, Object> predictor = mock(Predictor.class);
+        when(predictor.predict(any())).thenReturn("output");
+        when(model.newPredictor()).thenReturn(predictor);
+        loaded.add(model);
+        return model;
+    }
+
+    @Test
+    public void doesNotLoadUntilFirstUse() {
+        try (var model = new LazyZooModel<>("test", this::load, null)) {
+            assertThat(model.isLoaded()).isFalse();
+            assertThat(loads).hasValue(0);
+            assertThat(model.getName()).isEqualTo("model1");
+            assertThat(model.isLoaded()).isTrue();
+        }
+    }
+
+    @Test
+    public void loadsOnceForConcurrentFirstCallers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (var model = new LazyZooModel<>("test", this::load, null)) {
+            var start = new CountDownLatch(1);
+            List<Future<String>> names = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                names.add(executor.submit(() -> {
+                    start.await();
+                    return model.getName();
+                }));
+            }
+            start.countDown();
+            for (Future<String> name : names) {
+                assertThat(name.get()).isEqualTo("model1");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void retriesAfterFailedLoad() {
+        var attempts = new AtomicInteger();
+        try (var model = new LazyZooModel<>("test", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first load fails");
+            }
+            return load();
+        }, null)) {
+            assertThatThrownBy(model::getName).isInstanceOf(IllegalStateException.class);
+            assertThat(model.getName()).isEqualTo("model1");
+        }
+    }
+
+    @Test
+    public void unloadsIdleModelUnlessInUse() throws InterruptedException {
+        try (var model = new LazyZooModel<>("test", this::load, Duration.ofMillis(10))) {
+            var inUse = new AtomicBoolean(true);
+            model.setInUse(inUse::get);
+            model.getName();
+
+            Thread.sleep(100);
+            assertThat(model.isLoaded()).isTrue();
+            verify(loaded.get(0), never()).close();
+
+            inUse.set(false);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (model.isLoaded() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(model.isLoaded()).isFalse();
+            verify(loaded.get(0)).close();
+
+            inUse.set(true);
+            assertThat(model.getName()).isEqualTo("model2");
+        }
+    }
+
+    @Test
+    public void keepsModelLoadedWhileProviderPredictorIsOpen() throws Exception {
+        var budget = new NativeMemoryBudget(0, Duration.ZERO, Duration.ZERO, () -> 0);
+        try (var model = new LazyZooModel<Object, Object>("test", this::load, Duration.ofMillis(10))) {
+            // a predictor as handed out by the predictor provider, held across the idle timeout
+            var predictor = new ScopedPredictor<>(model, mock(InferenceObserver.class), budget, null, true, 0);
+            for (int i = 0; i < 5; i++) {
+                Thread.sleep(30);
+                assertThat(predictor.predict("input")).isEqualTo("output");
+            }
+            assertThat(model.isLoaded()).isTrue();
+            assertThat(model.getOpenPredictorCount()).isEqualTo(1);
+            verify(loaded.get(0), never()).close();
+
+            predictor.close();
+            assertThat(model.getOpenPredictorCount()).isZero();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (model.isLoaded() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(model.isLoaded()).isFalse();
+            verify(loaded.get(0)).close();
+        }
+    }
+}
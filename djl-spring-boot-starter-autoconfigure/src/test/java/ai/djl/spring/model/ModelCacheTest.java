@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModelCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void verifiesCacheAgainstManifest() throws IOException {
+        Files.createDirectories(directory.resolve("cache/repo/model"));
+        Files.writeString(directory.resolve("cache/repo/model/model.params"), "weights");
+        Files.writeString(directory.resolve("cache/repo/model/synset.txt"), "classes");
+
+        var modelCache = new ModelCache(directory);
+        assertThat(modelCache.verify()).singleElement().asString().contains("not been pre-fetched");
+
+        modelCache.writeManifest();
+        assertThat(modelCache.verify()).isEmpty();
+
+        Files.writeString(directory.resolve("cache/repo/model/model.params"), "truncated");
+        Files.delete(directory.resolve("cache/repo/model/synset.txt"));
+        assertThat(modelCache.verify()).containsExactly(
+                "Cached file cache/repo/model/model.params has 9 bytes, expected 7",
+                "Missing cached file cache/repo/model/synset.txt");
+    }
+}
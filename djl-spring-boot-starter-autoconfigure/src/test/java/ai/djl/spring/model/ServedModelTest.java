@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.model;
+
+import ai.djl.Device;
+import ai.djl.ndarray.BaseNDManager;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.ParameterList;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.configuration.ModelProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ServedModelTest {
+
+    @Test
+    public void measuresParametersOnceAndPredictionArraysOnEverySample() {
+        NDArray weight = array(new Shape(10, 10), DataType.FLOAT32);
+        NDArray output = array(new Shape(4), DataType.INT64);
+        var parameter = mock(Parameter.class);
+        when(parameter.isInitialized()).thenReturn(true);
+        when(parameter.getArray()).thenReturn(weight);
+        var parameters = new ParameterList();
+        parameters.add("weight", parameter);
+        var block = mock(Block.class);
+        when(block.getParameters()).thenReturn(parameters);
+        var manager = mock(BaseNDManager.class);
+        when(manager.getDevice()).thenReturn(Device.cpu());
+        when(manager.getManagedArrays()).thenReturn(List.of(weight, output));
+        ZooModel<?, ?> model = mock(ZooModel.class);
+        when(model.getNDManager()).thenReturn(manager);
+        when(model.getBlock()).thenReturn(block);
+
+        var servedModel = new ServedModel("default", new ModelProperties(), List.of());
+        servedModel.loadStarted();
+        servedModel.setModel(model);
+        servedModel.loadSucceeded();
+
+        assertThat(servedModel.getNativeArrayBytes()).isEqualTo(10 * 10 * 4 + 4 * 8);
+        assertThat(servedModel.getNativeArrayBytes()).isEqualTo(10 * 10 * 4 + 4 * 8);
+        assertThat(servedModel.getLiveArrayBytes()).isEqualTo(10 * 10 * 4 + 4 * 8);
+        verify(weight, times(2)).getShape();
+        verify(output, times(3)).getShape();
+    }
+
+    private static NDArray array(Shape shape, DataType dataType) {
+        var array = mock(NDArray.class);
+        when(array.getShape()).thenReturn(shape);
+        when(array.getDataType()).thenReturn(dataType);
+        return array;
+    }
+}
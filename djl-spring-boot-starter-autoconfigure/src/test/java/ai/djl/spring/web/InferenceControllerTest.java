@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.web;
+
+import ai.djl.inference.Predictor;
+import ai.djl.spring.configuration.ModelProperties;
+import ai.djl.spring.inference.BatchingPredictor;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.ModelRegistry;
+import ai.djl.spring.model.ServedModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class InferenceControllerTest {
+
+    private final ModelRegistry modelRegistry = new ModelRegistry(List.of());
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new InferenceController(modelRegistry)).build();
+
+    private Predictor<String, String> predictor;
+    private PredictorPool<String, String> pool;
+    private ServedModel servedModel;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        predictor = mock(Predictor.class);
+        when(predictor.predict(anyString())).thenAnswer(invocation -> invocation.<String>getArgument(0).toUpperCase());
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0)
+                .stream().map(String::toUpperCase).collect(Collectors.toList()));
+        pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+
+        var properties = new ModelProperties();
+        properties.setInputClass(String.class);
+        properties.setOutputClass(String.class);
+        servedModel = modelRegistry.register("echo", properties);
+        servedModel.loadStarted();
+        servedModel.loadSucceeded();
+        servedModel.setPredictorPool(pool);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void predictsRawBody() throws Exception {
+        mockMvc.perform(post("/djl/predict/echo").contentType("text/plain").content("hello"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(InferencePayloads.JSON))
+                .andExpect(content().string("\"HELLO\""))
+                .andExpect(header().exists("Server-Timing"));
+        assertThat(servedModel.getPredictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void predictsMultipartBatchInOneBatchPrediction() throws Exception {
+        mockMvc.perform(multipart("/djl/predict/echo")
+                .part(new MockPart("first", "a".getBytes(StandardCharsets.UTF_8)))
+                .part(new MockPart("second", "b".getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[\"A\",\"B\"]"));
+        verify(predictor).batchPredict(List.of("a", "b"));
+    }
+
+    @Test
+    public void feedsBatchingPredictorWhenEnabled() throws Exception {
+        try (var batching = new BatchingPredictor<>(pool, 8, Duration.ofMillis(1), 16, 1)) {
+            servedModel.setBatchingPredictor(batching);
+            mockMvc.perform(post("/djl/predict/echo").content("batched"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("\"BATCHED\""));
+            verify(predictor).batchPredict(List.of("batched"));
+            verify(predictor, never()).predict(anyString());
+        }
+    }
+
+    @Test
+    public void rejectsUnknownModelAndUnsupportedPayloads() throws Exception {
+        mockMvc.perform(post("/djl/predict/missing").content("hello")).andExpect(status().isNotFound());
+        mockMvc.perform(post("/djl/predict/echo").contentType(InferencePayloads.NDLIST).content(new byte[4]))
+                .andExpect(status().isUnsupportedMediaType());
+        mockMvc.perform(post("/djl/predict/echo").contentType(InferencePayloads.NDLIST + "; version=1")
+                .content(new byte[4]))
+                .andExpect(status().isUnsupportedMediaType());
+        var part = new MockPart("first", new byte[4]);
+        part.getHeaders().setContentType(MediaType.valueOf(InferencePayloads.NDLIST));
+        mockMvc.perform(multipart("/djl/predict/echo").part(part)).andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import ai.djl.inference.Predictor;
+import ai.djl.ndarray.NDManager;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.translate.TranslateException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A worker upper-casing strings and tagging them with its process id, without loading a model. It never answers
+ * {@code hang}.
+ */
+public final class EchoWorker {
+
+    private EchoWorker() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException, TranslateException {
+        WorkerMain.exitWithParent();
+        Predictor<Object, Object> predictor = mock(Predictor.class);
+        when(predictor.predict(any())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        when(predictor.batchPredict(anyList())).thenAnswer(invocation -> ((List<Object>) invocation.getArgument(0))
+                .stream().map(EchoWorker::echo).collect(Collectors.toList()));
+        var manager = mock(NDManager.class);
+        when(manager.newSubManager()).thenReturn(mock(NDManager.class));
+        var pool = new PredictorPool<>(() -> predictor, 0, 4, Duration.ofSeconds(10), Duration.ZERO);
+        WorkerMain.serve(args[0], System.getenv(WorkerMain.TOKEN), pool, manager);
+    }
+
+    static String echo(Object input) {
+        if ("fail".equals(input)) {
+            throw new IllegalArgumentException("bad input");
+        }
+        if ("hang".equals(input)) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return input.toString().toUpperCase() + '@' + ProcessHandle.current().pid();
+    }
+}
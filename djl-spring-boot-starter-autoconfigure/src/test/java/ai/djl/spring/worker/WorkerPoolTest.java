@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WorkerPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private WorkerPool workers;
+
+    @AfterEach
+    public void close() {
+        if (workers != null) {
+            workers.close();
+        }
+    }
+
+    @Test
+    public void dispatchesAcrossWorkers() throws Exception {
+        workers = start(2, 1024);
+
+        Set<String> pids = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            String output = (String) workers.call(WorkerProtocol.PREDICT, "input" + i, null);
+            assertThat(output).startsWith("INPUT" + i + '@');
+            pids.add(output.substring(output.indexOf('@')));
+        }
+        assertThat(pids).hasSize(2);
+        assertThat(workers.call(WorkerProtocol.BATCH_PREDICT, List.of("a", "b"), null))
+                .asList().hasSize(2).allSatisfy(output -> assertThat((String) output).contains("@"));
+
+        // larger than the shared buffer, sent through the socket
+        String large = "x".repeat(4096);
+        assertThat((String) workers.call(WorkerProtocol.PREDICT, large, null)).startsWith(large.toUpperCase());
+    }
+
+    @Test
+    public void reportsFailureOfPrediction() throws Exception {
+        workers = start(1, 1024);
+
+        assertThatThrownBy(() -> workers.call(WorkerProtocol.PREDICT, "fail", null))
+                .isInstanceOf(TranslateException.class).hasMessageContaining("bad input");
+        assertThat((String) workers.call(WorkerProtocol.PREDICT, "next", null)).startsWith("NEXT@");
+    }
+
+    @Test
+    public void restartsCrashedWorker() throws Exception {
+        workers = start(1, 0);
+        long pid = workers.getProcess(0).getPid();
+        workers.call(WorkerProtocol.PREDICT, "warm", null);
+
+        workers.getProcess(0).kill();
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while ((workers.getRestartCount() == 0 || workers.getAliveCount() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(workers.getRestartCount()).isEqualTo(1);
+        assertThat(workers.getProcess(0).getPid()).isNotEqualTo(pid);
+        assertThat((String) workers.call(WorkerProtocol.PREDICT, "again", null))
+                .isEqualTo("AGAIN@" + workers.getProcess(0).getPid());
+    }
+
+    @Test
+    public void killsWorkerNotAnsweringInTime() throws Exception {
+        workers = start(1, 1024, Duration.ofSeconds(1));
+        long pid = workers.getProcess(0).getPid();
+
+        assertThatThrownBy(() -> workers.call(WorkerProtocol.PREDICT, "hang", null))
+                .isInstanceOf(TranslateException.class).hasMessageContaining("did not answer within");
+        long deadline = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while ((workers.getRestartCount() == 0 || workers.getAliveCount() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertThat(workers.getProcess(0).getPid()).isNotEqualTo(pid);
+        assertThat((String) workers.call(WorkerProtocol.PREDICT, "again", null)).startsWith("AGAIN@");
+    }
+
+    private WorkerPool start(int size, int bufferSize) throws Exception {
+        return start(size, bufferSize, Duration.ZERO);
+    }
+
+    private WorkerPool start(int size, int bufferSize, Duration callTimeout) throws Exception {
+        List<String> launcher = List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-cp",
+                System.getProperty("java.class.path"), EchoWorker.class.getName());
+        var pool = new WorkerPool(launcher, List.of(), null, size, Duration.ofSeconds(60), dir, bufferSize,
+                Duration.ofMillis(100), callTimeout);
+        pool.start();
+        return pool;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.worker;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Input;
+import ai.djl.modality.Output;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.ndarray.NDManager;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.translate.TranslateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorkerServerTest {
+
+    @TempDir
+    Path dir;
+
+    private WorkerServer server;
+
+    @AfterEach
+    public void close() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void servesOverTcpAndSharedMemory() throws Exception {
+        String address = start("tcp:0");
+
+        try (var connection = new WorkerConnection(address, "secret", SharedBuffer.create(dir, 4096))) {
+            var input = new Input();
+            input.addProperty("Content-Type", "text/plain");
+            input.add("data", "hello".getBytes(StandardCharsets.UTF_8));
+            var output = (Output) connection.call(WorkerProtocol.PREDICT, input, null);
+
+            assertThat(output.getCode()).isEqualTo(200);
+            assertThat(output.getProperty("Content-Type", null)).isEqualTo("text/plain");
+            assertThat(output.getData().getAsString()).isEqualTo("HELLO");
+        }
+    }
+
+    @Test
+    public void servesOverUnixDomainSocket() throws Exception {
+        if (!WorkerTransport.isUnixDomainSocketSupported()) {
+            return;
+        }
+        String address = start(WorkerTransport.UNIX + dir.resolve("worker.sock"));
+
+        try (var connection = new WorkerConnection(address, "secret", null)) {
+            var input = new Input();
+            input.add("abc");
+            var outputs = (List<?>) connection.call(WorkerProtocol.BATCH_PREDICT, List.of(input, input), null);
+
+            assertThat(outputs).hasSize(2);
+            assertThat(((Output) outputs.get(1)).getData().getAsString()).isEqualTo("ABC");
+        }
+    }
+
+    @Test
+    public void splitsPayloadLargerThanSharedBuffer() throws Exception {
+        String address = start("tcp:0");
+
+        try (var connection = new WorkerConnection(address, "secret", SharedBuffer.create(dir, 64))) {
+            var input = new Input();
+            input.add("x".repeat(1000));
+            var output = (Output) connection.call(WorkerProtocol.PREDICT, input, null);
+
+            assertThat(output.getData().getAsString()).isEqualTo("X".repeat(1000));
+        }
+    }
+
+    @Test
+    public void sendsImagesAsRawPixels() throws Exception {
+        var pixels = new BufferedImage(7, 5, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                pixels.setRGB(x, y, 0xFF000000 | x * 30 << 16 | y * 40 << 8 | x + y);
+            }
+        }
+        Image image = ImageFactory.getInstance().fromImage(pixels);
+
+        try (var buffer = SharedBuffer.create(dir, 64)) {
+            var socket = new ByteArrayOutputStream();
+            WorkerProtocol.writeFrame(new DataOutputStream(socket), buffer, true, image);
+            var in = new DataInputStream(new ByteArrayInputStream(socket.toByteArray()));
+            var decoded = (BufferedImage) ((Image) WorkerProtocol.readFrame(in, buffer, true, null)).getWrappedImage();
+
+            // 7 * 5 pixels of 4 bytes, of which the 64 bytes of the region are not sent through the socket
+            assertThat(socket.size()).isLessThan(7 * 5 * 4);
+            assertThat(decoded.getWidth()).isEqualTo(7);
+            assertThat(decoded.getHeight()).isEqualTo(5);
+            for (int y = 0; y < 5; y++) {
+                for (int x = 0; x < 7; x++) {
+                    assertThat(decoded.getRGB(x, y)).isEqualTo(pixels.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rejectsWrongToken() throws Exception {
+        String address = start("tcp:0");
+
+        assertThatThrownBy(() -> new WorkerConnection(address, "wrong", null)).isInstanceOf(IOException.class)
+                .hasMessageContaining("rejected");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String start(String address) throws IOException, TranslateException {
+        Predictor<Object, Object> predictor = mock(Predictor.class);
+        when(predictor.predict(any())).thenAnswer(invocation -> upperCase(invocation.getArgument(0)));
+        when(predictor.batchPredict(any())).thenAnswer(invocation -> List.of(
+                upperCase(((List<Input>) invocation.getArgument(0)).get(0)),
+                upperCase(((List<Input>) invocation.getArgument(0)).get(1))));
+        var manager = mock(NDManager.class);
+        when(manager.newSubManager()).thenReturn(mock(NDManager.class));
+        var pool = new PredictorPool<>(() -> predictor, 0, 2, Duration.ofSeconds(1), Duration.ZERO);
+
+        var channel = WorkerTransport.bind(address);
+        server = new WorkerServer(channel, "secret", pool, manager);
+        var thread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException ignore) {
+                // closed by the test
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return WorkerTransport.localAddress(channel, address);
+    }
+
+    private static Output upperCase(Input input) {
+        var output = new Output();
+        output.setProperties(input.getProperties());
+        output.add(input.getData().getAsString().toUpperCase());
+        return output;
+    }
+}
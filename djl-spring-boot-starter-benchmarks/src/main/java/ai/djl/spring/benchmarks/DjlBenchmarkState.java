@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import ai.djl.engine.Engine;
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.Image;
+import ai.djl.spring.configuration.DjlAutoConfiguration;
+import ai.djl.spring.inference.BatchingPredictor;
+import ai.djl.spring.inference.PredictorPool;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application context booted through {@link DjlAutoConfiguration} once per benchmark trial, with an image
+ * classification model for the engine on the classpath.
+ *
+ * <p>
+ * The model is loaded from the local DJL cache by default. Run the benchmarks once with {@code -p offline=false} to
+ * download it, or point {@code -Ddjl.model-cache.directory} at a cache filled by the starter's pre-fetch run.
+ */
+@State(Scope.Benchmark)
+public class DjlBenchmarkState {
+
+    // TensorFlow has no ResNet translator in its model zoo
+    private static final Map<String, String> ARTIFACTS = Map.of("PyTorch", "resnet", "MXNet", "resnet",
+            "TensorFlow", "mobilenet");
+
+    /**
+     * Whether DJL must only use the local model cache.
+     */
+    @Param("true")
+    public boolean offline;
+
+    ConfigurableApplicationContext context;
+    Supplier<Predictor<Image, Classifications>> predictorProvider;
+    PredictorPool<Image, Classifications> predictorPool;
+    BatchingPredictor<Image, Classifications> batchingPredictor;
+
+    /**
+     * Boots the context.
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = newApplication(offline)
+                .properties("djl.batching.enabled=true", "djl.batching.max-batch-size=" + ImageState.BATCH_SIZE)
+                .run();
+        predictorProvider = (Supplier<Predictor<Image, Classifications>>) context.getBean("predictorProvider");
+        predictorPool = context.getBean(PredictorPool.class);
+        batchingPredictor = context.getBean(BatchingPredictor.class);
+    }
+
+    /**
+     * Creates an application serving the benchmark model through {@link DjlAutoConfiguration}.
+     *
+     * @param offline whether DJL must only use the local model cache
+     * @return the application builder
+     */
+    static SpringApplicationBuilder newApplication(boolean offline) {
+        String engine = Engine.getDefaultEngineName();
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties("djl.application-type=IMAGE_CLASSIFICATION",
+                        "djl.input-class=ai.djl.modality.cv.Image",
+                        "djl.output-class=ai.djl.modality.Classifications",
+                        "djl.engine=" + engine,
+                        "djl.model-artifact-id=" + ARTIFACTS.getOrDefault(engine, "resnet"),
+                        "djl.model-cache.offline=" + offline);
+    }
+
+    /**
+     * Closes the context and the model.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration(DjlAutoConfiguration.class)
+    static class BenchmarkApplication {
+    }
+}
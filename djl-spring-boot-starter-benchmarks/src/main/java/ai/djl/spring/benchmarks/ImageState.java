@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The benchmark image, as encoded bytes and decoded.
+ */
+@State(Scope.Benchmark)
+public class ImageState {
+
+    /**
+     * Number of images in a batch prediction.
+     */
+    public static final int BATCH_SIZE = 8;
+
+    byte[] imageBytes;
+    Image image;
+    List<Image> batch;
+
+    /**
+     * Reads and decodes the benchmark image.
+     *
+     * @throws IOException if the image cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream is = ImageState.class.getResourceAsStream("/puppy-in-white-and-red-polka.jpg")) {
+            imageBytes = is.readAllBytes();
+        }
+        image = decode();
+        batch = Collections.nCopies(BATCH_SIZE, image);
+    }
+
+    Image decode() throws IOException {
+        return ImageFactory.getInstance().fromInputStream(new ByteArrayInputStream(imageBytes));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.Image;
+import ai.djl.translate.TranslateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-threaded costs of the starter's inference paths: predictor creation, single and batched prediction on the
+ * predictor pool, and image decoding.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class InferenceBenchmark {
+
+    /**
+     * Cost of creating and closing a predictor from the {@code predictorProvider} bean, which callers not using the
+     * pool pay on every request.
+     *
+     * @param state the benchmark state
+     * @param blackhole consumes the predictor
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void newPredictor(DjlBenchmarkState state, Blackhole blackhole) {
+        try (var predictor = state.predictorProvider.get()) {
+            blackhole.consume(predictor);
+        }
+    }
+
+    /**
+     * Images per second predicted one at a time on pooled predictors.
+     *
+     * @param state the benchmark state
+     * @param image the benchmark image
+     * @return the prediction
+     * @throws TranslateException if the prediction fails
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Classifications predictSingle(DjlBenchmarkState state, ImageState image) throws TranslateException {
+        return state.predictorPool.predict(image.image);
+    }
+
+    /**
+     * Images per second predicted in batches of {@value ImageState#BATCH_SIZE} on pooled predictors.
+     *
+     * @param state the benchmark state
+     * @param image the benchmark image
+     * @return the predictions
+     * @throws TranslateException if the prediction fails
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ImageState.BATCH_SIZE)
+    public List<Classifications> predictBatch(DjlBenchmarkState state, ImageState image) throws TranslateException {
+        return state.predictorPool.batchPredict(image.batch);
+    }
+
+    /**
+     * Time taken to decode the JPEG benchmark image with {@code ImageFactory.fromInputStream}.
+     *
+     * @param image the benchmark image
+     * @return the decoded image
+     * @throws IOException if the image cannot be decoded
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Image decodeImage(ImageState image) throws IOException {
+        return image.decode();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import ai.djl.modality.Classifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * End-to-end latency distribution of a prediction, decoding included, through the predictor pool and the batching
+ * predictor. JMH reports the percentiles of the sampled times.
+ *
+ * <p>
+ * Run {@link #main(String[])} to repeat the benchmark for each thread count in {@code -Dbenchmark.threads},
+ * {@code 1,4,16} by default.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LatencyBenchmark {
+
+    /**
+     * Decodes the image and predicts it on a pooled predictor.
+     *
+     * @param state the benchmark state
+     * @param image the benchmark image
+     * @return the prediction
+     * @throws Exception if decoding or the prediction fails
+     */
+    @Benchmark
+    public Classifications pooled(DjlBenchmarkState state, ImageState image) throws Exception {
+        return state.predictorPool.predict(image.decode());
+    }
+
+    /**
+     * Decodes the image and predicts it through the batching predictor, which batches concurrent requests.
+     *
+     * @param state the benchmark state
+     * @param image the benchmark image
+     * @return the prediction
+     * @throws Exception if decoding or the prediction fails
+     */
+    @Benchmark
+    public Classifications batching(DjlBenchmarkState state, ImageState image) throws Exception {
+        return state.batchingPredictor.predict(image.decode()).join();
+    }
+
+    /**
+     * Runs the latency benchmark once per thread count.
+     *
+     * @param args unused
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        String threads = System.getProperty("benchmark.threads", "1,4,16");
+        for (String count : threads.split(",")) {
+            var options = new OptionsBuilder()
+                    .include("\\." + LatencyBenchmark.class.getSimpleName() + "\\.")
+                    .threads(Integer.parseInt(count.trim()))
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.spring.inference.AdaptiveConcurrencyLimiter;
+import ai.djl.spring.inference.ConcurrencyLimitExceededException;
+import ai.djl.spring.inference.PredictorPool;
+import ai.djl.spring.model.ModelRegistry;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load generator overloading the benchmark model, with and without the adaptive concurrency limiter.
+ *
+ * <p>
+ * {@code -Dbenchmark.clients} threads, 4 per core by default, predict in a closed loop for
+ * {@code -Dbenchmark.duration} seconds, 30 by default, first each holding a predictor from the
+ * {@code predictorProvider}, then borrowing one from the {@code predictorPool} for each prediction, as the batching
+ * predictor, the executor, the scheduler and the HTTP endpoint do. A client whose prediction is rejected by the limiter
+ * backs off for a millisecond, as a caller retrying later would. The throughput of every second
+ * is printed, then the throughput, rejections and latency percentiles of each variant, so that the stability of
+ * throughput under overload can be compared.
+ */
+public final class OverloadBenchmark {
+
+    private OverloadBenchmark() {
+    }
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args unused
+     * @throws IOException if the benchmark image cannot be read
+     * @throws InterruptedException if interrupted while the clients run
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = Integer.getInteger("benchmark.clients", 4 * Runtime.getRuntime().availableProcessors());
+        int seconds = Integer.getInteger("benchmark.duration", 30);
+        boolean offline = Boolean.parseBoolean(System.getProperty("benchmark.offline", "true"));
+        Image image;
+        try (InputStream is = OverloadBenchmark.class.getResourceAsStream("/puppy-in-white-and-red-polka.jpg")) {
+            image = ImageFactory.getInstance().fromInputStream(is);
+        }
+
+        List<String> results = new ArrayList<>();
+        for (boolean pooled : new boolean[] {false, true}) {
+            for (boolean limited : new boolean[] {false, true}) {
+                String variant = (pooled ? "pool" : "provider") + '/' + (limited ? "limited" : "unlimited");
+                try (ConfigurableApplicationContext context = DjlBenchmarkState.newApplication(offline)
+                        .properties("djl.limiter.enabled=" + limited)
+                        .run()) {
+                    results.add(run(context, variant, pooled, image, clients, seconds));
+                }
+            }
+        }
+        System.out.printf("%n%-18s %8s %10s %8s %8s %8s %6s%n", "variant", "clients", "pred/s", "rejected", "p50 ms",
+                "p99 ms", "limit");
+        results.forEach(System.out::println);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String run(ConfigurableApplicationContext context, String variant, boolean pooled, Image image,
+            int clients, int seconds) throws InterruptedException {
+        var predictorProvider = (Supplier<Predictor<Image, Classifications>>) context.getBean("predictorProvider");
+        var predictorPool = (PredictorPool<Image, Classifications>) context.getBean("predictorPool");
+        AdaptiveConcurrencyLimiter limiter = context.getBean(ModelRegistry.class)
+                .get(ModelRegistry.DEFAULT_MODEL_NAME).getConcurrencyLimiter();
+        var perSecond = new AtomicLongArray(seconds);
+        var rejected = new LongAdder();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long begin = System.nanoTime();
+        long end = begin + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                List<Long> local = new ArrayList<>();
+                // a pooled client holds no predictor, it borrows one for each prediction
+                try (var predictor = pooled ? null : predictorProvider.get()) {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        try {
+                            if (pooled) {
+                                predictorPool.predict(image);
+                            } else {
+                                predictor.predict(image);
+                            }
+                            long done = System.nanoTime();
+                            local.add(done - now);
+                            int second = (int) TimeUnit.NANOSECONDS.toSeconds(done - begin);
+                            if (second < seconds) {
+                                perSecond.incrementAndGet(second);
+                            }
+                        } catch (ConcurrencyLimitExceededException e) {
+                            rejected.increment();
+                            Thread.sleep(1);
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    latencies.addAll(local);
+                }
+            }, "overload-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        var sb = new StringBuilder(variant).append(" predictions per second:");
+        long total = 0;
+        for (int i = 0; i < seconds; i++) {
+            sb.append(' ').append(perSecond.get(i));
+            total += perSecond.get(i);
+        }
+        System.out.println(sb);
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return String.format("%-18s %8d %10.1f %8d %8.1f %8.1f %6s", variant, clients, (double) total / seconds,
+                rejected.sum(), percentile(sorted, 0.5), percentile(sorted, 0.99),
+                limiter != null ? String.valueOf(limiter.getLimit()) : "-");
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the cold start of the benchmark application, from JVM launch to a loaded model, with and without an AppCDS
+ * archive produced by the starter's training run.
+ *
+ * <p>
+ * The archive is created first by running {@link StartupProbe} with {@code -XX:ArchiveClassesAtExit} and
+ * {@code djl.cds.training-run}. Each variant is then launched {@code -Dbenchmark.runs} times, 10 by default, in fresh
+ * JVMs, alternating between variants so that both see the same machine state.
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Runs the startup benchmark.
+     *
+     * @param args unused
+     * @throws IOException if a JVM cannot be launched
+     * @throws InterruptedException if interrupted while waiting for a JVM
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = Integer.getInteger("benchmark.runs", 10);
+        Path archive = Paths.get(System.getProperty("benchmark.archive", "target/djl-startup.jsa")).toAbsolutePath();
+        Files.createDirectories(archive.getParent());
+        Files.deleteIfExists(archive);
+
+        launch(List.of("-XX:ArchiveClassesAtExit=" + archive), List.of("--djl.cds.training-run=true"));
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("Training run did not create " + archive);
+        }
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of());
+        variants.put("appcds", List.of("-XX:SharedArchiveFile=" + archive));
+        Map<String, List<Long>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < runs; i++) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                long millis = launch(variant.getValue(), List.of());
+                samples.computeIfAbsent(variant.getKey(), k -> new ArrayList<>()).add(millis);
+            }
+        }
+
+        System.out.printf("%-10s %8s %8s %8s%n", "variant", "min ms", "p50 ms", "max ms");
+        for (Map.Entry<String, List<Long>> variant : samples.entrySet()) {
+            List<Long> times = variant.getValue();
+            Collections.sort(times);
+            System.out.printf("%-10s %8d %8d %8d%n", variant.getKey(), times.get(0), times.get(times.size() / 2),
+                    times.get(times.size() - 1));
+        }
+    }
+
+    private static long launch(List<String> jvmArgs, List<String> appArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Djava.awt.headless=true");
+        command.add("-Dbenchmark.offline=" + System.getProperty("benchmark.offline", "true"));
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupProbe.class.getName());
+        command.addAll(appArgs);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long millis = -1;
+        try (var reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(StartupProbe.READY)) {
+                    millis = Long.parseLong(line.substring(StartupProbe.READY.length()));
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("JVM exited with " + exitCode + ": " + command);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.spring.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Boots the benchmark application once and prints the time since the JVM started, JVM startup and class loading
+ * included. Launched in a fresh JVM for every sample by {@link StartupBenchmark}.
+ */
+public final class StartupProbe {
+
+    static final String READY = "djl-startup-ms=";
+
+    private StartupProbe() {
+    }
+
+    /**
+     * Boots the application, prints the startup time and exits.
+     *
+     * @param args the application arguments
+     */
+    public static void main(String[] args) {
+        boolean offline = Boolean.parseBoolean(System.getProperty("benchmark.offline", "true"));
+        try (var context = DjlBenchmarkState.newApplication(offline).run(args)) {
+            System.out.println(READY + ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package ai.djl.spring.onnxruntime;
+
+
+import ai.djl.engine.Engine;
+import ai.djl.inference.Predictor;
+import ai.djl.modality.Classifications;
+import ai.djl.modality.cv.Image;
+import ai.djl.modality.cv.ImageFactory;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.spring.configuration.DjlAutoConfiguration;
+import ai.djl.spring.inference.ModelWarmup;
+import ai.djl.spring.inference.PredictorPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DjlOnnxRuntimeAutoConfigurationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DjlOnnxRuntimeAutoConfigurationTest.class);
+
+    private static final int ITERATIONS = 50;
+
+    private ApplicationContextRunner applicationContextRunner;
+
+    @BeforeEach
+    public void setUp() {
+        applicationContextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(DjlAutoConfiguration.class))
+                .withPropertyValues(
+                        "djl.application-type=IMAGE_CLASSIFICATION",
+                        "djl.model-artifact-id=resnet",
+                        "djl.input-class=ai.djl.modality.cv.Image",
+                        "djl.output-class=ai.djl.modality.Classifications");
+    }
+
+    @Test
+    public void loadConfigurationWithPropertiesDefinedAndRunInference() {
+        applicationContextRunner.withPropertyValues(
+                "djl.engine=OnnxRuntime",
+                "djl.onnxruntime.optimization-level=ALL_OPT",
+                "djl.onnxruntime.execution-mode=SEQUENTIAL",
+                "djl.onnxruntime.intra-op-num-threads=2")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ZooModel.class);
+                    assertThat(context).hasBean("predictorProvider");
+                    assertThat(context.getBean(ZooModel.class).getNDManager().getEngine().getEngineName())
+                            .isEqualTo("OnnxRuntime");
+                    var predictor = (Supplier<Predictor<Image, Classifications>>) context.getBean("predictorProvider");
+                    try (var p = predictor.get()) {
+                        Classifications result = p.predict(getClassPathImage("/puppy-in-white-and-red-polka.jpg"));
+                        LOG.info(result.toString());
+                    }
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void comparesThroughputWithOtherEngines() throws IOException {
+        Image image = getClassPathImage("/puppy-in-white-and-red-polka.jpg");
+        Map<String, Double> throughput = new LinkedHashMap<>();
+        for (String engine : List.of("OnnxRuntime", "PyTorch", "TensorFlow")) {
+            if (!Engine.hasEngine(engine)) {
+                LOG.info("Engine {} is not available, skipping", engine);
+                continue;
+            }
+            applicationContextRunner.withPropertyValues("djl.engine=" + engine, "djl.pool.max-size=1")
+                    .run(context -> {
+                        var pool = (PredictorPool<Image, Classifications>) context.getBean(PredictorPool.class);
+                        new ModelWarmup<>(pool, List.of(image), 5, List.of(1), List.of(1)).run(engine);
+                        long begin = System.nanoTime();
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            pool.predict(image);
+                        }
+                        throughput.put(engine, ITERATIONS * 1e9 / (System.nanoTime() - begin));
+                    });
+        }
+        throughput.forEach((engine, perSecond) -> LOG.info("{}: {} images/s", engine,
+                String.format(Locale.ROOT, "%.1f", perSecond)));
+        assertThat(throughput).containsKey("OnnxRuntime");
+    }
+
+    private Image getClassPathImage(String uri) throws IOException {
+        return ImageFactory.getInstance().fromInputStream(this.getClass().getResourceAsStream(uri));
+    }
+
+}